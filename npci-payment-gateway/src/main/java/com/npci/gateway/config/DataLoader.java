@@ -7,11 +7,13 @@ import com.npci.gateway.repository.UpiIdRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Component
+@Order(1)
 @RequiredArgsConstructor
 @Slf4j
 public class DataLoader implements CommandLineRunner {
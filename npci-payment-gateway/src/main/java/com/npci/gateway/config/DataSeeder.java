@@ -0,0 +1,307 @@
+package com.npci.gateway.config;
+
+import com.npci.gateway.repository.AccountRepository;
+import com.npci.gateway.util.ZipfSampler;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads a large synthetic dataset for load tests, after the 100 DataLoader accounts.
+ *
+ * Set app.seed.accounts (e.g. app.seed.accounts=5_000_000) to create that many accounts from
+ * ACC000101 upwards, each with a VPA (user101@upi, ...), and app.seed.transactions for a
+ * payment history between them. Payers and payees are drawn from a Zipf distribution
+ * (app.seed.zipf-exponent), so a few accounts carry most of the traffic as in production.
+ * History is spread over the last app.seed.history-days and does not change balances.
+ *
+ * Rows are written with plain JDBC batches from app.seed.threads threads, each committing every
+ * app.seed.batch-size rows, and throughput is logged per table. Finally CSV feeders in the
+ * upi-test-data.csv format are written to app.seed.feeder-directory.
+ */
+@Component
+@Order(2)
+@Slf4j
+public class DataSeeder implements CommandLineRunner {
+    
+    // DataLoader creates ACC000001 to ACC000100
+    private static final long FIRST_ACCOUNT = 101;
+    private static final double IMPS_SHARE = 0.3;
+    private static final double FAILURE_RATE = 0.03;
+    
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final AccountRepository accountRepository;
+    private final long accounts;
+    private final long transactions;
+    private final double zipfExponent;
+    private final int historyDays;
+    private final int threads;
+    private final int batchSize;
+    private final long randomSeed;
+    private final Path feederDirectory;
+    private final int feederRows;
+    
+    public DataSeeder(DataSource dataSource,
+                      EntityManagerFactory entityManagerFactory,
+                      AccountRepository accountRepository,
+                      @Value("${app.seed.accounts:0}") String accounts,
+                      @Value("${app.seed.transactions:0}") String transactions,
+                      @Value("${app.seed.zipf-exponent:1.0}") double zipfExponent,
+                      @Value("${app.seed.history-days:30}") int historyDays,
+                      @Value("${app.seed.threads:0}") int threads,
+                      @Value("${app.seed.batch-size:1000}") int batchSize,
+                      @Value("${app.seed.random-seed:42}") long randomSeed,
+                      @Value("${app.seed.feeder-directory:seed-data}") Path feederDirectory,
+                      @Value("${app.seed.feeder-rows:100000}") int feederRows) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.accountRepository = accountRepository;
+        // Accept Java-style digit separators such as 5_000_000
+        this.accounts = Long.parseLong(accounts.replace("_", ""));
+        this.transactions = Long.parseLong(transactions.replace("_", ""));
+        this.zipfExponent = zipfExponent;
+        this.historyDays = historyDays;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.randomSeed = randomSeed;
+        this.feederDirectory = feederDirectory;
+        this.feederRows = feederRows;
+    }
+    
+    @Override
+    public void run(String... args) throws Exception {
+        if (accounts <= 0) {
+            return;
+        }
+        if (accountRepository.existsByAccountNumber(accountNumber(0))) {
+            log.info("Seed data already present, skipping");
+            return;
+        }
+        log.info("Seeding {} accounts and {} transactions with {} threads", accounts, transactions, threads);
+        ZipfSampler popularity = new ZipfSampler(accounts, zipfExponent);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("seed-"));
+        try {
+            insert(executor, "accounts", accounts,
+                    "INSERT INTO accounts (account_number, account_holder_name, balance, ifsc_code, bank_name, "
+                            + "account_type, status, created_at, updated_at) "
+                            + "VALUES (?, ?, ?, 'SBIN0001234', 'State Bank of India', 'SAVINGS', 'ACTIVE', ?, ?)",
+                    this::bindAccount);
+            insert(executor, "upi_ids", accounts,
+                    "INSERT INTO upi_ids (upi_id, account_id, is_primary, status, created_at) "
+                            + "SELECT ?, id, TRUE, 'ACTIVE', ? FROM accounts WHERE account_number = ?",
+                    this::bindUpiId);
+            if (transactions > 0 && accounts > 1) {
+                insert(executor, "transactions", transactions,
+                        "INSERT INTO transactions (id, transaction_id, transaction_type, from_account_id, "
+                                + "to_account_id, amount, status, remarks, failure_reason, created_at, updated_at) "
+                                + "SELECT " + nextTransactionKey() + ", ?, ?, payer.id, payee.id, ?, ?, ?, ?, ?, ? "
+                                + "FROM accounts payer, accounts payee "
+                                + "WHERE payer.account_number = ? AND payee.account_number = ?",
+                        (statement, row, random) -> bindTransaction(statement, row, random, popularity));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        writeFeeders(popularity);
+    }
+    
+    /**
+     * Sets the parameters of one row
+     */
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement statement, long row, SplittableRandom random) throws SQLException;
+    }
+    
+    /**
+     * Insert rows 0..count-1 in chunks spread over the executor, logging progress and rows per second
+     */
+    private void insert(ExecutorService executor, String table, long count, String sql, RowBinder binder)
+            throws InterruptedException {
+        long chunkRows = (long) batchSize * 10;
+        long started = System.nanoTime();
+        Progress progress = new Progress(table, count, started);
+        List<Future<?>> chunks = new ArrayList<>();
+        for (long from = 0; from < count; from += chunkRows) {
+            long start = from;
+            long end = Math.min(count, from + chunkRows);
+            chunks.add(executor.submit(() -> {
+                insertChunk(sql, start, end, binder, progress);
+                return null;
+            }));
+        }
+        for (Future<?> chunk : chunks) {
+            try {
+                chunk.get();
+            } catch (ExecutionException e) {
+                chunks.forEach(pending -> pending.cancel(true));
+                throw new IllegalStateException("Seeding " + table + " failed", e.getCause());
+            }
+        }
+        log.info("Seeded {} {} in {} ms ({} rows/s)", count, table,
+                (System.nanoTime() - started) / 1_000_000, rate(count, started));
+    }
+    
+    private void insertChunk(String sql, long from, long to, RowBinder binder, Progress progress) throws SQLException {
+        // Seeded per chunk, so the same settings always produce the same data whatever the thread timing
+        SplittableRandom random = new SplittableRandom(randomSeed * 31 + from);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            int pending = 0;
+            for (long row = from; row < to; row++) {
+                binder.bind(statement, row, random);
+                statement.addBatch();
+                if (++pending == batchSize || row == to - 1) {
+                    statement.executeBatch();
+                    connection.commit();
+                    progress.committed(pending);
+                    pending = 0;
+                }
+            }
+        }
+    }
+    
+    private void bindAccount(PreparedStatement statement, long row, SplittableRandom random) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        statement.setString(1, accountNumber(row));
+        statement.setString(2, "Test User " + (FIRST_ACCOUNT + row));
+        statement.setBigDecimal(3, BigDecimal.valueOf(random.nextLong(1_000_00, 1_000_000_01), 2));
+        statement.setTimestamp(4, now);
+        statement.setTimestamp(5, now);
+    }
+    
+    private void bindUpiId(PreparedStatement statement, long row, SplittableRandom random) throws SQLException {
+        statement.setString(1, upiId(row));
+        statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+        statement.setString(3, accountNumber(row));
+    }
+    
+    private void bindTransaction(PreparedStatement statement, long row, SplittableRandom random,
+                                 ZipfSampler popularity) throws SQLException {
+        long payer = popularity.sample(random) - 1;
+        long payee = otherAccount(payer, popularity, random);
+        boolean failed = random.nextDouble() < FAILURE_RATE;
+        Timestamp createdAt = Timestamp.valueOf(
+                LocalDateTime.now().minusSeconds(random.nextLong(Math.max(1, historyDays * 86_400L))));
+        statement.setString(1, String.format("SEED%016d", row + 1));
+        statement.setString(2, random.nextDouble() < IMPS_SHARE ? "IMPS" : "UPI");
+        statement.setBigDecimal(3, BigDecimal.valueOf(random.nextLong(1_00, 5_000_01), 2));
+        statement.setString(4, failed ? "FAILED" : "SUCCESS");
+        statement.setString(5, "Seeded payment");
+        statement.setString(6, failed ? "Insufficient balance" : null);
+        statement.setTimestamp(7, createdAt);
+        statement.setTimestamp(8, createdAt);
+        statement.setString(9, accountNumber(payer));
+        statement.setString(10, accountNumber(payee));
+    }
+    
+    /**
+     * Write upi-payments.csv (fromUpiId,toUpiId,amount,remarks, as upi-test-data.csv) and
+     * accounts.csv (accountNumber), with payers drawn from the same distribution as the history
+     */
+    private void writeFeeders(ZipfSampler popularity) {
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        try {
+            Files.createDirectories(feederDirectory);
+            try (BufferedWriter payments = Files.newBufferedWriter(feederDirectory.resolve("upi-payments.csv"));
+                 BufferedWriter lookups = Files.newBufferedWriter(feederDirectory.resolve("accounts.csv"))) {
+                payments.write("fromUpiId,toUpiId,amount,remarks\n");
+                lookups.write("accountNumber\n");
+                for (int i = 0; i < feederRows; i++) {
+                    long payer = popularity.sample(random) - 1;
+                    if (accounts > 1) {
+                        long payee = otherAccount(payer, popularity, random);
+                        payments.write(upiId(payer) + "," + upiId(payee) + ","
+                                + random.nextInt(1, 501) + ",Load test payment " + (i + 1) + "\n");
+                    }
+                    lookups.write(accountNumber(popularity.sample(random) - 1) + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write feeder files to " + feederDirectory, e);
+        }
+        log.info("Wrote {} rows of JMeter feeders to {}", feederRows, feederDirectory.toAbsolutePath());
+    }
+    
+    private long otherAccount(long payer, ZipfSampler popularity, SplittableRandom random) {
+        long payee;
+        do {
+            payee = popularity.sample(random) - 1;
+        } while (payee == payer);
+        return payee;
+    }
+    
+    /**
+     * SQL for the next transactions_seq value. Each seeded row takes its own value, so none can
+     * collide with the ID ranges Hibernate allocates from the sequence.
+     */
+    private String nextTransactionKey() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSelectSequenceNextValString("transactions_seq");
+    }
+    
+    private static String accountNumber(long row) {
+        return String.format("ACC%06d", FIRST_ACCOUNT + row);
+    }
+    
+    private static String upiId(long row) {
+        return "user" + (FIRST_ACCOUNT + row) + "@upi";
+    }
+    
+    private static long rate(long rows, long startedNanos) {
+        return rows * 1_000_000_000L / Math.max(1, System.nanoTime() - startedNanos);
+    }
+    
+    /**
+     * Committed row count of one table, logged at every tenth of the total
+     */
+    private static final class Progress {
+        
+        private final String table;
+        private final long total;
+        private final long step;
+        private final long startedNanos;
+        private final AtomicLong committed = new AtomicLong();
+        
+        Progress(String table, long total, long startedNanos) {
+            this.table = table;
+            this.total = total;
+            this.step = Math.max(1, total / 10);
+            this.startedNanos = startedNanos;
+        }
+        
+        void committed(long rows) {
+            long done = committed.addAndGet(rows);
+            if (done < total && done / step > (done - rows) / step) {
+                log.info("Seeded {}/{} {} ({} rows/s)", done, total, table, rate(done, startedNanos));
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.npci.gateway.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.npci.gateway.dto.ApiResponse;
+import com.npci.gateway.service.PaymentRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Refuses UPI payments and IMPS transfers over the app.rate-limit budgets with 429 and a
+ * Retry-After header, before the body is bound or the database is touched.
+ *
+ * The payer (fromUpiId or fromAccount) is picked out of the JSON body with Jackson's streaming
+ * parser, which stops at the field instead of building the request object; the buffered body
+ * is then handed on to the controller. A body without the field is only limited globally and
+ * left for validation to reject. A body larger than app.rate-limit.max-body-size is refused
+ * with 413 before it is buffered: by its Content-Length if it has one, otherwise once that many
+ * bytes have been read.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private final PaymentRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final int maxBodyBytes;
+    
+    public RateLimitFilter(PaymentRateLimiter rateLimiter, ObjectMapper objectMapper, int maxBodyBytes) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || payerField(request.getServletPath()) == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String field = payerField(request.getServletPath());
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body larger than " + maxBodyBytes + " bytes");
+            return;
+        }
+        // A chunked body has no Content-Length; one byte past the limit is enough to refuse it
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body larger than " + maxBodyBytes + " bytes");
+            return;
+        }
+        String payer = readPayer(body, field);
+        
+        Optional<PaymentRateLimiter.Rejection> rejection = rateLimiter.tryAcquire(payer == null ? null : field + ":" + payer);
+        if (rejection.isPresent()) {
+            long retryAfterSeconds = Math.max(1, (rejection.get().retryAfter().toMillis() + 999) / 1000);
+            String message = rejection.get().global()
+                    ? "Too many payments, try again later"
+                    : "Too many payments from " + payer + ", try again later";
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            writeError(response, HttpStatus.TOO_MANY_REQUESTS, message);
+            return;
+        }
+        filterChain.doFilter(new BufferedBodyRequest(request, body), response);
+    }
+    
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+    
+    private static String payerField(String path) {
+        return switch (path) {
+            case "/upi/payment" -> "fromUpiId";
+            case "/imps/transfer" -> "fromAccount";
+            default -> null;
+        };
+    }
+    
+    /**
+     * The string value of a top-level field, or null if the body is not a JSON object with one
+     */
+    private String readPayer(byte[] body, String field) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            for (JsonToken token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                boolean match = field.equals(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (match) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            // Malformed JSON; left for the controller to reject
+            return null;
+        }
+    }
+    
+    /**
+     * Replays a body that was already read from the request
+     */
+    private static class BufferedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+                
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is already in memory: it is available at once, then all read
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,30 +1,59 @@
 package com.npci.gateway.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.npci.gateway.service.PaymentRateLimiter;
+import com.npci.gateway.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.unit.DataSize;
+import java.util.Optional;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
     
+    // Off by default so the JMeter plans that post payments without logging in keep working
+    @Value("${app.security.require-token:false}")
+    private boolean requireToken;
+    
+    @Value("${app.rate-limit.max-body-size:16KB}")
+    private DataSize maxBodySize;
+    
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtUtil jwtUtil, ObjectMapper objectMapper,
+                                           Optional<PaymentRateLimiter> rateLimiter) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
-            .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/**", "/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/h2-console/**").permitAll()
-                .anyRequest().permitAll()
-            )
+            .authorizeHttpRequests(auth -> {
+                auth.requestMatchers("/api/auth/**", "/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/h2-console/**", "/actuator/**").permitAll();
+                if (requireToken) {
+                    auth.requestMatchers("/upi/**", "/imps/**").authenticated();
+                }
+                auth.anyRequest().permitAll();
+            })
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
+            .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, objectMapper), UsernamePasswordAuthenticationFilter.class)
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+            )
             .headers(headers -> headers.frameOptions(frame -> frame.disable()));
+        // After authorization, so a request refused for its token never spends the payer's budget
+        rateLimiter.ifPresent(limiter ->
+            http.addFilterAfter(new RateLimitFilter(limiter, objectMapper,
+                    Math.toIntExact(maxBodySize.toBytes())), AuthorizationFilter.class));
         
         return http.build();
     }
@@ -0,0 +1,34 @@
+package com.npci.gateway.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops startup when spring.threads.virtual.enabled is set on a JVM older than Java 21.
+ *
+ * Spring Boot only switches Tomcat to virtual threads on Java 21+ and otherwise keeps the
+ * platform worker pool without a word, so a load test of the "virtual" mode would measure
+ * the platform mode instead.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsCheck {
+
+    static final int MIN_JAVA_VERSION = 21;
+
+    public VirtualThreadsCheck() {
+        check(Runtime.version().feature());
+    }
+
+    static void check(int javaVersion) {
+        if (javaVersion < MIN_JAVA_VERSION) {
+            log.error("spring.threads.virtual.enabled=true needs Java {}+, but this JVM is Java {}",
+                    MIN_JAVA_VERSION, javaVersion);
+            throw new IllegalStateException("Virtual threads need Java " + MIN_JAVA_VERSION
+                    + "+, but this JVM is Java " + javaVersion + "; unset VIRTUAL_THREADS or run on a newer JVM");
+        }
+        log.info("Request handling runs on virtual threads (Java {})", javaVersion);
+    }
+}
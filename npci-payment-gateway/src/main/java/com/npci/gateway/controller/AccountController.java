@@ -6,6 +6,7 @@ import com.npci.gateway.service.AccountService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.math.BigDecimal;
 
 @RestController
 @RequestMapping("/accounts")
@@ -17,14 +18,15 @@ public class AccountController {
     @GetMapping("/{accountNumber}")
     public ResponseEntity<ApiResponse<Account>> getAccount(@PathVariable String accountNumber) {
         Account account = accountService.getAccountByNumber(accountNumber);
+        account.setBalance(accountService.getBalance(accountNumber));
         return ResponseEntity.ok(ApiResponse.success("Account retrieved successfully", account));
     }
     
     @GetMapping("/{accountNumber}/balance")
     public ResponseEntity<ApiResponse<String>> getBalance(@PathVariable String accountNumber) {
-        Account account = accountService.getAccountByNumber(accountNumber);
+        BigDecimal balance = accountService.getBalance(accountNumber);
         return ResponseEntity.ok(
-            ApiResponse.success("Balance retrieved", "Balance: " + account.getBalance())
+            ApiResponse.success("Balance retrieved", "Balance: " + balance)
         );
     }
 }
@@ -34,11 +34,9 @@ public class AuthController {
     @GetMapping("/validate")
     public ResponseEntity<ApiResponse<String>> validateToken(@RequestHeader("Authorization") String token) {
         token = token.replace("Bearer ", "");
-        if (jwtUtil.validateToken(token)) {
-            String username = jwtUtil.getUsernameFromToken(token);
-            return ResponseEntity.ok(ApiResponse.success("Token is valid", username));
-        }
-        return ResponseEntity.status(401)
-                .body(ApiResponse.error("Invalid token"));
+        return jwtUtil.authenticate(token)
+                .map(username -> ResponseEntity.ok(ApiResponse.success("Token is valid", username)))
+                .orElseGet(() -> ResponseEntity.status(401)
+                        .body(ApiResponse.error("Invalid token")));
     }
 }
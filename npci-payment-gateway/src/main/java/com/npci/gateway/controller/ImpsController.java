@@ -6,9 +6,11 @@ import com.npci.gateway.dto.TransactionResponse;
 import com.npci.gateway.service.ImpsService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping("/imps")
@@ -17,10 +19,25 @@ public class ImpsController {
     
     private final ImpsService impsService;
     
+    @Value("${app.async-payments.enabled:false}")
+    private boolean asyncPayments;
+    
     @PostMapping("/transfer")
     public ResponseEntity<ApiResponse<TransactionResponse>> initiateTransfer(
-            @Valid @RequestBody ImpsTransferRequest request) {
-        TransactionResponse response = impsService.initiateTransfer(request);
+            @Valid @RequestBody ImpsTransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (asyncPayments || "respond-async".equalsIgnoreCase(prefer)) {
+            TransactionResponse response = impsService.acceptTransfer(request, idempotencyKey);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/transactions/{transactionId}")
+                            .buildAndExpand(response.getTransactionId())
+                            .toUri())
+                    .body(ApiResponse.success("Transfer accepted for processing", response));
+        }
+        
+        TransactionResponse response = impsService.initiateTransfer(request, idempotencyKey);
         
         if ("SUCCESS".equals(response.getStatus())) {
             return ResponseEntity.status(HttpStatus.CREATED)
@@ -2,10 +2,13 @@ package com.npci.gateway.controller;
 
 import com.npci.gateway.dto.ApiResponse;
 import com.npci.gateway.dto.TransactionResponse;
+import com.npci.gateway.service.TransactionEventHub;
 import com.npci.gateway.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.List;
 
 @RestController
 @RequestMapping("/transactions")
@@ -13,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionController {
     
     private final TransactionService transactionService;
+    private final TransactionEventHub transactionEventHub;
     
     @GetMapping("/{transactionId}")
     public ResponseEntity<ApiResponse<TransactionResponse>> getTransactionStatus(
@@ -22,4 +26,20 @@ public class TransactionController {
             ApiResponse.success("Transaction retrieved successfully", response)
         );
     }
+    
+    /**
+     * Stream status events for one transaction until it is SUCCESS or FAILED
+     */
+    @GetMapping("/{transactionId}/events")
+    public SseEmitter streamTransactionEvents(@PathVariable String transactionId) {
+        return transactionEventHub.subscribe(List.of(transactionId));
+    }
+    
+    /**
+     * Stream status events for several transactions over one connection, e.g. ?ids=TXN1,TXN2
+     */
+    @GetMapping("/events")
+    public SseEmitter streamTransactionsEvents(@RequestParam List<String> ids) {
+        return transactionEventHub.subscribe(ids);
+    }
 }
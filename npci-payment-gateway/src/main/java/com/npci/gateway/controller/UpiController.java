@@ -3,12 +3,15 @@ package com.npci.gateway.controller;
 import com.npci.gateway.dto.ApiResponse;
 import com.npci.gateway.dto.TransactionResponse;
 import com.npci.gateway.dto.UpiPaymentRequest;
+import com.npci.gateway.service.TransactionService;
 import com.npci.gateway.service.UpiService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping("/upi")
@@ -16,6 +19,10 @@ import org.springframework.web.bind.annotation.*;
 public class UpiController {
     
     private final UpiService upiService;
+    private final TransactionService transactionService;
+    
+    @Value("${app.async-payments.enabled:false}")
+    private boolean asyncPayments;
     
     @PostMapping("/validate")
     public ResponseEntity<ApiResponse<Boolean>> validateUpiId(@RequestBody String upiId) {
@@ -29,8 +36,20 @@ public class UpiController {
     
     @PostMapping("/payment")
     public ResponseEntity<ApiResponse<TransactionResponse>> initiatePayment(
-            @Valid @RequestBody UpiPaymentRequest request) {
-        TransactionResponse response = upiService.initiatePayment(request);
+            @Valid @RequestBody UpiPaymentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (asyncPayments || "respond-async".equalsIgnoreCase(prefer)) {
+            TransactionResponse response = upiService.acceptPayment(request, idempotencyKey);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/transactions/{transactionId}")
+                            .buildAndExpand(response.getTransactionId())
+                            .toUri())
+                    .body(ApiResponse.success("Payment accepted for processing", response));
+        }
+        
+        TransactionResponse response = upiService.initiatePayment(request, idempotencyKey);
         
         if ("SUCCESS".equals(response.getStatus())) {
             return ResponseEntity.status(HttpStatus.CREATED)
@@ -40,4 +59,10 @@ public class UpiController {
                     .body(ApiResponse.error("Payment failed: " + response.getFailureReason()));
         }
     }
+    
+    @GetMapping("/payment/{transactionId}/status")
+    public ResponseEntity<ApiResponse<TransactionResponse>> getPaymentStatus(@PathVariable String transactionId) {
+        TransactionResponse response = transactionService.getTransactionStatus(transactionId);
+        return ResponseEntity.ok(ApiResponse.success("Transaction retrieved successfully", response));
+    }
 }
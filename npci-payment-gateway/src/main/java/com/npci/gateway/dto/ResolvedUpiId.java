@@ -0,0 +1,4 @@
+package com.npci.gateway.dto;
+
+public record ResolvedUpiId(String upiId, Long accountId, String accountNumber) {
+}
@@ -0,0 +1,30 @@
+package com.npci.gateway.dto;
+
+import com.npci.gateway.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Status of a transaction as pushed to /transactions/{transactionId}/events subscribers
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionEvent {
+    private String transactionId;
+    private String transactionType;
+    private String status;
+    private String failureReason;
+    private LocalDateTime timestamp;
+    
+    public static TransactionEvent fromEntity(Transaction transaction) {
+        return new TransactionEvent(
+                transaction.getTransactionId(),
+                transaction.getTransactionType(),
+                transaction.getStatus(),
+                transaction.getFailureReason(),
+                transaction.getUpdatedAt());
+    }
+}
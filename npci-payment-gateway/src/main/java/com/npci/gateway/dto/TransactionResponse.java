@@ -1,5 +1,6 @@
 package com.npci.gateway.dto;
 
+import com.npci.gateway.model.Transaction;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,4 +22,27 @@ public class TransactionResponse {
     private String remarks;
     private String failureReason;
     private LocalDateTime timestamp;
+    
+    public static TransactionResponse fromEntity(Transaction transaction) {
+        return fromEntity(transaction, transaction.getFromAccount().getAccountNumber(),
+                transaction.getToAccount().getAccountNumber());
+    }
+    
+    /**
+     * For a transaction whose accounts are unloaded references: the caller already knows the
+     * account numbers, and reading them from the references would load both accounts
+     */
+    public static TransactionResponse fromEntity(Transaction transaction, String fromAccount, String toAccount) {
+        return TransactionResponse.builder()
+                .transactionId(transaction.getTransactionId())
+                .transactionType(transaction.getTransactionType())
+                .amount(transaction.getAmount())
+                .status(transaction.getStatus())
+                .fromAccount(fromAccount)
+                .toAccount(toAccount)
+                .remarks(transaction.getRemarks())
+                .failureReason(transaction.getFailureReason())
+                .timestamp(transaction.getCreatedAt())
+                .build();
+    }
 }
@@ -0,0 +1,7 @@
+package com.npci.gateway.exception;
+
+public class InvalidSubscriptionException extends RuntimeException {
+    public InvalidSubscriptionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,59 @@
+package com.npci.gateway.ledger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One request to a ledger partition. The future completes with the account's balance in paise
+ * once the change is in the journal, or exceptionally if it was refused. A caller that stops
+ * waiting can withdraw the command until the writer takes it; after that it will be applied.
+ */
+final class LedgerCommand {
+    
+    enum Type {
+        /** Register an account with its opening balance; ignored if the account is already known */
+        OPEN,
+        /** Subtract if the balance covers the amount */
+        DEBIT,
+        /** Add to a known account */
+        CREDIT,
+        /** Add a signed amount unconditionally; used to reverse a change whose transaction rolled back */
+        ADJUST,
+        /** Read the balance */
+        BALANCE
+    }
+    
+    private static final int QUEUED = 0;
+    private static final int TAKEN = 1;
+    private static final int CANCELLED = 2;
+    
+    final Type type;
+    final String accountNumber;
+    final long paise;
+    final CompletableFuture<Long> result = new CompletableFuture<>();
+    private final AtomicInteger state = new AtomicInteger(QUEUED);
+    
+    // Set by the writer thread and published by completing the result
+    long balance;
+    RuntimeException failure;
+    
+    LedgerCommand(Type type, String accountNumber, long paise) {
+        this.type = type;
+        this.accountNumber = accountNumber;
+        this.paise = paise;
+    }
+    
+    /**
+     * Claim the command for the writer, or return false if the caller withdrew it first
+     */
+    boolean take() {
+        return state.compareAndSet(QUEUED, TAKEN);
+    }
+    
+    /**
+     * Withdraw the command so the writer skips it, or return false if the writer already took it
+     */
+    boolean cancel() {
+        return state.compareAndSet(QUEUED, CANCELLED);
+    }
+}
@@ -0,0 +1,190 @@
+package com.npci.gateway.ledger;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * In-memory account balances for app.ledger.mode=memory, used by AccountService instead of
+ * conditional UPDATEs on the accounts table.
+ *
+ * Accounts are spread over partitions by account number; each partition has one writer thread,
+ * so payments never wait on a row lock and a debit completes in microseconds. Every change is
+ * journaled to a memory-mapped file before the caller hears about it, and the journal plus the
+ * latest snapshot are replayed on startup (see LedgerPartition). Accounts are opened lazily with
+ * their balance from the accounts table the first time a payment touches them. Every operation
+ * returns the account's balance after it. An operation that is not answered within the timeout,
+ * or whose caller is interrupted, is withdrawn if the writer has not reached it yet and waited for
+ * otherwise, so an exception never hides a change that was made.
+ *
+ * The accounts table becomes a report: changed balances are written back in JDBC batches every
+ * report-interval, so it can lag the ledger by that much.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ledger.mode", havingValue = "memory")
+@Slf4j
+public class LedgerEngine {
+    
+    private static final long TIMEOUT_SECONDS = 10;
+    
+    private final LedgerPartition[] partitions;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Long> reportQueue = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reporter;
+    
+    public LedgerEngine(JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.ledger.directory:ledger-data}") Path directory,
+                        @Value("${app.ledger.partitions:4}") int partitionCount,
+                        @Value("${app.ledger.ring-size:4096}") int ringSize,
+                        @Value("${app.ledger.journal-size:64MB}") DataSize journalSize,
+                        @Value("${app.ledger.force-journal:false}") boolean forceJournal,
+                        @Value("${app.ledger.snapshot-interval:1m}") Duration snapshotInterval,
+                        @Value("${app.ledger.report-interval:1s}") Duration reportInterval) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        Files.createDirectories(directory);
+        this.partitions = new LedgerPartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new LedgerPartition(i, directory, ringSize, Math.toIntExact(journalSize.toBytes()),
+                    forceJournal, snapshotInterval.toNanos(), reportQueue);
+        }
+        for (LedgerPartition partition : partitions) {
+            partition.start();
+        }
+        
+        this.reporter = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ledger-report-"));
+        reporter.scheduleWithFixedDelay(this::reportSafely, reportInterval.toMillis(), reportInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        
+        Gauge.builder("ledger.report.pending", reportQueue, Map::size)
+                .description("Accounts whose ledger balance is not yet written to the accounts table")
+                .register(meterRegistry);
+        log.info("Ledger engine started: Partitions={}, Directory={}", partitionCount, directory.toAbsolutePath());
+    }
+    
+    /**
+     * Register an account with its opening balance; a no-op if the ledger already knows it
+     */
+    public BigDecimal open(String accountNumber, BigDecimal balance) {
+        return execute(LedgerCommand.Type.OPEN, accountNumber, toPaise(balance));
+    }
+    
+    /**
+     * Subtract the amount, or throw InsufficientBalanceException and change nothing.
+     * Like every other operation, throws AccountNotFoundException if the account has not been opened.
+     */
+    public BigDecimal debit(String accountNumber, BigDecimal amount) {
+        return execute(LedgerCommand.Type.DEBIT, accountNumber, toPaise(amount));
+    }
+    
+    public BigDecimal credit(String accountNumber, BigDecimal amount) {
+        return execute(LedgerCommand.Type.CREDIT, accountNumber, toPaise(amount));
+    }
+    
+    /**
+     * Add a signed amount without a balance check, to reverse a debit or credit
+     */
+    public BigDecimal adjust(String accountNumber, BigDecimal amount) {
+        return execute(LedgerCommand.Type.ADJUST, accountNumber, toPaise(amount));
+    }
+    
+    public BigDecimal getBalance(String accountNumber) {
+        return execute(LedgerCommand.Type.BALANCE, accountNumber, 0);
+    }
+    
+    private BigDecimal execute(LedgerCommand.Type type, String accountNumber, long paise) {
+        LedgerCommand command = new LedgerCommand(type, accountNumber, paise);
+        partitions[Math.floorMod(accountNumber.hashCode(), partitions.length)].submit(command);
+        try {
+            command.result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // Rethrown below
+        } catch (TimeoutException e) {
+            if (command.cancel()) {
+                throw new IllegalStateException("Ledger did not answer within " + TIMEOUT_SECONDS + "s, withdrew: "
+                        + type + " " + accountNumber);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (command.cancel()) {
+                throw new IllegalStateException("Interrupted waiting for the ledger, withdrew: " + type + " " + accountNumber, e);
+            }
+        }
+        // Completed, or taken by the writer and about to be: the outcome must reach the caller
+        try {
+            return BigDecimal.valueOf(command.result.join(), 2);
+        } catch (CompletionException e) {
+            // The writer completes commands with the gateway's own runtime exceptions
+            throw (RuntimeException) e.getCause();
+        }
+    }
+    
+    private void reportSafely() {
+        try {
+            report();
+        } catch (RuntimeException e) {
+            log.error("Could not write ledger balances to the accounts table: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Write changed balances to the accounts table. An entry is only removed if it was not
+     * changed again meanwhile, so the newest balance is always written eventually.
+     */
+    private void report() {
+        if (reportQueue.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Long>> changed = new ArrayList<>(reportQueue.size());
+        reportQueue.forEach((accountNumber, paise) -> changed.add(Map.entry(accountNumber, paise)));
+        jdbcTemplate.batchUpdate(
+                "UPDATE accounts SET balance = ?, updated_at = CURRENT_TIMESTAMP WHERE account_number = ?",
+                changed, 500, (statement, entry) -> {
+                    statement.setBigDecimal(1, BigDecimal.valueOf(entry.getValue(), 2));
+                    statement.setString(2, entry.getKey());
+                });
+        changed.forEach(entry -> reportQueue.remove(entry.getKey(), entry.getValue()));
+        log.debug("Reported {} ledger balances", changed.size());
+    }
+    
+    /**
+     * Stop taking commands, let every partition drain and snapshot, then write the last balances
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        reporter.shutdown();
+        reporter.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        for (LedgerPartition partition : partitions) {
+            partition.stop();
+        }
+        reportSafely();
+    }
+    
+    private static long toPaise(BigDecimal amount) {
+        // Same rounding as the scale-2 balance column
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
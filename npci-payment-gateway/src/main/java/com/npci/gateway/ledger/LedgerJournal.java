@@ -0,0 +1,121 @@
+package com.npci.gateway.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal of one ledger partition, kept in a memory-mapped file of fixed size.
+ *
+ * Record layout: int payload length, int CRC32C of the payload, then the payload
+ * (byte type, long sequence, long amount in paise, short account number length, account number).
+ * The length is written last, so a zero length marks the end of the journal; a record that
+ * fails its checksum was torn by a crash and ends the replay as well. Sequences only grow, so
+ * a record older than the one before it is left over from before the last reset and is the end too.
+ *
+ * Appended records are in the page cache at once and survive a process crash; force() is only
+ * needed to survive an operating system crash. Used by the partition's writer thread only.
+ */
+final class LedgerJournal implements Closeable {
+    
+    static final byte OPEN = 1;
+    static final byte DELTA = 2;
+    
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 1 + 8 + 8 + 2;
+    
+    interface RecordHandler {
+        void apply(byte type, long sequence, String accountNumber, long paise);
+    }
+    
+    private final CRC32C crc = new CRC32C();
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    
+    LedgerJournal(Path file, int size) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Mapping past the end grows the file with zeros, which read as the end of the journal
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+    
+    /**
+     * Hand every intact record to the handler in order and position the journal after the last one
+     */
+    void replay(RecordHandler handler) {
+        buffer.position(0);
+        long previousSequence = Long.MIN_VALUE;
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < FIXED_PAYLOAD_BYTES || length > buffer.remaining()) {
+                buffer.position(start);
+                return;
+            }
+            crc.reset();
+            crc.update(buffer.slice(buffer.position(), length));
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                return;
+            }
+            byte type = buffer.get();
+            long sequence = buffer.getLong();
+            if (sequence <= previousSequence) {
+                buffer.position(start);
+                return;
+            }
+            previousSequence = sequence;
+            long paise = buffer.getLong();
+            byte[] accountNumber = new byte[buffer.getShort()];
+            buffer.get(accountNumber);
+            handler.apply(type, sequence, new String(accountNumber, StandardCharsets.US_ASCII), paise);
+        }
+    }
+    
+    boolean hasRoom(String accountNumber) {
+        // Keep room for the zero length that terminates the journal
+        return buffer.remaining() >= HEADER_BYTES + FIXED_PAYLOAD_BYTES + accountNumber.length() + 4;
+    }
+    
+    void append(byte type, long sequence, String accountNumber, long paise) {
+        byte[] number = accountNumber.getBytes(StandardCharsets.US_ASCII);
+        int start = buffer.position();
+        int payloadStart = start + HEADER_BYTES;
+        buffer.position(payloadStart);
+        buffer.put(type)
+                .putLong(sequence)
+                .putLong(paise)
+                .putShort((short) number.length)
+                .put(number);
+        int length = buffer.position() - payloadStart;
+        
+        crc.reset();
+        crc.update(buffer.slice(payloadStart, length));
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.putInt(start, length);
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    /**
+     * Discard every record; called once a snapshot holds all of them.
+     * Records after the first are overwritten as the journal fills again, not erased.
+     */
+    void reset() {
+        buffer.putInt(0, 0);
+        buffer.position(0);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,350 @@
+package com.npci.gateway.ledger;
+
+import com.npci.gateway.exception.AccountNotFoundException;
+import com.npci.gateway.exception.InsufficientBalanceException;
+import lombok.extern.slf4j.Slf4j;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The balances of one slice of the accounts, owned by a single writer thread.
+ *
+ * Commands arrive through a LedgerRing and are applied in arrival order, so a balance check and
+ * the change it guards can never interleave with another payment. The writer applies up to
+ * BATCH_SIZE commands, appends their records to the journal, optionally forces it, and only then
+ * completes the callers' futures (group commit). Balances live in a long array of paise indexed
+ * through a map that only the writer touches.
+ *
+ * On start the partition loads its last snapshot and replays the journal records written after
+ * it. A new snapshot is written when the journal is full or snapshot-interval has passed, after
+ * which the journal starts over.
+ */
+@Slf4j
+final class LedgerPartition implements Runnable {
+    
+    private static final int BATCH_SIZE = 256;
+    // Spinning only pays off when the producers run on other cores
+    private static final int SPINS_BEFORE_PARK = Runtime.getRuntime().availableProcessors() > 1 ? 200 : 0;
+    private static final long FULL_RING_PARK_NANOS = 50_000;
+    private static final int SNAPSHOT_MAGIC = 0x4C454447;
+    
+    private final int id;
+    private final LedgerRing ring;
+    private final LedgerJournal journal;
+    private final Path snapshotFile;
+    private final boolean forceJournal;
+    private final long snapshotIntervalNanos;
+    private final Map<String, Long> reportQueue;
+    private final Thread writer;
+    private volatile boolean running = true;
+    // Set by an idle writer before it parks; a producer that sees it unparks the writer
+    private volatile boolean parked;
+    
+    // Writer thread state
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] accountNumbers = new String[64];
+    private long[] balances = new long[64];
+    private int accounts;
+    private long sequence;
+    private long snapshotSequence;
+    private long lastSnapshotNanos = System.nanoTime();
+    private final List<LedgerCommand> batch = new ArrayList<>(BATCH_SIZE);
+    
+    LedgerPartition(int id, Path directory, int ringSize, int journalBytes, boolean forceJournal,
+                    long snapshotIntervalNanos, Map<String, Long> reportQueue) throws IOException {
+        this.id = id;
+        this.ring = new LedgerRing(ringSize);
+        this.snapshotFile = directory.resolve("snapshot-" + id + ".bin");
+        this.forceJournal = forceJournal;
+        this.snapshotIntervalNanos = snapshotIntervalNanos;
+        this.reportQueue = reportQueue;
+        this.journal = new LedgerJournal(directory.resolve("journal-" + id + ".log"), journalBytes);
+        recover();
+        this.writer = new Thread(this, "ledger-writer-" + id);
+    }
+    
+    void start() {
+        writer.start();
+    }
+    
+    /**
+     * Hand a command to the writer, waiting while the ring is full
+     */
+    void submit(LedgerCommand command) {
+        if (!running) {
+            throw new IllegalStateException("Ledger partition " + id + " is stopped");
+        }
+        int attempts = 0;
+        while (!ring.offer(command)) {
+            if (++attempts < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(FULL_RING_PARK_NANOS);
+            }
+        }
+        if (parked) {
+            LockSupport.unpark(writer);
+        }
+    }
+    
+    /**
+     * Let the writer finish the commands already queued, then snapshot and close the journal
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+    }
+    
+    @Override
+    public void run() {
+        try {
+            process();
+        } catch (RuntimeException | Error e) {
+            // Without its writer the partition cannot change safely; refuse everything from now on
+            running = false;
+            log.error("Ledger partition {} failed at sequence {}", id, sequence, e);
+            IllegalStateException failure = new IllegalStateException("Ledger partition " + id + " failed", e);
+            batch.forEach(command -> command.result.completeExceptionally(failure));
+            for (LedgerCommand command = ring.poll(); command != null; command = ring.poll()) {
+                command.result.completeExceptionally(failure);
+            }
+        }
+    }
+    
+    private void process() {
+        int idleSpins = 0;
+        while (true) {
+            LedgerCommand command = ring.poll();
+            if (command != null) {
+                idleSpins = 0;
+                if (!command.take()) {
+                    // Withdrawn by a caller that stopped waiting
+                    continue;
+                }
+                apply(command);
+                batch.add(command);
+                if (batch.size() == BATCH_SIZE) {
+                    commit();
+                }
+                continue;
+            }
+            if (!batch.isEmpty()) {
+                commit();
+                continue;
+            }
+            if (!running) {
+                // A producer that passed the running check just before stop() may still be publishing
+                if ((command = ring.poll()) == null) {
+                    break;
+                }
+                if (!command.take()) {
+                    continue;
+                }
+                apply(command);
+                batch.add(command);
+                continue;
+            }
+            long sinceSnapshot = System.nanoTime() - lastSnapshotNanos;
+            if (sinceSnapshot >= snapshotIntervalNanos && sequence != snapshotSequence) {
+                snapshot();
+                continue;
+            }
+            if (++idleSpins < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+                continue;
+            }
+            // Both sides write their flag before reading the other's, so a command published
+            // while the writer goes to sleep is either seen here or triggers an unpark
+            parked = true;
+            if (ring.isEmpty() && running) {
+                // Wake up for the next snapshot if there is anything to snapshot
+                LockSupport.parkNanos(sequence == snapshotSequence ? snapshotIntervalNanos : snapshotIntervalNanos - sinceSnapshot);
+            }
+            parked = false;
+        }
+        
+        if (sequence != snapshotSequence) {
+            snapshot();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.error("Could not close ledger journal {}: {}", id, e.getMessage());
+        }
+        log.info("Ledger partition {} stopped at sequence {}", id, sequence);
+    }
+    
+    private void apply(LedgerCommand command) {
+        Integer slot = slots.get(command.accountNumber);
+        switch (command.type) {
+            case OPEN -> {
+                if (slot == null) {
+                    reserveJournal(command.accountNumber);
+                    slot = addAccount(command.accountNumber, command.paise);
+                    journal.append(LedgerJournal.OPEN, ++sequence, command.accountNumber, command.paise);
+                    reportQueue.put(command.accountNumber, command.paise);
+                }
+                command.balance = balances[slot];
+            }
+            case DEBIT -> {
+                if (slot == null) {
+                    command.failure = notOpen(command.accountNumber);
+                } else if (balances[slot] < command.paise) {
+                    command.failure = new InsufficientBalanceException(
+                            "Insufficient balance in account: " + command.accountNumber);
+                } else {
+                    change(slot, -command.paise);
+                    command.balance = balances[slot];
+                }
+            }
+            case CREDIT, ADJUST -> {
+                if (slot == null) {
+                    command.failure = notOpen(command.accountNumber);
+                } else {
+                    change(slot, command.paise);
+                    command.balance = balances[slot];
+                }
+            }
+            case BALANCE -> {
+                if (slot == null) {
+                    command.failure = notOpen(command.accountNumber);
+                } else {
+                    command.balance = balances[slot];
+                }
+            }
+        }
+    }
+    
+    private void change(int slot, long paise) {
+        reserveJournal(accountNumbers[slot]);
+        balances[slot] += paise;
+        journal.append(LedgerJournal.DELTA, ++sequence, accountNumbers[slot], paise);
+        reportQueue.put(accountNumbers[slot], balances[slot]);
+    }
+    
+    /**
+     * Make room for one record before the change it describes, so a snapshot never already holds it
+     */
+    private void reserveJournal(String accountNumber) {
+        if (!journal.hasRoom(accountNumber)) {
+            snapshot();
+        }
+    }
+    
+    private void commit() {
+        if (forceJournal) {
+            journal.force();
+        }
+        for (LedgerCommand command : batch) {
+            if (command.failure != null) {
+                command.result.completeExceptionally(command.failure);
+            } else {
+                command.result.complete(command.balance);
+            }
+        }
+        batch.clear();
+    }
+    
+    private int addAccount(String accountNumber, long paise) {
+        if (accounts == balances.length) {
+            balances = Arrays.copyOf(balances, accounts * 2);
+            accountNumbers = Arrays.copyOf(accountNumbers, accounts * 2);
+        }
+        int slot = accounts++;
+        slots.put(accountNumber, slot);
+        accountNumbers[slot] = accountNumber;
+        balances[slot] = paise;
+        return slot;
+    }
+    
+    private static AccountNotFoundException notOpen(String accountNumber) {
+        return new AccountNotFoundException("Account not open in ledger: " + accountNumber);
+    }
+    
+    /**
+     * Write every balance to a new snapshot file, replace the old one and empty the journal.
+     * The journal is only reset after the snapshot is safely on disk.
+     */
+    private void snapshot() {
+        Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(sequence);
+            out.writeInt(accounts);
+            for (int slot = 0; slot < accounts; slot++) {
+                out.writeUTF(accountNumbers[slot]);
+                out.writeLong(balances[slot]);
+            }
+            out.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write ledger snapshot " + temporary, e);
+        }
+        try {
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replace ledger snapshot " + snapshotFile, e);
+        }
+        journal.reset();
+        snapshotSequence = sequence;
+        lastSnapshotNanos = System.nanoTime();
+        log.debug("Ledger partition {} snapshot at sequence {}: {} accounts", id, sequence, accounts);
+    }
+    
+    private void recover() throws IOException {
+        if (Files.exists(snapshotFile)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(snapshotFile))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Not a ledger snapshot: " + snapshotFile);
+                }
+                snapshotSequence = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    addAccount(in.readUTF(), in.readLong());
+                }
+            }
+        }
+        sequence = snapshotSequence;
+        
+        int[] replayed = new int[1];
+        journal.replay((type, recordSequence, accountNumber, paise) -> {
+            // Records up to the snapshot are already in it
+            if (recordSequence <= snapshotSequence) {
+                return;
+            }
+            Integer slot = slots.get(accountNumber);
+            if (type == LedgerJournal.OPEN && slot == null) {
+                addAccount(accountNumber, paise);
+            } else if (type == LedgerJournal.DELTA && slot != null) {
+                balances[slot] += paise;
+            }
+            sequence = recordSequence;
+            replayed[0]++;
+        });
+        
+        // The accounts table may have been recreated since; report every recovered balance
+        for (int slot = 0; slot < accounts; slot++) {
+            reportQueue.put(accountNumbers[slot], balances[slot]);
+        }
+        log.info("Ledger partition {} recovered {} accounts, {} journal records, sequence {}",
+                id, accounts, replayed[0], sequence);
+    }
+}
@@ -0,0 +1,80 @@
+package com.npci.gateway.ledger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring of commands with many producers and one consumer.
+ *
+ * Each slot carries a sequence number: a producer claims a position with one CAS on the tail,
+ * writes the slot and then publishes it by advancing the slot's sequence; the consumer takes the
+ * slot only once it sees that sequence, and frees it by moving the sequence a full lap ahead.
+ */
+final class LedgerRing {
+    
+    private final LedgerCommand[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only the consumer thread reads or writes the head
+    private long head;
+    
+    LedgerRing(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two: " + capacity);
+        }
+        this.slots = new LedgerCommand[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Append a command, or return false if the ring is full
+     */
+    boolean offer(LedgerCommand command) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = command;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                // The consumer has not freed this slot yet: the ring is full
+                return false;
+            } else {
+                // Another producer took this position first
+                position = tail.get();
+            }
+        }
+    }
+    
+    /**
+     * Whether the next command is still unpublished. Consumer thread only.
+     */
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+    
+    /**
+     * Take the next command, or null if none has been published. Consumer thread only.
+     */
+    LedgerCommand poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        LedgerCommand command = slots[index];
+        slots[index] = null;
+        sequences.set(index, head + slots.length);
+        head++;
+        return command;
+    }
+}
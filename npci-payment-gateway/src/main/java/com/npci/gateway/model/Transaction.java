@@ -1,6 +1,7 @@
 package com.npci.gateway.model;
 
 import jakarta.persistence.*;
+import com.npci.gateway.service.TransactionEventPublisher;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,13 +10,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "transactions")
+@EntityListeners(TransactionEventPublisher.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -42,6 +45,9 @@ public class Transaction {
     
     private String failureReason;
     
+    @Column(unique = true, length = 64)
+    private String idempotencyKey;
+    
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
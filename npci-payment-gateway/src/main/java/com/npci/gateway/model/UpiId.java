@@ -1,6 +1,7 @@
 package com.npci.gateway.model;
 
 import jakarta.persistence.*;
+import com.npci.gateway.service.UpiIdCacheInvalidator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "upi_ids")
+@EntityListeners(UpiIdCacheInvalidator.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,7 +19,8 @@ public class UpiId {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(unique = true, nullable = false)
+    // Immutable so cache entries keyed by the VPA are always evicted by the entity listener
+    @Column(unique = true, nullable = false, updatable = false)
     private String upiId;
     
     @ManyToOne
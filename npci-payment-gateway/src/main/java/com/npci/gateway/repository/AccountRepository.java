@@ -2,11 +2,34 @@ package com.npci.gateway.repository;
 
 import com.npci.gateway.model.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
     boolean existsByAccountNumber(String accountNumber);
+    
+    // Locks the rows in account-number order, whatever order the numbers are passed in
+    @Query(value = "SELECT account_number FROM accounts WHERE account_number IN (:accountNumbers) " +
+                   "ORDER BY account_number FOR UPDATE", nativeQuery = true)
+    List<String> lockInOrder(@Param("accountNumbers") Collection<String> accountNumbers);
+    
+    // Check and write in one statement: updates nothing (returns 0) if the balance does not cover the amount.
+    // Native because Hibernate renders "balance - :amount" with an unresolved numeric cast on H2.
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance - :amount, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE account_number = :accountNumber AND balance >= :amount", nativeQuery = true)
+    int debit(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+    
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance + :amount, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE account_number = :accountNumber", nativeQuery = true)
+    int credit(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
 }
@@ -1,7 +1,11 @@
 package com.npci.gateway.repository;
 
 import com.npci.gateway.model.Transaction;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 import java.util.List;
@@ -9,6 +13,14 @@ import java.util.List;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByTransactionId(String transactionId);
+    
+    // SELECT ... FOR UPDATE, held until the surrounding transaction ends; a waiting caller then reads the new status
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.transactionId = :transactionId")
+    Optional<Transaction> findByTransactionIdForUpdate(@Param("transactionId") String transactionId);
+    
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+    List<Transaction> findByStatus(String status);
     List<Transaction> findByFromAccountAccountNumber(String accountNumber);
     List<Transaction> findByToAccountAccountNumber(String accountNumber);
 }
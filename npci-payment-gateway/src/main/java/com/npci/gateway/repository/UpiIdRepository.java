@@ -1,7 +1,10 @@
 package com.npci.gateway.repository;
 
+import com.npci.gateway.dto.ResolvedUpiId;
 import com.npci.gateway.model.UpiId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -9,4 +12,8 @@ import java.util.Optional;
 public interface UpiIdRepository extends JpaRepository<UpiId, Long> {
     Optional<UpiId> findByUpiId(String upiId);
     boolean existsByUpiId(String upiId);
+    
+    @Query("SELECT new com.npci.gateway.dto.ResolvedUpiId(u.upiId, a.id, a.accountNumber) " +
+           "FROM UpiId u JOIN u.account a WHERE u.upiId = :upiId")
+    Optional<ResolvedUpiId> findResolvedByUpiId(@Param("upiId") String upiId);
 }
@@ -2,13 +2,20 @@ package com.npci.gateway.service;
 
 import com.npci.gateway.exception.AccountNotFoundException;
 import com.npci.gateway.exception.InsufficientBalanceException;
+import com.npci.gateway.ledger.LedgerEngine;
 import com.npci.gateway.model.Account;
 import com.npci.gateway.repository.AccountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -16,6 +23,8 @@ import java.math.BigDecimal;
 public class AccountService {
     
     private final AccountRepository accountRepository;
+    // Present only with app.ledger.mode=memory; balances then live in the ledger, not the accounts table
+    private final Optional<LedgerEngine> ledgerEngine;
     
     public Account getAccountByNumber(String accountNumber) {
         return accountRepository.findByAccountNumber(accountNumber)
@@ -23,27 +32,107 @@ public class AccountService {
                         "Account not found: " + accountNumber));
     }
     
+    /**
+     * Current balance; in ledger mode the accounts table may lag behind it
+     */
+    public BigDecimal getBalance(String accountNumber) {
+        if (ledgerEngine.isPresent()) {
+            return inLedger(accountNumber, ledger -> ledger.getBalance(accountNumber));
+        }
+        return getAccountByNumber(accountNumber).getBalance();
+    }
+    
+    /**
+     * Lock both accounts of a payment in account-number order before it debits and credits them.
+     * The debit and credit UPDATEs lock the rows in payment direction, so without this two opposite
+     * payments between the same accounts could deadlock. In ledger mode there are no rows to lock.
+     */
     @Transactional
+    public void lockAccounts(String fromAccount, String toAccount) {
+        if (ledgerEngine.isEmpty()) {
+            accountRepository.lockInOrder(List.of(fromAccount, toAccount));
+        }
+    }
+    
+    /**
+     * Debit with a single conditional UPDATE, so two concurrent payments can never both pass
+     * the balance check. An insufficient balance writes nothing, so it does not mark the
+     * caller's transaction rollback-only and the payment can still be saved as FAILED.
+     */
+    @Transactional(noRollbackFor = InsufficientBalanceException.class)
     public void debitAccount(String accountNumber, BigDecimal amount) {
-        Account account = getAccountByNumber(accountNumber);
-        
-        if (account.getBalance().compareTo(amount) < 0) {
+        if (ledgerEngine.isPresent()) {
+            AtomicBoolean applied = reverseOnRollback(accountNumber, amount.negate());
+            inLedger(accountNumber, ledger -> ledger.debit(accountNumber, amount));
+            applied.set(true);
+            log.info("Debited {} from account {}", amount, accountNumber);
+            return;
+        }
+        if (accountRepository.debit(accountNumber, amount) == 0) {
+            // Nothing was updated; find out why only on this failure path
+            if (!accountRepository.existsByAccountNumber(accountNumber)) {
+                throw new AccountNotFoundException("Account not found: " + accountNumber);
+            }
             throw new InsufficientBalanceException(
                     "Insufficient balance in account: " + accountNumber);
         }
         
-        account.setBalance(account.getBalance().subtract(amount));
-        accountRepository.save(account);
-        
         log.info("Debited {} from account {}", amount, accountNumber);
     }
     
     @Transactional
     public void creditAccount(String accountNumber, BigDecimal amount) {
-        Account account = getAccountByNumber(accountNumber);
-        account.setBalance(account.getBalance().add(amount));
-        accountRepository.save(account);
+        if (ledgerEngine.isPresent()) {
+            AtomicBoolean applied = reverseOnRollback(accountNumber, amount);
+            inLedger(accountNumber, ledger -> ledger.credit(accountNumber, amount));
+            applied.set(true);
+        } else if (accountRepository.credit(accountNumber, amount) == 0) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
         
         log.info("Credited {} to account {}", amount, accountNumber);
     }
+    
+    /**
+     * Run a ledger operation, first opening the account from the accounts table if the ledger
+     * does not know it yet. Throws AccountNotFoundException if the table does not have it either.
+     */
+    private BigDecimal inLedger(String accountNumber, Function<LedgerEngine, BigDecimal> operation) {
+        LedgerEngine ledger = ledgerEngine.get();
+        try {
+            return operation.apply(ledger);
+        } catch (AccountNotFoundException e) {
+            ledger.open(accountNumber, getAccountByNumber(accountNumber).getBalance());
+            return operation.apply(ledger);
+        }
+    }
+    
+    /**
+     * The ledger is not part of the database transaction: if the payment rolls back after the
+     * ledger changed, undo the change with an opposite adjustment. Registered before the change
+     * is submitted; the caller sets the returned flag once the ledger has applied it. A change
+     * whose transaction outcome is unknown may have committed, so it is kept and logged.
+     */
+    private AtomicBoolean reverseOnRollback(String accountNumber, BigDecimal change) {
+        AtomicBoolean applied = new AtomicBoolean();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return applied;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (!applied.get()) {
+                    return;
+                }
+                if (status == STATUS_ROLLED_BACK) {
+                    ledgerEngine.get().adjust(accountNumber, change.negate());
+                    log.warn("Reversed ledger change of {} on account {} after rollback", change, accountNumber);
+                } else if (status == STATUS_UNKNOWN) {
+                    log.error("Kept ledger change of {} on account {}: transaction outcome unknown, reconcile it",
+                            change, accountNumber);
+                }
+            }
+        });
+        return applied;
+    }
 }
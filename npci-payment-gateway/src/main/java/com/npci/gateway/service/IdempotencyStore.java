@@ -0,0 +1,100 @@
+package com.npci.gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.npci.gateway.dto.TransactionResponse;
+import com.npci.gateway.exception.IdempotencyKeyException;
+import com.npci.gateway.model.Transaction;
+import com.npci.gateway.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs a payment at most once per Idempotency-Key.
+ * Recent results are replayed from a bounded in-memory map; older ones are found through the
+ * unique transactions.idempotency_key column, which also rejects a concurrent duplicate.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+    
+    private static final int MAX_KEY_LENGTH = 64;
+    
+    private final TransactionRepository transactionRepository;
+    private final Cache<String, StoredResult> cache;
+    
+    public IdempotencyStore(TransactionRepository transactionRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.idempotency.max-entries:100000}") long maxEntries,
+                            @Value("${app.idempotency.ttl:24h}") Duration ttl) {
+        this.transactionRepository = transactionRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotencyStore");
+    }
+    
+    public TransactionResponse execute(String idempotencyKey, String fingerprint, Supplier<TransactionResponse> payment) {
+        if (idempotencyKey == null) {
+            return payment.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        
+        StoredResult stored = cache.getIfPresent(idempotencyKey);
+        if (stored != null) {
+            return replay(idempotencyKey, fingerprint, stored);
+        }
+        
+        Optional<Transaction> previous = transactionRepository.findByIdempotencyKey(idempotencyKey);
+        if (previous.isPresent()) {
+            return replay(idempotencyKey, fingerprint, remember(idempotencyKey, previous.get()));
+        }
+        
+        try {
+            TransactionResponse response = payment.get();
+            cache.put(idempotencyKey, new StoredResult(fingerprint, response));
+            return response;
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first; this attempt was rolled back
+            Transaction winner = transactionRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+            return replay(idempotencyKey, fingerprint, remember(idempotencyKey, winner));
+        }
+    }
+    
+    public static String fingerprint(String transactionType, String fromAccount, String toAccount, BigDecimal amount) {
+        return transactionType + '|' + fromAccount + '|' + toAccount + '|' + amount.stripTrailingZeros().toPlainString();
+    }
+    
+    private StoredResult remember(String idempotencyKey, Transaction transaction) {
+        StoredResult stored = new StoredResult(
+                fingerprint(transaction.getTransactionType(), transaction.getFromAccount().getAccountNumber(),
+                        transaction.getToAccount().getAccountNumber(), transaction.getAmount()),
+                TransactionResponse.fromEntity(transaction));
+        cache.put(idempotencyKey, stored);
+        return stored;
+    }
+    
+    private TransactionResponse replay(String idempotencyKey, String fingerprint, StoredResult stored) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyException(
+                    "Idempotency-Key " + idempotencyKey + " was already used for a different payment");
+        }
+        log.info("Replaying result for Idempotency-Key {}: {}", idempotencyKey, stored.response().getTransactionId());
+        return stored.response();
+    }
+    
+    private record StoredResult(String fingerprint, TransactionResponse response) {
+    }
+}
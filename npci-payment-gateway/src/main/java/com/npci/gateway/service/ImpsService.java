@@ -2,25 +2,33 @@ package com.npci.gateway.service;
 
 import com.npci.gateway.dto.ImpsTransferRequest;
 import com.npci.gateway.dto.TransactionResponse;
+import com.npci.gateway.exception.InsufficientBalanceException;
 import com.npci.gateway.model.Account;
 import com.npci.gateway.model.Transaction;
 import com.npci.gateway.repository.TransactionRepository;
 import com.npci.gateway.util.TransactionIdGenerator;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import java.util.Random;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ImpsService {
     
+    private static final String TYPE = "IMPS";
+    
     private final TransactionRepository transactionRepository;
     private final AccountService accountService;
     private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyStore idempotencyStore;
+    private final PaymentMetrics paymentMetrics;
+    private final PaymentSettlementService paymentSettlementService;
     
     @Value("${app.simulation.delay.min:100}")
     private int minDelay;
@@ -28,63 +36,93 @@ public class ImpsService {
     @Value("${app.simulation.delay.max:500}")
     private int maxDelay;
     
-    private final Random random = new Random();
+    public TransactionResponse initiateTransfer(ImpsTransferRequest request, String idempotencyKey) {
+        Timer.Sample sample = paymentMetrics.start();
+        try {
+            String fingerprint = IdempotencyStore.fingerprint(
+                    TYPE, request.getFromAccount(), request.getToAccount(), request.getAmount());
+            return idempotencyStore.execute(idempotencyKey, fingerprint, () -> {
+                // Simulated bank latency runs outside the DB transaction, before a connection is borrowed
+                paymentMetrics.time(TYPE, "bank_delay", this::simulateProcessingDelay);
+                return transactionTemplate.execute(status -> processTransfer(request, idempotencyKey));
+            });
+        } catch (RuntimeException e) {
+            paymentMetrics.recordOutcome(TYPE, "REJECTED", e);
+            throw e;
+        } finally {
+            paymentMetrics.stopDuration(sample, TYPE);
+        }
+    }
     
-    @Transactional
-    public TransactionResponse initiateTransfer(ImpsTransferRequest request) {
-        simulateProcessingDelay();
-        
+    /**
+     * Asynchronous flow: save the transfer as PROCESSING and return without waiting for the bank.
+     * PaymentSettlementService moves the money later; clients poll the transaction status.
+     */
+    public TransactionResponse acceptTransfer(ImpsTransferRequest request, String idempotencyKey) {
+        Timer.Sample sample = paymentMetrics.start();
+        try {
+            String fingerprint = IdempotencyStore.fingerprint(
+                    TYPE, request.getFromAccount(), request.getToAccount(), request.getAmount());
+            return idempotencyStore.execute(idempotencyKey, fingerprint,
+                    () -> paymentSettlementService.accept(() -> newTransaction(request, idempotencyKey)));
+        } catch (RuntimeException e) {
+            paymentMetrics.recordOutcome(TYPE, "REJECTED", e);
+            throw e;
+        } finally {
+            paymentMetrics.stopStage(sample, TYPE, "accept");
+        }
+    }
+    
+    private Transaction newTransaction(ImpsTransferRequest request, String idempotencyKey) {
+        Timer.Sample load = paymentMetrics.start();
         Account fromAccount = accountService.getAccountByNumber(request.getFromAccount());
         Account toAccount = accountService.getAccountByNumber(request.getToAccount());
+        paymentMetrics.stopStage(load, TYPE, "load_accounts");
         
         Transaction transaction = new Transaction();
         transaction.setTransactionId(transactionIdGenerator.generateImpsTransactionId());
-        transaction.setTransactionType("IMPS");
+        transaction.setTransactionType(TYPE);
         transaction.setFromAccount(fromAccount);
         transaction.setToAccount(toAccount);
         transaction.setAmount(request.getAmount());
         transaction.setStatus("PROCESSING");
         transaction.setRemarks(request.getRemarks());
+        transaction.setIdempotencyKey(idempotencyKey);
+        return transaction;
+    }
+    
+    private TransactionResponse processTransfer(ImpsTransferRequest request, String idempotencyKey) {
+        Transaction transaction = newTransaction(request, idempotencyKey);
         
-        transactionRepository.save(transaction);
-        
+        InsufficientBalanceException failure = null;
         try {
-            accountService.debitAccount(request.getFromAccount(), request.getAmount());
-            accountService.creditAccount(request.getToAccount(), request.getAmount());
+            paymentMetrics.time(TYPE, "lock", () -> accountService.lockAccounts(request.getFromAccount(), request.getToAccount()));
+            paymentMetrics.time(TYPE, "debit", () -> accountService.debitAccount(request.getFromAccount(), request.getAmount()));
+            paymentMetrics.time(TYPE, "credit", () -> accountService.creditAccount(request.getToAccount(), request.getAmount()));
             
             transaction.setStatus("SUCCESS");
-            transactionRepository.save(transaction);
             
             log.info("IMPS transfer successful: {}", transaction.getTransactionId());
             
-        } catch (Exception e) {
+        } catch (InsufficientBalanceException e) {
+            // Any other failure propagates and rolls back the whole payment, including a debit already made
+            failure = e;
             transaction.setStatus("FAILED");
             transaction.setFailureReason(e.getMessage());
-            transactionRepository.save(transaction);
             
             log.error("IMPS transfer failed: {}", e.getMessage());
         }
         
-        return buildTransactionResponse(transaction);
-    }
-    
-    private TransactionResponse buildTransactionResponse(Transaction transaction) {
-        return TransactionResponse.builder()
-                .transactionId(transaction.getTransactionId())
-                .transactionType(transaction.getTransactionType())
-                .amount(transaction.getAmount())
-                .status(transaction.getStatus())
-                .fromAccount(transaction.getFromAccount().getAccountNumber())
-                .toAccount(transaction.getToAccount().getAccountNumber())
-                .remarks(transaction.getRemarks())
-                .failureReason(transaction.getFailureReason())
-                .timestamp(transaction.getCreatedAt())
-                .build();
+        // Persist once with the final status
+        paymentMetrics.time(TYPE, "save", () -> transactionRepository.save(transaction));
+        paymentMetrics.timeCommit(TYPE, transaction.getStatus(), failure);
+        
+        return TransactionResponse.fromEntity(transaction);
     }
     
     private void simulateProcessingDelay() {
         try {
-            int delay = minDelay + random.nextInt(maxDelay - minDelay);
+            int delay = ThreadLocalRandom.current().nextInt(minDelay, maxDelay);
             Thread.sleep(delay);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -0,0 +1,109 @@
+package com.npci.gateway.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer timers and counters for UPI and IMPS payments.
+ * payment.stage times each step (tags type, stage), payment.duration the whole request (tag type),
+ * and payment.outcomes counts results by type, status and reason. Percentiles are configured
+ * under management.metrics.distribution in application.yml.
+ */
+@Component
+public class PaymentMetrics {
+    
+    private static final String NO_REASON = "none";
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    
+    public PaymentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+    
+    public void stopDuration(Timer.Sample sample, String type) {
+        sample.stop(timers.computeIfAbsent(type, key -> Timer.builder("payment.duration")
+                .description("Time to process a payment request end to end")
+                .tag("type", type)
+                .register(meterRegistry)));
+    }
+    
+    public void stopStage(Timer.Sample sample, String type, String stage) {
+        sample.stop(stageTimer(type, stage));
+    }
+    
+    public <T> T time(String type, String stage, Supplier<T> step) {
+        return stageTimer(type, stage).record(step);
+    }
+    
+    public void time(String type, String stage, Runnable step) {
+        stageTimer(type, stage).record(step);
+    }
+    
+    // Flush and commit of the surrounding transaction, where the payment's SQL actually runs
+    public void timeCommit(String type) {
+        timeCommit(type, null, null);
+    }
+    
+    /**
+     * Time the commit and count the payment's outcome once it has committed. The INSERT runs at
+     * commit, so a payment that loses there (e.g. on a duplicate Idempotency-Key) is never
+     * counted as SUCCESS or FAILED.
+     */
+    public void timeCommit(String type, String status, Exception failure) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (status != null) {
+                recordOutcome(type, status, failure);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Timer.Sample sample;
+            
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                sample = Timer.start(meterRegistry);
+            }
+            
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (sample != null) {
+                    sample.stop(stageTimer(type, "commit"));
+                }
+                if (status != null && completionStatus == STATUS_COMMITTED) {
+                    recordOutcome(type, status, failure);
+                }
+            }
+        });
+    }
+    
+    public void recordOutcome(String type, String status, Exception failure) {
+        String reason = failure == null ? NO_REASON : failure.getClass().getSimpleName();
+        counters.computeIfAbsent(type + '|' + status + '|' + reason, key -> Counter.builder("payment.outcomes")
+                .description("Payments by final status and failure reason")
+                .tag("type", type)
+                .tag("status", status)
+                .tag("reason", reason)
+                .register(meterRegistry)).increment();
+    }
+    
+    private Timer stageTimer(String type, String stage) {
+        return timers.computeIfAbsent(type + '|' + stage, key -> Timer.builder("payment.stage")
+                .description("Time spent in one stage of a payment")
+                .tag("type", type)
+                .tag("stage", stage)
+                .register(meterRegistry));
+    }
+}
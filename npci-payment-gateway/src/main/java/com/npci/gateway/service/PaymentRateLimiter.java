@@ -0,0 +1,154 @@
+package com.npci.gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token buckets for payment requests: one per payer (fromUpiId or fromAccount) and one for the
+ * whole gateway, configured under app.rate-limit and enforced by RateLimitFilter.
+ *
+ * A bucket is a single long, the time at which it will be full again. Taking a token moves that
+ * time one refill interval forward with a CAS, and is refused if it would end up more than burst
+ * intervals ahead of now. That is a token bucket without a token count or a refill thread, and
+ * no lock is ever taken.
+ *
+ * The global bucket is split into stripes on separate cache lines, each refilling at its share
+ * of the rate, so concurrent payments do not all CAS the same word. A payment tries every stripe
+ * before it is refused. Per-payer buckets live in a Caffeine cache and are dropped once idle
+ * long enough to be full again, which never loosens a limit. The cache is also capped at max-keys:
+ * if more payers than that are active within one burst window, the least recently used lose their
+ * partly used bucket and start again full, so max-keys should exceed the payers expected then.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true")
+public class PaymentRateLimiter {
+    
+    // Longs per 64-byte cache line, so neighbouring stripes never share one
+    private static final int STRIPE_SPACING = 8;
+    // Below any System.nanoTime(), so a new bucket starts full
+    private static final long FULL = Long.MIN_VALUE;
+    
+    private final long keyInterval;
+    private final long keyTolerance;
+    private final int stripes;
+    private final long stripeInterval;
+    private final long stripeTolerance;
+    private final AtomicLongArray globalStripes;
+    private final Cache<String, AtomicLong> keyBuckets;
+    private final Counter keyRejections;
+    private final Counter globalRejections;
+    
+    public PaymentRateLimiter(MeterRegistry meterRegistry,
+                              @Value("${app.rate-limit.per-key.permits-per-second:10}") double keyRate,
+                              @Value("${app.rate-limit.per-key.burst:20}") int keyBurst,
+                              @Value("${app.rate-limit.global.permits-per-second:2000}") double globalRate,
+                              @Value("${app.rate-limit.global.burst:4000}") int globalBurst,
+                              @Value("${app.rate-limit.stripes:8}") int stripes,
+                              @Value("${app.rate-limit.max-keys:100000}") long maxKeys) {
+        if (keyRate <= 0 || globalRate <= 0 || keyBurst < 1 || globalBurst < stripes || stripes < 1) {
+            throw new IllegalArgumentException("Rates must be positive, bursts at least 1 and the global burst at least the stripe count");
+        }
+        this.keyInterval = (long) (1_000_000_000 / keyRate);
+        this.keyTolerance = keyInterval * keyBurst;
+        this.stripes = stripes;
+        this.stripeInterval = (long) (1_000_000_000 / (globalRate / stripes));
+        this.stripeTolerance = stripeInterval * (globalBurst / stripes);
+        this.globalStripes = new AtomicLongArray(stripes * STRIPE_SPACING);
+        for (int i = 0; i < stripes; i++) {
+            globalStripes.set(i * STRIPE_SPACING, FULL);
+        }
+        this.keyBuckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(keyTolerance))
+                .build();
+        
+        this.keyRejections = Counter.builder("payment.rate.limited")
+                .tag("scope", "payer")
+                .description("Payments refused because the payer exceeded app.rate-limit.per-key")
+                .register(meterRegistry);
+        this.globalRejections = Counter.builder("payment.rate.limited")
+                .tag("scope", "global")
+                .description("Payments refused because the gateway exceeded app.rate-limit.global")
+                .register(meterRegistry);
+        Gauge.builder("payment.rate.payers", keyBuckets, Cache::estimatedSize)
+                .description("Payers with a partly used rate-limit bucket")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * A refused payment: which limit refused it and when the next token is due
+     */
+    public record Rejection(boolean global, Duration retryAfter) {
+    }
+    
+    /**
+     * Take a token for the payer, then one from the global bucket. A null payer (the body could
+     * not be read) is only limited globally. A payer's token is not returned if the global bucket
+     * then refuses, which only matters while the whole gateway is over its limit.
+     */
+    public Optional<Rejection> tryAcquire(String payer) {
+        long now = System.nanoTime();
+        if (payer != null) {
+            AtomicLong bucket = keyBuckets.get(payer, key -> new AtomicLong(FULL));
+            long wait = take(bucket, now);
+            if (wait > 0) {
+                keyRejections.increment();
+                return Optional.of(new Rejection(false, Duration.ofNanos(wait)));
+            }
+        }
+        
+        int first = ThreadLocalRandom.current().nextInt(stripes);
+        long shortestWait = Long.MAX_VALUE;
+        for (int i = 0; i < stripes; i++) {
+            long wait = takeStripe(((first + i) % stripes) * STRIPE_SPACING, now);
+            if (wait == 0) {
+                return Optional.empty();
+            }
+            shortestWait = Math.min(shortestWait, wait);
+        }
+        globalRejections.increment();
+        return Optional.of(new Rejection(true, Duration.ofNanos(shortestWait)));
+    }
+    
+    /**
+     * Take a token from a payer bucket; returns 0, or the nanoseconds until one is available
+     */
+    private long take(AtomicLong bucket, long now) {
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + keyInterval;
+            long wait = next - now - keyTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    private long takeStripe(int index, long now) {
+        while (true) {
+            long fullAt = globalStripes.get(index);
+            long next = Math.max(fullAt, now) + stripeInterval;
+            long wait = next - now - stripeTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (globalStripes.compareAndSet(index, fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+}
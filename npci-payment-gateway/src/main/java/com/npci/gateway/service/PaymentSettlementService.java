@@ -0,0 +1,274 @@
+package com.npci.gateway.service;
+
+import com.npci.gateway.dto.TransactionResponse;
+import com.npci.gateway.exception.InsufficientBalanceException;
+import com.npci.gateway.exception.PaymentQueueFullException;
+import com.npci.gateway.exception.TransactionNotFoundException;
+import com.npci.gateway.model.Transaction;
+import com.npci.gateway.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Settles accepted payments in the background for the asynchronous (202 Accepted) flow.
+ *
+ * accept() saves the transaction as PROCESSING and queues it; a fixed pool of workers then runs
+ * the simulated bank delay, the debit and the credit, and stores SUCCESS or FAILED. Clients poll
+ * GET /transactions/{transactionId} for the outcome. At most workers + queue-capacity payments are
+ * in flight; beyond that accept() fails with PaymentQueueFullException (503) before anything is
+ * saved, so a burst is pushed back to the client instead of piling up in memory.
+ *
+ * The queue lives in memory: payments still queued when the process stops stay PROCESSING, and
+ * are queued again by recoverProcessing() when the application next starts. A PROCESSING row has
+ * not been debited, since the debit, credit and final status commit together.
+ *
+ * A payment can be queued twice, e.g. by its own accept() and by recoverProcessing() when it was
+ * accepted between Tomcat starting and ApplicationReadyEvent. Settlement therefore locks the row
+ * and only settles it while it is still PROCESSING; markFailed() checks the same way.
+ */
+@Service
+@Slf4j
+public class PaymentSettlementService {
+    
+    private final TransactionRepository transactionRepository;
+    private final AccountService accountService;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentMetrics paymentMetrics;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore capacity;
+    private final Counter rejected;
+    
+    @Value("${app.simulation.delay.min:100}")
+    private int minDelay;
+    
+    @Value("${app.simulation.delay.max:500}")
+    private int maxDelay;
+    
+    public PaymentSettlementService(TransactionRepository transactionRepository,
+                                    AccountService accountService,
+                                    TransactionTemplate transactionTemplate,
+                                    PaymentMetrics paymentMetrics,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.async-payments.workers:16}") int workers,
+                                    @Value("${app.async-payments.queue-capacity:1000}") int queueCapacity) {
+        this.transactionRepository = transactionRepository;
+        this.accountService = accountService;
+        this.transactionTemplate = transactionTemplate;
+        this.paymentMetrics = paymentMetrics;
+        // Every permit has room in the pool or the queue, so the executor itself never rejects
+        this.capacity = new Semaphore(workers + queueCapacity);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("settlement-"));
+        
+        Gauge.builder("payment.settlement.queued", executor, e -> e.getQueue().size())
+                .description("Accepted payments waiting for a settlement worker")
+                .register(meterRegistry);
+        Gauge.builder("payment.settlement.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Settlement workers currently settling a payment")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("payment.settlement.rejected")
+                .description("Payments refused because the settlement queue was full")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Save a new transaction as PROCESSING and queue it for settlement once that save commits.
+     * The transaction is built inside the save's database transaction, so it may load accounts.
+     */
+    public TransactionResponse accept(Supplier<Transaction> newTransaction) {
+        return accept(newTransaction, TransactionResponse::fromEntity);
+    }
+    
+    /**
+     * As accept(newTransaction), building the response with toResponse
+     */
+    public TransactionResponse accept(Supplier<Transaction> newTransaction,
+                                      Function<Transaction, TransactionResponse> toResponse) {
+        if (!capacity.tryAcquire()) {
+            rejected.increment();
+            throw new PaymentQueueFullException("Payment queue is full, retry later");
+        }
+        AtomicBoolean handedOff = new AtomicBoolean();
+        try {
+            return transactionTemplate.execute(status -> {
+                // Registered before the save, so a rollback at any point gives the permit back
+                AtomicReference<Transaction> saved = new AtomicReference<>();
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        handedOff.set(true);
+                        if (completionStatus == STATUS_COMMITTED) {
+                            Transaction transaction = saved.get();
+                            submit(transaction.getTransactionId(), transaction.getTransactionType());
+                        } else {
+                            capacity.release();
+                        }
+                    }
+                });
+                Transaction transaction = newTransaction.get();
+                transaction.setStatus("PROCESSING");
+                transactionRepository.save(transaction);
+                saved.set(transaction);
+                return toResponse.apply(transaction);
+            });
+        } finally {
+            if (!handedOff.get()) {
+                capacity.release();
+            }
+        }
+    }
+    
+    /**
+     * Queue a saved PROCESSING payment for settlement, holding a permit that settle() gives back.
+     * The executor only refuses work once shut down; the permit is then returned and the payment
+     * stays PROCESSING for recoverProcessing() on the next start.
+     */
+    private void submit(String transactionId, String type) {
+        Timer.Sample queued = paymentMetrics.start();
+        try {
+            executor.execute(() -> settle(transactionId, type, queued));
+        } catch (RejectedExecutionException e) {
+            capacity.release();
+            log.warn("Settlement is shut down; {} stays PROCESSING until the next start", transactionId);
+        }
+    }
+    
+    /**
+     * Queue the payments left PROCESSING by a previous run. Those that do not fit in the queue
+     * are marked FAILED rather than left pending, since nothing else would pick them up.
+     * Assumes one gateway instance per database, as the in-memory queue already does.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverProcessing() {
+        List<Transaction> pending = transactionRepository.findByStatus("PROCESSING");
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Queueing {} payments left PROCESSING by a previous run", pending.size());
+        for (Transaction transaction : pending) {
+            if (capacity.tryAcquire()) {
+                submit(transaction.getTransactionId(), transaction.getTransactionType());
+            } else {
+                markFailed(transaction.getTransactionId(), "Not settled before restart");
+            }
+        }
+    }
+    
+    private void settle(String transactionId, String type, Timer.Sample queued) {
+        paymentMetrics.stopStage(queued, type, "queue_wait");
+        Timer.Sample sample = paymentMetrics.start();
+        try {
+            paymentMetrics.time(type, "bank_delay", this::simulateProcessingDelay);
+            Settlement settlement = transactionTemplate.execute(status -> settleInTransaction(transactionId, type));
+            if (settlement != null) {
+                paymentMetrics.recordOutcome(type, settlement.status(), settlement.failure());
+            }
+        } catch (RuntimeException e) {
+            log.error("Settlement of {} failed: {}", transactionId, e.getMessage());
+            markFailed(transactionId, "Settlement error: " + e.getMessage());
+            paymentMetrics.recordOutcome(type, "FAILED", e);
+        } finally {
+            paymentMetrics.stopDuration(sample, type);
+            capacity.release();
+        }
+    }
+    
+    /**
+     * Debit, credit and store the outcome, or return null without touching the accounts if the
+     * payment is no longer PROCESSING because another settlement or markFailed() got there first
+     */
+    private Settlement settleInTransaction(String transactionId, String type) {
+        Transaction transaction = transactionRepository.findByTransactionIdForUpdate(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException("Transaction not found: " + transactionId));
+        if (!"PROCESSING".equals(transaction.getStatus())) {
+            log.info("{} is already {}, not settling it again", transactionId, transaction.getStatus());
+            return null;
+        }
+        
+        InsufficientBalanceException failure = null;
+        try {
+            paymentMetrics.time(type, "lock", () -> accountService.lockAccounts(
+                    transaction.getFromAccount().getAccountNumber(), transaction.getToAccount().getAccountNumber()));
+            paymentMetrics.time(type, "debit", () -> accountService.debitAccount(
+                    transaction.getFromAccount().getAccountNumber(), transaction.getAmount()));
+            paymentMetrics.time(type, "credit", () -> accountService.creditAccount(
+                    transaction.getToAccount().getAccountNumber(), transaction.getAmount()));
+            transaction.setStatus("SUCCESS");
+            
+            log.info("{} settlement successful: {}", type, transactionId);
+        
+        } catch (InsufficientBalanceException e) {
+            failure = e;
+            transaction.setStatus("FAILED");
+            transaction.setFailureReason(e.getMessage());
+            
+            log.error("{} settlement failed: {}", type, e.getMessage());
+        }
+        
+        // The status change is flushed by dirty checking at commit
+        paymentMetrics.timeCommit(type);
+        return new Settlement(transaction.getStatus(), failure);
+    }
+    
+    // Leaves a payment that has been settled in the meantime as it is
+    private void markFailed(String transactionId, String reason) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> transactionRepository
+                    .findByTransactionIdForUpdate(transactionId)
+                    .filter(transaction -> "PROCESSING".equals(transaction.getStatus()))
+                    .ifPresent(transaction -> {
+                        transaction.setStatus("FAILED");
+                        transaction.setFailureReason(reason);
+                    }));
+        } catch (RuntimeException e) {
+            log.error("Could not mark {} as FAILED, it stays PROCESSING: {}", transactionId, e.getMessage());
+        }
+    }
+    
+    /**
+     * Let queued payments finish before the datasource goes away
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Settlement workers did not finish; {} queued payments stay PROCESSING", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+    
+    private void simulateProcessingDelay() {
+        try {
+            int delay = ThreadLocalRandom.current().nextInt(minDelay, maxDelay);
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private record Settlement(String status, InsufficientBalanceException failure) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.npci.gateway.service;
+
+import com.npci.gateway.dto.TransactionEvent;
+import com.npci.gateway.exception.InvalidSubscriptionException;
+import com.npci.gateway.exception.TransactionNotFoundException;
+import com.npci.gateway.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes transaction status changes to Server-Sent Events subscribers, so clients stop polling.
+ *
+ * publish() runs on the committing thread and never blocks: it only offers the event to the
+ * bounded buffer of each subscriber watching that transaction. A small pool of sender threads
+ * drains the buffers and writes to the connections, one drain at a time per subscriber, so a slow
+ * client only ever holds up itself. A subscriber whose buffer overflows is told so and closed.
+ *
+ * A subscription is registered before the current status is read, so a change that commits in
+ * between arrives as an event and no transition is lost. The stream ends once every watched
+ * transaction is SUCCESS or FAILED, or after app.transaction-events.timeout.
+ */
+@Component
+public class TransactionEventHub {
+    
+    private final TransactionRepository transactionRepository;
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ExecutorService sender;
+    private final Counter overflows;
+    private final int bufferSize;
+    private final int maxTransactions;
+    private final long timeoutMillis;
+    
+    public TransactionEventHub(TransactionRepository transactionRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.transaction-events.buffer-size:16}") int bufferSize,
+                               @Value("${app.transaction-events.max-transactions:50}") int maxTransactions,
+                               @Value("${app.transaction-events.timeout:60s}") Duration timeout,
+                               @Value("${app.transaction-events.sender-threads:4}") int senderThreads) {
+        this.transactionRepository = transactionRepository;
+        this.bufferSize = bufferSize;
+        this.maxTransactions = maxTransactions;
+        this.timeoutMillis = timeout.toMillis();
+        // At most one drain task per subscriber is ever queued, so this queue is bounded by the subscribers
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("transaction-events-"));
+        
+        Gauge.builder("transaction.events.subscribers", subscribers, AtomicInteger::get)
+                .description("Open transaction event streams")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("transaction.events.overflows")
+                .description("Event streams closed because the client did not keep up")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Open a stream of status events for the given transactions, starting with their current status
+     */
+    public SseEmitter subscribe(Collection<String> transactionIds) {
+        Set<String> ids = new LinkedHashSet<>(transactionIds);
+        if (ids.isEmpty() || ids.size() > maxTransactions) {
+            throw new InvalidSubscriptionException("Subscribe to 1 to " + maxTransactions + " transactions");
+        }
+        
+        Subscription subscription = new Subscription(ids);
+        ids.forEach(id -> subscriptions.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscription));
+        subscribers.incrementAndGet();
+        
+        List<TransactionEvent> current = new ArrayList<>(ids.size());
+        try {
+            for (String id : ids) {
+                current.add(transactionRepository.findByTransactionId(id)
+                        .map(TransactionEvent::fromEntity)
+                        .orElseThrow(() -> new TransactionNotFoundException("Transaction not found: " + id)));
+            }
+        } catch (RuntimeException e) {
+            subscription.close();
+            throw e;
+        }
+        current.forEach(subscription::offer);
+        return subscription.emitter;
+    }
+    
+    /**
+     * Hand a committed status change to its subscribers without waiting for any of them
+     */
+    public void publish(TransactionEvent event) {
+        Set<Subscription> watching = subscriptions.get(event.getTransactionId());
+        if (watching != null) {
+            watching.forEach(subscription -> subscription.offer(event));
+        }
+    }
+    
+    private void unregister(Subscription subscription) {
+        subscription.transactionIds.forEach(id -> subscriptions.computeIfPresent(id, (key, watching) -> {
+            watching.remove(subscription);
+            return watching.isEmpty() ? null : watching;
+        }));
+        subscribers.decrementAndGet();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+    
+    private static boolean isFinal(String status) {
+        return "SUCCESS".equals(status) || "FAILED".equals(status);
+    }
+    
+    /**
+     * One client connection watching one or more transactions
+     */
+    private final class Subscription {
+        
+        private final Set<String> transactionIds;
+        private final SseEmitter emitter = new SseEmitter(timeoutMillis);
+        private final BlockingQueue<TransactionEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean overflowed;
+        
+        // Only touched by the thread currently draining
+        private final Map<String, String> sentStatus = new HashMap<>();
+        private final Set<String> open;
+        
+        Subscription(Set<String> transactionIds) {
+            this.transactionIds = transactionIds;
+            // Room for the initial status of every transaction on top of the configured buffer
+            this.buffer = new ArrayBlockingQueue<>(bufferSize + transactionIds.size());
+            this.open = new LinkedHashSet<>(transactionIds);
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(error -> close());
+        }
+        
+        void offer(TransactionEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                overflowed = true;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                if (overflowed) {
+                    overflows.increment();
+                    emitter.send(SseEmitter.event().name("overflow").data("Too many events buffered, resubscribe"));
+                    finish();
+                    return;
+                }
+                TransactionEvent event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An event offered after the last poll but before the flag was cleared would otherwise wait
+            if ((!buffer.isEmpty() || overflowed) && !closed.get() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+        
+        private void send(TransactionEvent event) throws IOException {
+            String id = event.getTransactionId();
+            // The initial read and a concurrent publish can deliver the same status twice
+            if (!open.contains(id) || event.getStatus().equals(sentStatus.get(id))) {
+                return;
+            }
+            emitter.send(SseEmitter.event().name("status").data(event));
+            sentStatus.put(id, event.getStatus());
+            if (isFinal(event.getStatus())) {
+                open.remove(id);
+                if (open.isEmpty()) {
+                    finish();
+                }
+            }
+        }
+        
+        private void finish() {
+            close();
+            emitter.complete();
+        }
+        
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.npci.gateway.service;
+
+import com.npci.gateway.dto.TransactionEvent;
+import com.npci.gateway.model.Transaction;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that hands every written transaction status to TransactionEventHub.
+ * The event is captured when the row is flushed but only published after commit, so
+ * subscribers never see a status that is later rolled back.
+ */
+@Component
+public class TransactionEventPublisher {
+    
+    private final TransactionEventHub transactionEventHub;
+    
+    // Lazy because Hibernate creates this listener while the repositories behind the hub are still being built
+    public TransactionEventPublisher(@Lazy TransactionEventHub transactionEventHub) {
+        this.transactionEventHub = transactionEventHub;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    public void onChange(Transaction transaction) {
+        TransactionEvent event = TransactionEvent.fromEntity(transaction);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionEventHub.publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                transactionEventHub.publish(event);
+            }
+        });
+    }
+}
@@ -18,16 +18,6 @@ public class TransactionService {
                 .orElseThrow(() -> new TransactionNotFoundException(
                         "Transaction not found: " + transactionId));
         
-        return TransactionResponse.builder()
-                .transactionId(transaction.getTransactionId())
-                .transactionType(transaction.getTransactionType())
-                .amount(transaction.getAmount())
-                .status(transaction.getStatus())
-                .fromAccount(transaction.getFromAccount().getAccountNumber())
-                .toAccount(transaction.getToAccount().getAccountNumber())
-                .remarks(transaction.getRemarks())
-                .failureReason(transaction.getFailureReason())
-                .timestamp(transaction.getCreatedAt())
-                .build();
+        return TransactionResponse.fromEntity(transaction);
     }
 }
@@ -0,0 +1,58 @@
+package com.npci.gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.npci.gateway.dto.ResolvedUpiId;
+import com.npci.gateway.repository.UpiIdRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caches VPA to account resolution so the payment path does not query upi_ids for every request.
+ * Only existing VPAs are cached; entries are evicted by UpiIdCacheInvalidator when a row changes.
+ * Hit/miss/eviction counts are published as cache.* metrics tagged cache=upiIdCache.
+ */
+@Component
+@Slf4j
+public class UpiIdCache {
+    
+    private final UpiIdRepository upiIdRepository;
+    private final Cache<String, ResolvedUpiId> cache;
+    
+    public UpiIdCache(UpiIdRepository upiIdRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.upi-cache.max-size:100000}") long maxSize,
+                      @Value("${app.upi-cache.ttl:10m}") Duration ttl) {
+        this.upiIdRepository = upiIdRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "upiIdCache");
+    }
+    
+    public Optional<ResolvedUpiId> resolve(String upiId) {
+        ResolvedUpiId cached = cache.getIfPresent(upiId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<ResolvedUpiId> resolved = upiIdRepository.findResolvedByUpiId(upiId);
+        resolved.ifPresent(value -> cache.put(upiId, value));
+        return resolved;
+    }
+    
+    public void evict(String upiId) {
+        cache.invalidate(upiId);
+        log.debug("Evicted UPI ID from cache: {}", upiId);
+    }
+    
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
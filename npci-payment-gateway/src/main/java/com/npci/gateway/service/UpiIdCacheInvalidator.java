@@ -0,0 +1,46 @@
+package com.npci.gateway.service;
+
+import com.npci.gateway.model.UpiId;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that evicts a VPA from UpiIdCache whenever its upi_ids row is written.
+ * The entry is dropped immediately and again after the transaction completes, so a reader
+ * that repopulated the cache before commit cannot keep the old mapping.
+ * Bulk JPQL updates bypass entity listeners, so upi_ids must only be changed through the entity.
+ */
+@Component
+public class UpiIdCacheInvalidator {
+    
+    private final UpiIdCache upiIdCache;
+    
+    // Lazy because Hibernate creates this listener while the repositories behind the cache are still being built
+    public UpiIdCacheInvalidator(@Lazy UpiIdCache upiIdCache) {
+        this.upiIdCache = upiIdCache;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(UpiId upiId) {
+        evict(upiId.getUpiId());
+    }
+    
+    private void evict(String upiId) {
+        upiIdCache.evict(upiId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    upiIdCache.evict(upiId);
+                }
+            });
+        }
+    }
+}
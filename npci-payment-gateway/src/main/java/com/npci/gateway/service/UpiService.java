@@ -1,29 +1,38 @@
 package com.npci.gateway.service;
 
+import com.npci.gateway.dto.ResolvedUpiId;
 import com.npci.gateway.dto.TransactionResponse;
 import com.npci.gateway.dto.UpiPaymentRequest;
+import com.npci.gateway.exception.InsufficientBalanceException;
 import com.npci.gateway.exception.InvalidUpiIdException;
 import com.npci.gateway.model.Transaction;
-import com.npci.gateway.model.UpiId;
+import com.npci.gateway.repository.AccountRepository;
 import com.npci.gateway.repository.TransactionRepository;
-import com.npci.gateway.repository.UpiIdRepository;
 import com.npci.gateway.util.TransactionIdGenerator;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import java.util.Random;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UpiService {
     
-    private final UpiIdRepository upiIdRepository;
+    private static final String TYPE = "UPI";
+    
+    private final UpiIdCache upiIdCache;
+    private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final AccountService accountService;
     private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyStore idempotencyStore;
+    private final PaymentMetrics paymentMetrics;
+    private final PaymentSettlementService paymentSettlementService;
     
     @Value("${app.simulation.delay.min:100}")
     private int minDelay;
@@ -31,80 +40,131 @@ public class UpiService {
     @Value("${app.simulation.delay.max:500}")
     private int maxDelay;
     
-    private final Random random = new Random();
-    
     public boolean validateUpiId(String upiId) {
         simulateProcessingDelay();
-        return upiIdRepository.existsByUpiId(upiId);
+        return upiIdCache.resolve(upiId).isPresent();
     }
     
-    @Transactional
-    public TransactionResponse initiatePayment(UpiPaymentRequest request) {
-        simulateProcessingDelay();
-        
-        UpiId fromUpi = upiIdRepository.findByUpiId(request.getFromUpiId())
-                .orElseThrow(() -> new InvalidUpiIdException(
-                        "Invalid sender UPI ID: " + request.getFromUpiId()));
-        
-        UpiId toUpi = upiIdRepository.findByUpiId(request.getToUpiId())
-                .orElseThrow(() -> new InvalidUpiIdException(
-                        "Invalid receiver UPI ID: " + request.getToUpiId()));
+    public TransactionResponse initiatePayment(UpiPaymentRequest request, String idempotencyKey) {
+        Timer.Sample sample = paymentMetrics.start();
+        try {
+            return executePayment(request, idempotencyKey);
+        } catch (RuntimeException e) {
+            paymentMetrics.recordOutcome(TYPE, "REJECTED", e);
+            throw e;
+        } finally {
+            paymentMetrics.stopDuration(sample, TYPE);
+        }
+    }
+    
+    /**
+     * Asynchronous flow: save the payment as PROCESSING and return without waiting for the bank.
+     * PaymentSettlementService moves the money later; clients poll the transaction status.
+     */
+    public TransactionResponse acceptPayment(UpiPaymentRequest request, String idempotencyKey) {
+        Timer.Sample sample = paymentMetrics.start();
+        try {
+            ResolvedUpiId fromUpi = resolve(request.getFromUpiId(), "sender");
+            ResolvedUpiId toUpi = resolve(request.getToUpiId(), "receiver");
+            
+            String fingerprint = IdempotencyStore.fingerprint(
+                    TYPE, fromUpi.accountNumber(), toUpi.accountNumber(), request.getAmount());
+            return idempotencyStore.execute(idempotencyKey, fingerprint, () -> paymentSettlementService.accept(
+                    () -> newTransaction(request, fromUpi, toUpi, idempotencyKey),
+                    transaction -> toResponse(transaction, fromUpi, toUpi)));
+        } catch (RuntimeException e) {
+            paymentMetrics.recordOutcome(TYPE, "REJECTED", e);
+            throw e;
+        } finally {
+            paymentMetrics.stopStage(sample, TYPE, "accept");
+        }
+    }
+    
+    private TransactionResponse executePayment(UpiPaymentRequest request, String idempotencyKey) {
+        ResolvedUpiId fromUpi = resolve(request.getFromUpiId(), "sender");
+        ResolvedUpiId toUpi = resolve(request.getToUpiId(), "receiver");
         
+        String fingerprint = IdempotencyStore.fingerprint(
+                TYPE, fromUpi.accountNumber(), toUpi.accountNumber(), request.getAmount());
+        return idempotencyStore.execute(idempotencyKey, fingerprint, () -> {
+            // Bank latency is simulated before the DB transaction starts so no pooled connection is held while waiting
+            paymentMetrics.time(TYPE, "bank_delay", this::simulateProcessingDelay);
+            return transactionTemplate.execute(status -> processPayment(request, fromUpi, toUpi, idempotencyKey));
+        });
+    }
+    
+    private ResolvedUpiId resolve(String upiId, String party) {
+        Timer.Sample resolve = paymentMetrics.start();
+        try {
+            return upiIdCache.resolve(upiId)
+                    .orElseThrow(() -> new InvalidUpiIdException("Invalid " + party + " UPI ID: " + upiId));
+        } finally {
+            paymentMetrics.stopStage(resolve, TYPE, "resolve");
+        }
+    }
+    
+    private Transaction newTransaction(UpiPaymentRequest request, ResolvedUpiId fromUpi,
+                                       ResolvedUpiId toUpi, String idempotencyKey) {
         Transaction transaction = new Transaction();
         transaction.setTransactionId(transactionIdGenerator.generateUpiTransactionId());
-        transaction.setTransactionType("UPI");
-        transaction.setFromAccount(fromUpi.getAccount());
-        transaction.setToAccount(toUpi.getAccount());
+        transaction.setTransactionType(TYPE);
+        // Unloaded references: the debit and credit are UPDATEs by account number and the response
+        // takes the numbers from the resolved VPAs, so the payment never loads an account entity
+        transaction.setFromAccount(accountRepository.getReferenceById(fromUpi.accountId()));
+        transaction.setToAccount(accountRepository.getReferenceById(toUpi.accountId()));
         transaction.setAmount(request.getAmount());
         transaction.setStatus("PROCESSING");
         transaction.setRemarks(request.getRemarks());
+        transaction.setIdempotencyKey(idempotencyKey);
+        return transaction;
+    }
+    
+    private TransactionResponse processPayment(UpiPaymentRequest request, ResolvedUpiId fromUpi,
+                                               ResolvedUpiId toUpi, String idempotencyKey) {
+        Transaction transaction = newTransaction(request, fromUpi, toUpi, idempotencyKey);
         
-        transactionRepository.save(transaction);
-        
+        InsufficientBalanceException failure = null;
         try {
-            accountService.debitAccount(
-                    fromUpi.getAccount().getAccountNumber(), 
+            paymentMetrics.time(TYPE, "lock", () -> accountService.lockAccounts(
+                    fromUpi.accountNumber(), toUpi.accountNumber()));
+            
+            paymentMetrics.time(TYPE, "debit", () -> accountService.debitAccount(
+                    fromUpi.accountNumber(), 
                     request.getAmount()
-            );
+            ));
             
-            accountService.creditAccount(
-                    toUpi.getAccount().getAccountNumber(), 
+            paymentMetrics.time(TYPE, "credit", () -> accountService.creditAccount(
+                    toUpi.accountNumber(), 
                     request.getAmount()
-            );
+            ));
             
             transaction.setStatus("SUCCESS");
-            transactionRepository.save(transaction);
             
             log.info("UPI payment successful: {}", transaction.getTransactionId());
             
-        } catch (Exception e) {
+        } catch (InsufficientBalanceException e) {
+            // Any other failure propagates and rolls back the whole payment, including a debit already made
+            failure = e;
             transaction.setStatus("FAILED");
             transaction.setFailureReason(e.getMessage());
-            transactionRepository.save(transaction);
             
             log.error("UPI payment failed: {}", e.getMessage());
         }
         
-        return buildTransactionResponse(transaction);
+        // Persist once with the final status
+        paymentMetrics.time(TYPE, "save", () -> transactionRepository.save(transaction));
+        paymentMetrics.timeCommit(TYPE, transaction.getStatus(), failure);
+        
+        return toResponse(transaction, fromUpi, toUpi);
     }
     
-    private TransactionResponse buildTransactionResponse(Transaction transaction) {
-        return TransactionResponse.builder()
-                .transactionId(transaction.getTransactionId())
-                .transactionType(transaction.getTransactionType())
-                .amount(transaction.getAmount())
-                .status(transaction.getStatus())
-                .fromAccount(transaction.getFromAccount().getAccountNumber())
-                .toAccount(transaction.getToAccount().getAccountNumber())
-                .remarks(transaction.getRemarks())
-                .failureReason(transaction.getFailureReason())
-                .timestamp(transaction.getCreatedAt())
-                .build();
+    private static TransactionResponse toResponse(Transaction transaction, ResolvedUpiId fromUpi, ResolvedUpiId toUpi) {
+        return TransactionResponse.fromEntity(transaction, fromUpi.accountNumber(), toUpi.accountNumber());
     }
     
     private void simulateProcessingDelay() {
         try {
-            int delay = minDelay + random.nextInt(maxDelay - minDelay);
+            int delay = ThreadLocalRandom.current().nextInt(minDelay, maxDelay);
             Thread.sleep(delay);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -1,23 +1,51 @@
 package com.npci.gateway.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
+/**
+ * Issues and verifies HS512 tokens.
+ * The signing key and parser are built once. Tokens that passed verification are remembered by
+ * their SHA-256 digest until they expire, so a client reusing its token costs one hash per request
+ * instead of a signature check and a JSON parse.
+ */
 @Component
 public class JwtUtil {
     
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Long expiration;
+    private final Cache<String, VerifiedToken> verified;
     
-    @Value("${jwt.expiration}")
-    private Long expiration;
-    
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${app.jwt-cache.max-size:10000}") long maxCachedTokens,
+                   MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.expiration = expiration;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwtCache");
     }
     
     public String generateToken(String username) {
@@ -28,29 +56,76 @@ public class JwtUtil {
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
     
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verify a token at most once and return its subject, or empty if the token is invalid or expired
+     */
+    public Optional<String> authenticate(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String digest = digest(token);
+        VerifiedToken cached = verified.getIfPresent(digest);
+        // Caffeine drops expired entries lazily, so an entry can outlive its token by a moment
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return Optional.ofNullable(cached.username());
+        }
         
-        return claims.getSubject();
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            // Tokens without an expiry are still accepted, just never cached
+            if (claims.getExpiration() != null) {
+                verified.put(digest, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+            }
+            return Optional.ofNullable(claims.getSubject());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+    
+    public String getUsernameFromToken(String token) {
+        return authenticate(token)
+                .orElseThrow(() -> new MalformedJwtException("Invalid or expired token"));
     }
     
     public boolean validateToken(String token) {
+        return authenticate(token).isPresent();
+    }
+    
+    private static String digest(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private record VerifiedToken(String username, long expiresAtMillis) {
+    }
+    
+    /**
+     * Keeps each verified token only until its own exp claim
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            long remainingMillis = token.expiresAtMillis() - System.currentTimeMillis();
+            return Math.max(0, remainingMillis) * 1_000_000L;
+        }
+        
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, token, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
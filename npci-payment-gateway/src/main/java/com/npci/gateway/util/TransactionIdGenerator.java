@@ -1,25 +1,117 @@
 package com.npci.gateway.util;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.UUID;
+import java.time.ZoneId;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 
+/**
+ * Builds transaction IDs as PREFIX + yyyyMMddHHmmss + 8 hex characters.
+ *
+ * The timestamp digits are formatted once per second and shared by all threads.
+ * The 8-character suffix is the node ID (2 hex chars) followed by a 24-bit counter
+ * (6 hex chars), so IDs from one node only repeat if more than 16.7 million are
+ * issued within the same second. The counter starts at a random value so a quick
+ * restart does not reuse the suffixes of the previous run.
+ *
+ * Each thread assembles its IDs in its own reused buffer, so an ID allocates only
+ * the returned String.
+ */
 @Component
 public class TransactionIdGenerator {
-    
+
+    private static final int TIMESTAMP_LENGTH = 14;
+    private static final int SUFFIX_LENGTH = 8;
+    private static final int MAX_NODE_ID = 0xFF;
+    private static final int MAX_PREFIX_LENGTH = 4;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final int nodeBits;
+    private final LongSupplier clock;
+    private final AtomicInteger counter = new AtomicInteger(ThreadLocalRandom.current().nextInt());
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ThreadLocal<char[]> buffer =
+            ThreadLocal.withInitial(() -> new char[MAX_PREFIX_LENGTH + TIMESTAMP_LENGTH + SUFFIX_LENGTH]);
+
+    private volatile SecondPrefix cachedPrefix = new SecondPrefix(Long.MIN_VALUE, new char[TIMESTAMP_LENGTH]);
+
+    @Autowired
+    public TransactionIdGenerator(@Value("${app.transaction-id.node-id:0}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    TransactionIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = nodeId << 24;
+        this.clock = clock;
+    }
+
     public String generateUpiTransactionId() {
-        return "UPI" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
-                + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return generate("UPI");
     }
-    
+
     public String generateImpsTransactionId() {
-        return "IMPS" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
-                + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return generate("IMPS");
     }
-    
+
     public String generateNeftTransactionId() {
-        return "NEFT" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
-                + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return generate("NEFT");
+    }
+
+    private String generate(String prefix) {
+        char[] timestamp = currentTimestamp();
+        int suffix = nodeBits | (counter.getAndIncrement() & 0xFFFFFF);
+
+        int prefixLength = prefix.length();
+        int length = prefixLength + TIMESTAMP_LENGTH + SUFFIX_LENGTH;
+        char[] buf = buffer.get();
+        prefix.getChars(0, prefixLength, buf, 0);
+        System.arraycopy(timestamp, 0, buf, prefixLength, TIMESTAMP_LENGTH);
+        for (int i = length - 1; i >= prefixLength + TIMESTAMP_LENGTH; i--) {
+            buf[i] = HEX[suffix & 0xF];
+            suffix >>>= 4;
+        }
+        return new String(buf, 0, length);
+    }
+
+    private char[] currentTimestamp() {
+        long epochSecond = clock.getAsLong() / 1000;
+        SecondPrefix prefix = cachedPrefix;
+        if (prefix.epochSecond != epochSecond) {
+            // Racing threads may both rebuild; they produce the same digits, so last write wins
+            prefix = new SecondPrefix(epochSecond, formatTimestamp(epochSecond));
+            cachedPrefix = prefix;
+        }
+        return prefix.digits;
+    }
+
+    private char[] formatTimestamp(long epochSecond) {
+        LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0,
+                zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond)));
+        char[] digits = new char[TIMESTAMP_LENGTH];
+        writeDigits(digits, 0, time.getYear(), 4);
+        writeDigits(digits, 4, time.getMonthValue(), 2);
+        writeDigits(digits, 6, time.getDayOfMonth(), 2);
+        writeDigits(digits, 8, time.getHour(), 2);
+        writeDigits(digits, 10, time.getMinute(), 2);
+        writeDigits(digits, 12, time.getSecond(), 2);
+        return digits;
+    }
+
+    private static void writeDigits(char[] buf, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private record SecondPrefix(long epochSecond, char[] digits) {
     }
 }
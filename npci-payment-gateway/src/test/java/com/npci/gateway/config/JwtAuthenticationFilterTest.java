@@ -0,0 +1,100 @@
+package com.npci.gateway.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jayway.jsonpath.JsonPath;
+import com.npci.gateway.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Bearer token handling on the payment endpoints with app.security.require-token=true, over a
+ * real port so the filter sees the same servlet paths as in production.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.security.require-token=true")
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    private static final String IMPS_TRANSFER =
+            "{\"fromAccount\":\"ACC000051\",\"toAccount\":\"ACC000052\",\"amount\":1,\"ifscCode\":\"NPCI0000001\"}";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Test
+    @DisplayName("A valid token should reach the endpoint")
+    void validTokenAccepted() throws Exception {
+        assertThat(validateUpiId("Bearer " + jwtUtil.generateToken("user51")).statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("A token with a bad signature should get 401")
+    void badTokenRejected() throws Exception {
+        String token = jwtUtil.generateToken("user51");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(validateUpiId("Bearer " + tampered).statusCode()).isEqualTo(401);
+        assertThat(validateUpiId("Bearer not-a-token").statusCode()).isEqualTo(401);
+    }
+
+    @Test
+    @DisplayName("An expired token should get 401")
+    void expiredTokenRejected() throws Exception {
+        JwtUtil expiredIssuer = new JwtUtil(secret, -60_000L, 10, new SimpleMeterRegistry());
+
+        assertThat(validateUpiId("Bearer " + expiredIssuer.generateToken("user51")).statusCode()).isEqualTo(401);
+    }
+
+    @Test
+    @DisplayName("Requests to /upi/** and /imps/** without a token should get 401")
+    void missingTokenRejected() throws Exception {
+        assertThat(validateUpiId(null).statusCode()).isEqualTo(401);
+        assertThat(validateUpiId("Basic dXNlcjpwYXNz").statusCode()).isEqualTo(401);
+        assertThat(post("/imps/transfer", "application/json", IMPS_TRANSFER, null).statusCode()).isEqualTo(401);
+    }
+
+    @Test
+    @DisplayName("Login should not need a token, and its token should be accepted")
+    void loginTokenAccepted() throws Exception {
+        HttpResponse<String> login = post("/auth/login", "application/json",
+                "{\"username\":\"testuser\",\"password\":\"password\"}", null);
+        assertThat(login.statusCode()).isEqualTo(200);
+        String token = JsonPath.read(login.body(), "$.data.token");
+
+        assertThat(validateUpiId("Bearer " + token).statusCode()).isEqualTo(200);
+    }
+
+    private HttpResponse<String> validateUpiId(String authorization) throws Exception {
+        return post("/upi/validate", "text/plain", "user51@upi", authorization);
+    }
+
+    private HttpResponse<String> post(String path, String contentType, String body, String authorization)
+            throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
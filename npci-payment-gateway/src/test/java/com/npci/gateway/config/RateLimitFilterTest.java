@@ -0,0 +1,127 @@
+package com.npci.gateway.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.npci.gateway.service.PaymentRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for RateLimitFilter: the body size cap, the per-payer limit and the replayed body.
+ */
+class RateLimitFilterTest {
+
+    private static final int MAX_BODY_BYTES = 1024;
+    private static final String PAYMENT = "{\"fromUpiId\":\"user1@upi\",\"toUpiId\":\"user2@upi\",\"amount\":1}";
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new PaymentRateLimiter(new SimpleMeterRegistry(), 1, 2, 1000, 1000, 1, 1000),
+            Jackson2ObjectMapperBuilder.json().build(), MAX_BODY_BYTES);
+
+    @Test
+    @DisplayName("A payment body should be passed on unchanged and readable asynchronously")
+    void bodyReplayedToController() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = filter(payment(PAYMENT), chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        ServletInputStream in = forwarded.getInputStream();
+        List<String> calls = new ArrayList<>();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("available:" + new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("all read");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+        assertThat(calls).containsExactly("available:" + PAYMENT, "all read");
+    }
+
+    @Test
+    @DisplayName("A body whose Content-Length is over the cap should get 413 without being read")
+    void declaredOversizedBodyRejected() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = filter(payment(PAYMENT, MAX_BODY_BYTES + 1), chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("A body without Content-Length should get 413 once it runs past the cap")
+    void chunkedOversizedBodyRejected() throws Exception {
+        String oversized = PAYMENT.replace("\"amount\":1", "\"remarks\":\"" + "x".repeat(MAX_BODY_BYTES) + "\",\"amount\":1");
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = filter(payment(oversized, -1), chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("A payer over its burst should get 429 with Retry-After")
+    void payerOverBurstLimited() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertThat(filter(payment(PAYMENT), new MockFilterChain()).getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse response = filter(payment(PAYMENT), new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        // Another payer is not affected
+        assertThat(filter(payment(PAYMENT.replace("user1@upi", "user3@upi")), new MockFilterChain()).getStatus())
+                .isEqualTo(200);
+    }
+
+    private MockHttpServletResponse filter(HttpServletRequest request, MockFilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest payment(String body) {
+        return payment(body, body.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * A payment request declaring the given Content-Length, or none if it is -1
+     */
+    private static MockHttpServletRequest payment(String body, long contentLength) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upi/payment") {
+            @Override
+            public long getContentLengthLong() {
+                return contentLength;
+            }
+        };
+        request.setServletPath("/upi/payment");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
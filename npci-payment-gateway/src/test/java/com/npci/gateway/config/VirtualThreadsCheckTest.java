@@ -0,0 +1,44 @@
+package com.npci.gateway.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+/**
+ * Unit tests for VirtualThreadsCheck.
+ */
+class VirtualThreadsCheckTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsCheck.class);
+
+    @Test
+    @DisplayName("Virtual threads requested on a JVM older than Java 21 should stop startup")
+    void olderJvmRejected() {
+        assertThatThrownBy(() -> VirtualThreadsCheck.check(17))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Java 21+")
+                .hasMessageContaining("Java 17");
+        assertThatCode(() -> VirtualThreadsCheck.check(21)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("The check should only run when virtual threads are requested")
+    void onlyActiveWhenRequested() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadsCheck.class));
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(VirtualThreadsCheck.class));
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> {
+                    if (Runtime.version().feature() >= VirtualThreadsCheck.MIN_JAVA_VERSION) {
+                        assertThat(context).hasSingleBean(VirtualThreadsCheck.class);
+                    } else {
+                        assertThat(context).hasFailed();
+                    }
+                });
+    }
+}
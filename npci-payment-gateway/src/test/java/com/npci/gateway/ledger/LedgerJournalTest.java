@@ -0,0 +1,133 @@
+package com.npci.gateway.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for LedgerJournal replay, including where a crash leaves a record torn.
+ */
+class LedgerJournalTest {
+
+    private static final int SIZE = 4096;
+    // 8-byte header, then type, sequence, paise, account number length and 9 characters
+    private static final int RECORD_BYTES = 8 + 1 + 8 + 8 + 2 + 9;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Replay should return every record in order and append after the last one")
+    void replayReturnsRecordsInOrder() throws IOException {
+        Path file = directory.resolve("journal.log");
+        try (LedgerJournal journal = new LedgerJournal(file, SIZE)) {
+            journal.append(LedgerJournal.OPEN, 1, "ACC000001", 10_000);
+            journal.append(LedgerJournal.DELTA, 2, "ACC000001", -2_500);
+        }
+        try (LedgerJournal journal = new LedgerJournal(file, SIZE)) {
+            assertThat(replay(journal)).containsExactly("1:OPEN:ACC000001:10000", "2:DELTA:ACC000001:-2500");
+            journal.append(LedgerJournal.DELTA, 3, "ACC000001", 100);
+        }
+        try (LedgerJournal journal = new LedgerJournal(file, SIZE)) {
+            assertThat(replay(journal)).hasSize(3).last().isEqualTo("3:DELTA:ACC000001:100");
+        }
+    }
+
+    @Test
+    @DisplayName("Replay should stop at a record whose checksum does not match")
+    void replayStopsAtBadChecksum() throws IOException {
+        Path file = threeRecords();
+        // Flip the last byte of the second record's account number
+        flipByte(file, 2 * RECORD_BYTES - 1);
+
+        try (LedgerJournal journal = new LedgerJournal(file, SIZE)) {
+            assertThat(replay(journal)).containsExactly("1:OPEN:ACC000001:10000");
+            // The next append overwrites the bad record, so the third one is gone for good
+            journal.append(LedgerJournal.DELTA, 4, "ACC000001", 7);
+        }
+        try (LedgerJournal journal = new LedgerJournal(file, SIZE)) {
+            assertThat(replay(journal)).containsExactly("1:OPEN:ACC000001:10000", "4:DELTA:ACC000001:7");
+        }
+    }
+
+    @Test
+    @DisplayName("Replay should stop at a torn record whose length runs past the journal")
+    void replayStopsAtTornRecord() throws IOException {
+        Path file = threeRecords();
+        // A length that was written but whose payload never was
+        writeInt(file, 2 * RECORD_BYTES, SIZE);
+
+        try (LedgerJournal journal = new LedgerJournal(file, SIZE)) {
+            assertThat(replay(journal)).containsExactly("1:OPEN:ACC000001:10000", "2:DELTA:ACC000001:-2500");
+        }
+    }
+
+    @Test
+    @DisplayName("Records left over from before a reset should not be replayed")
+    void replayStopsAtRecordsFromBeforeReset() throws IOException {
+        Path file = threeRecords();
+        try (LedgerJournal journal = new LedgerJournal(file, SIZE)) {
+            replay(journal);
+            journal.reset();
+            journal.append(LedgerJournal.DELTA, 4, "ACC000001", 7);
+        }
+
+        // Records 2 and 3 are still in the file after the new record, with older sequences
+        try (LedgerJournal journal = new LedgerJournal(file, SIZE)) {
+            assertThat(replay(journal)).containsExactly("4:DELTA:ACC000001:7");
+        }
+    }
+
+    @Test
+    @DisplayName("A journal should report no room once the next record would not fit")
+    void hasRoomUntilFull() throws IOException {
+        try (LedgerJournal journal = new LedgerJournal(directory.resolve("small.log"), 3 * RECORD_BYTES + 4)) {
+            for (int sequence = 1; sequence <= 3; sequence++) {
+                assertThat(journal.hasRoom("ACC000001")).isTrue();
+                journal.append(LedgerJournal.DELTA, sequence, "ACC000001", 1);
+            }
+            assertThat(journal.hasRoom("ACC000001")).isFalse();
+        }
+    }
+
+    private Path threeRecords() throws IOException {
+        Path file = directory.resolve("journal.log");
+        try (LedgerJournal journal = new LedgerJournal(file, SIZE)) {
+            journal.append(LedgerJournal.OPEN, 1, "ACC000001", 10_000);
+            journal.append(LedgerJournal.DELTA, 2, "ACC000001", -2_500);
+            journal.append(LedgerJournal.DELTA, 3, "ACC000001", 500);
+        }
+        return file;
+    }
+
+    private static List<String> replay(LedgerJournal journal) {
+        List<String> records = new ArrayList<>();
+        journal.replay((type, sequence, accountNumber, paise) -> records.add(
+                sequence + ":" + (type == LedgerJournal.OPEN ? "OPEN" : "DELTA") + ":" + accountNumber + ":" + paise));
+        return records;
+    }
+
+    private static void flipByte(Path file, int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 0x01)).rewind();
+            channel.write(b, position);
+        }
+    }
+
+    private static void writeInt(Path file, int position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), position);
+        }
+    }
+}
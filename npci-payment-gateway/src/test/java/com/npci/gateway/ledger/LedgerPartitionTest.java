@@ -0,0 +1,136 @@
+package com.npci.gateway.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.npci.gateway.exception.InsufficientBalanceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for LedgerPartition: journal rollover into snapshots, recovery after a crash, and
+ * commands withdrawn by their caller.
+ */
+class LedgerPartitionTest {
+
+    // Room for about a dozen records, so a few hundred changes roll the journal over many times
+    private static final int JOURNAL_BYTES = 512;
+    private static final long SNAPSHOT_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    @TempDir
+    Path directory;
+
+    private final List<LedgerPartition> started = new ArrayList<>();
+
+    @AfterEach
+    void stopPartitions() throws InterruptedException {
+        for (LedgerPartition partition : started) {
+            partition.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("A full journal should roll over into a snapshot, and a crash should recover snapshot plus journal")
+    void journalRolloverAndRecovery() throws Exception {
+        LedgerPartition partition = start();
+        Map<String, Long> expected = new HashMap<>();
+        for (int a = 1; a <= 3; a++) {
+            String account = "ACC00000" + a;
+            execute(partition, LedgerCommand.Type.OPEN, account, 100_000);
+            expected.put(account, 100_000L);
+        }
+        for (int i = 0; i < 301; i++) {
+            String account = "ACC00000" + (i % 3 + 1);
+            long paise = i % 2 == 0 ? 150 : -100;
+            execute(partition, paise > 0 ? LedgerCommand.Type.CREDIT : LedgerCommand.Type.DEBIT, account, Math.abs(paise));
+            expected.merge(account, paise, Long::sum);
+        }
+
+        // Only a full journal can have written a snapshot: the interval is an hour and nothing was stopped
+        assertThat(directory.resolve("snapshot-0.bin")).exists();
+
+        // Open the same files while the first partition is still running, as after a crash
+        LedgerPartition recovered = start();
+        for (Map.Entry<String, Long> account : expected.entrySet()) {
+            assertThat(execute(recovered, LedgerCommand.Type.BALANCE, account.getKey(), 0))
+                    .as("balance of %s", account.getKey())
+                    .isEqualTo(account.getValue());
+        }
+    }
+
+    @Test
+    @DisplayName("A clean stop should snapshot everything and leave the journal empty")
+    void stopWritesFinalSnapshot() throws Exception {
+        LedgerPartition partition = start();
+        execute(partition, LedgerCommand.Type.OPEN, "ACC000001", 5_000);
+        execute(partition, LedgerCommand.Type.DEBIT, "ACC000001", 1_234);
+        partition.stop();
+        started.remove(partition);
+
+        LedgerPartition restarted = start();
+
+        assertThat(execute(restarted, LedgerCommand.Type.BALANCE, "ACC000001", 0)).isEqualTo(3_766);
+        assertThat(Files.size(directory.resolve("snapshot-0.bin"))).isPositive();
+    }
+
+    @Test
+    @DisplayName("A debit beyond the balance should be refused and change nothing")
+    void debitBeyondBalanceRefused() throws Exception {
+        LedgerPartition partition = start();
+        execute(partition, LedgerCommand.Type.OPEN, "ACC000001", 1_000);
+
+        assertThatThrownBy(() -> execute(partition, LedgerCommand.Type.DEBIT, "ACC000001", 1_001))
+                .isInstanceOf(InsufficientBalanceException.class);
+        assertThat(execute(partition, LedgerCommand.Type.BALANCE, "ACC000001", 0)).isEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("A command withdrawn before the writer takes it should never be applied")
+    void withdrawnCommandSkipped() throws Exception {
+        LedgerPartition partition = start();
+        execute(partition, LedgerCommand.Type.OPEN, "ACC000001", 1_000);
+
+        LedgerCommand withdrawn = new LedgerCommand(LedgerCommand.Type.DEBIT, "ACC000001", 400);
+        assertThat(withdrawn.cancel()).isTrue();
+        partition.submit(withdrawn);
+
+        // Commands are applied in order, so the balance read is answered after the withdrawn debit
+        assertThat(execute(partition, LedgerCommand.Type.BALANCE, "ACC000001", 0)).isEqualTo(1_000);
+        assertThat(withdrawn.result).isNotDone();
+        // Once taken, a command can no longer be withdrawn
+        LedgerCommand taken = new LedgerCommand(LedgerCommand.Type.BALANCE, "ACC000001", 0);
+        assertThat(taken.take()).isTrue();
+        assertThat(taken.cancel()).isFalse();
+    }
+
+    private LedgerPartition start() throws IOException {
+        LedgerPartition partition = new LedgerPartition(0, directory, 8, JOURNAL_BYTES, false,
+                SNAPSHOT_INTERVAL_NANOS, new ConcurrentHashMap<>());
+        partition.start();
+        started.add(partition);
+        return partition;
+    }
+
+    private static long execute(LedgerPartition partition, LedgerCommand.Type type, String account, long paise)
+            throws Exception {
+        LedgerCommand command = new LedgerCommand(type, account, paise);
+        partition.submit(command);
+        try {
+            return command.result.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.npci.gateway.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for LedgerRing.
+ */
+class LedgerRingTest {
+
+    @Test
+    @DisplayName("Commands should come out in the order they were offered, across many laps")
+    void singleProducerOrderAcrossWraparound() {
+        LedgerRing ring = new LedgerRing(4);
+
+        for (long i = 0; i < 1000; i++) {
+            assertThat(ring.offer(command("P", i))).isTrue();
+            assertThat(ring.isEmpty()).isFalse();
+            assertThat(ring.poll().paise).isEqualTo(i);
+            assertThat(ring.isEmpty()).isTrue();
+        }
+        assertThat(ring.poll()).isNull();
+    }
+
+    @Test
+    @DisplayName("A full ring should refuse offers until the consumer frees a slot")
+    void fullRingRefusesOffers() {
+        LedgerRing ring = new LedgerRing(4);
+        for (long i = 0; i < 4; i++) {
+            assertThat(ring.offer(command("P", i))).isTrue();
+        }
+
+        assertThat(ring.offer(command("P", 4))).isFalse();
+        assertThat(ring.poll().paise).isZero();
+        assertThat(ring.offer(command("P", 4))).isTrue();
+
+        for (long i = 1; i <= 4; i++) {
+            assertThat(ring.poll().paise).isEqualTo(i);
+        }
+        assertThat(ring.poll()).isNull();
+    }
+
+    @Test
+    @DisplayName("Several producers on a small ring should lose, repeat and reorder nothing per producer")
+    void multipleProducersKeepPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        // Eight slots, so the ring wraps around tens of thousands of times
+        LedgerRing ring = new LedgerRing(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<?>> results = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String producer = "P" + p;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    LedgerCommand command = command(producer, i);
+                    while (!ring.offer(command)) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+
+        // This thread is the single consumer
+        Map<String, Long> next = new HashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        for (int received = 0; received < producers * perProducer; ) {
+            LedgerCommand command = ring.poll();
+            if (command == null) {
+                assertThat(System.nanoTime()).as("ring stopped delivering").isLessThan(deadline);
+                Thread.yield();
+                continue;
+            }
+            long expected = next.getOrDefault(command.accountNumber, 0L);
+            assertThat(command.paise).as("next command of %s", command.accountNumber).isEqualTo(expected);
+            next.put(command.accountNumber, expected + 1);
+            received++;
+        }
+        executor.shutdown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        assertThat(ring.poll()).isNull();
+        assertThat(next).hasSize(producers).allSatisfy((producer, count) -> assertThat(count).isEqualTo(perProducer));
+    }
+
+    @Test
+    @DisplayName("Ring sizes that are not a power of two should be rejected")
+    void sizeMustBePowerOfTwo() {
+        assertThatThrownBy(() -> new LedgerRing(6)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LedgerRing(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static LedgerCommand command(String producer, long index) {
+        return new LedgerCommand(LedgerCommand.Type.CREDIT, producer, index);
+    }
+}
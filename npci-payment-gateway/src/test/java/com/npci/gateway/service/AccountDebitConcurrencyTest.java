@@ -0,0 +1,149 @@
+package com.npci.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.npci.gateway.exception.InsufficientBalanceException;
+import com.npci.gateway.model.Account;
+import com.npci.gateway.repository.AccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stress test for the conditional debit: many threads debiting and transferring between a few
+ * low-balance accounts must never take a balance below zero, create or lose money.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountDebitConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Concurrent debits should stop exactly at a zero balance")
+    void concurrentDebitsStopAtZero() throws Exception {
+        String accountNumber = createAccount("STRESS-DEBIT", new BigDecimal("100.00"));
+        AtomicInteger debited = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(400, () -> {
+            try {
+                accountService.debitAccount(accountNumber, BigDecimal.ONE);
+                debited.incrementAndGet();
+            } catch (InsufficientBalanceException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(debited.get()).isEqualTo(100);
+        assertThat(rejected.get()).isEqualTo(300);
+        assertThat(balanceOf(accountNumber)).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Concurrent transfers should keep every balance at or above zero and conserve the total")
+    void concurrentTransfersConserveTotal() throws Exception {
+        List<String> accounts = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            accounts.add(createAccount("STRESS-XFER" + i, new BigDecimal("500.00")));
+        }
+        BigDecimal totalBefore = total(accounts);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(1000, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String from = accounts.get(random.nextInt(accounts.size()));
+            String to = accounts.get(random.nextInt(accounts.size()));
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 300));
+            try {
+                // Same shape as a payment: lock, debit and credit in one transaction. Any lock
+                // failure, e.g. a deadlock between opposite payments, fails the test in runConcurrently
+                transactionTemplate.executeWithoutResult(status -> {
+                    accountService.lockAccounts(from, to);
+                    accountService.debitAccount(from, amount);
+                    accountService.creditAccount(to, amount);
+                });
+                completed.incrementAndGet();
+            } catch (InsufficientBalanceException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(completed.get() + rejected.get()).isEqualTo(1000);
+        // Amounts up to 299 against balances of 500 must run some account short
+        assertThat(rejected.get()).isPositive();
+        for (String account : accounts) {
+            assertThat(balanceOf(account)).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        }
+        assertThat(total(accounts)).isEqualByComparingTo(totalBefore);
+    }
+
+    /**
+     * Run the task the given number of times across THREADS threads, all released at once
+     */
+    private static void runConcurrently(int times, Runnable task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Object>> results = new ArrayList<>();
+        Callable<Object> call = () -> {
+            start.await();
+            task.run();
+            return null;
+        };
+        for (int i = 0; i < times; i++) {
+            results.add(executor.submit(call));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        for (Future<Object> result : results) {
+            // Surfaces any unexpected exception, e.g. a lock timeout
+            result.get();
+        }
+    }
+
+    private String createAccount(String accountNumber, BigDecimal balance) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setAccountHolderName("Stress Test");
+        account.setBalance(balance);
+        account.setIfscCode("NPCI0000001");
+        account.setBankName("Test Bank");
+        account.setAccountType("SAVINGS");
+        account.setStatus("ACTIVE");
+        accountRepository.save(account);
+        return accountNumber;
+    }
+
+    private BigDecimal balanceOf(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+    }
+
+    private BigDecimal total(List<String> accounts) {
+        return accounts.stream().map(this::balanceOf).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
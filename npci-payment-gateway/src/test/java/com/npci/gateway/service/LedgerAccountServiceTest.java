@@ -0,0 +1,115 @@
+package com.npci.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.npci.gateway.exception.InsufficientBalanceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+
+/**
+ * AccountService with app.ledger.mode=memory: ledger changes follow the database transaction,
+ * reversed on rollback and kept when the outcome is unknown.
+ */
+@SpringBootTest(properties = "app.ledger.mode=memory")
+@ActiveProfiles("test")
+class LedgerAccountServiceTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("250.00");
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void ledgerDirectory(DynamicPropertyRegistry registry) {
+        try {
+            registry.add("app.ledger.directory", Files.createTempDirectory("ledger-test")::toString);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("A committed payment should keep its ledger debit and credit")
+    void committedChangesKept() {
+        BigDecimal from = accountService.getBalance("ACC000061");
+        BigDecimal to = accountService.getBalance("ACC000062");
+
+        transactionTemplate.executeWithoutResult(status -> pay("ACC000061", "ACC000062"));
+
+        assertThat(accountService.getBalance("ACC000061")).isEqualByComparingTo(from.subtract(AMOUNT));
+        assertThat(accountService.getBalance("ACC000062")).isEqualByComparingTo(to.add(AMOUNT));
+    }
+
+    @Test
+    @DisplayName("A payment that rolls back should have its ledger debit and credit reversed")
+    void rolledBackChangesReversed() {
+        BigDecimal from = accountService.getBalance("ACC000063");
+        BigDecimal to = accountService.getBalance("ACC000064");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            pay("ACC000063", "ACC000064");
+            status.setRollbackOnly();
+        });
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            pay("ACC000063", "ACC000064");
+            throw new IllegalStateException("Simulated failure after the ledger changed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(accountService.getBalance("ACC000063")).isEqualByComparingTo(from);
+        assertThat(accountService.getBalance("ACC000064")).isEqualByComparingTo(to);
+    }
+
+    @Test
+    @DisplayName("A refused debit should not be reversed when the payment rolls back")
+    void refusedDebitNotReversed() {
+        BigDecimal balance = accountService.getBalance("ACC000065");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThatThrownBy(() -> accountService.debitAccount("ACC000065", balance.add(BigDecimal.ONE)))
+                    .isInstanceOf(InsufficientBalanceException.class);
+            status.setRollbackOnly();
+        });
+
+        assertThat(accountService.getBalance("ACC000065")).isEqualByComparingTo(balance);
+    }
+
+    @Test
+    @DisplayName("A ledger change whose transaction outcome is unknown should be kept")
+    void unknownOutcomeKept() {
+        BigDecimal balance = accountService.getBalance("ACC000066");
+
+        // Collect the reversal AccountService registers, without a transaction manager to run it
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            accountService.debitAccount("ACC000066", AMOUNT);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_UNKNOWN);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(accountService.getBalance("ACC000066")).isEqualByComparingTo(balance.subtract(AMOUNT));
+    }
+
+    private void pay(String from, String to) {
+        accountService.debitAccount(from, AMOUNT);
+        accountService.creditAccount(to, AMOUNT);
+    }
+}
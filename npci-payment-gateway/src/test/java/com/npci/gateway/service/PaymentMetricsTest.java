@@ -0,0 +1,123 @@
+package com.npci.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.npci.gateway.dto.TransactionResponse;
+import com.npci.gateway.dto.UpiPaymentRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies that payment.outcomes counts a payment once, and only after its transaction commits.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentMetricsTest {
+
+    @Autowired
+    private PaymentMetrics paymentMetrics;
+
+    @Autowired
+    private UpiService upiService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("A committed payment should be counted once with its final status")
+    void committedPaymentCountedOnce() {
+        double success = outcomes("UPI", "SUCCESS", "none");
+        double rejected = outcomes("UPI", "REJECTED", "none");
+
+        upiService.initiatePayment(payment("user21@upi", "user22@upi"), null);
+
+        assertThat(outcomes("UPI", "SUCCESS", "none")).isEqualTo(success + 1);
+        assertThat(outcomes("UPI", "REJECTED", "none")).isEqualTo(rejected);
+    }
+
+    @Test
+    @DisplayName("An outcome should not be counted when the commit fails or the transaction rolls back")
+    void failedCommitNotCounted() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            paymentMetrics.timeCommit("TEST", "SUCCESS", null);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("Simulated failure at commit");
+                }
+            });
+        })).isInstanceOf(IllegalStateException.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            paymentMetrics.timeCommit("TEST", "SUCCESS", null);
+            status.setRollbackOnly();
+        });
+
+        assertThat(outcomes("TEST", "SUCCESS", "none")).isZero();
+
+        transactionTemplate.executeWithoutResult(status -> paymentMetrics.timeCommit("TEST", "SUCCESS", null));
+
+        assertThat(outcomes("TEST", "SUCCESS", "none")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Concurrent requests with one Idempotency-Key should count a single payment")
+    void duplicateIdempotencyKeyCountedOnce() throws Exception {
+        int threads = 8;
+        double success = outcomes("UPI", "SUCCESS", "none");
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<TransactionResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            responses.add(executor.submit(() -> {
+                start.await();
+                return upiService.initiatePayment(payment("user23@upi", "user24@upi"), "metrics-duplicate-key");
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        String transactionId = responses.get(0).get().getTransactionId();
+        for (Future<TransactionResponse> response : responses) {
+            assertThat(response.get().getTransactionId()).isEqualTo(transactionId);
+        }
+        assertThat(outcomes("UPI", "SUCCESS", "none")).isEqualTo(success + 1);
+    }
+
+    private double outcomes(String type, String status, String reason) {
+        Counter counter = meterRegistry.find("payment.outcomes")
+                .tags("type", type, "status", status, "reason", reason)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static UpiPaymentRequest payment(String from, String to) {
+        UpiPaymentRequest request = new UpiPaymentRequest();
+        request.setFromUpiId(from);
+        request.setToUpiId(to);
+        request.setAmount(BigDecimal.ONE);
+        return request;
+    }
+}
@@ -0,0 +1,204 @@
+package com.npci.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.npci.gateway.dto.TransactionResponse;
+import com.npci.gateway.dto.UpiPaymentRequest;
+import com.npci.gateway.model.Transaction;
+import com.npci.gateway.repository.AccountRepository;
+import com.npci.gateway.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Backpressure and permit accounting of the asynchronous settlement queue, with one worker and
+ * one queue slot so that two slow payments fill it.
+ */
+@SpringBootTest(properties = {
+        "app.async-payments.workers=1",
+        "app.async-payments.queue-capacity=1",
+        "app.simulation.delay.min=300",
+        "app.simulation.delay.max=400"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PaymentSettlementServiceTest {
+
+    private static final int CAPACITY = 2;
+
+    @Autowired
+    private PaymentSettlementService settlementService;
+
+    @Autowired
+    private UpiService upiService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private PaymentMetrics paymentMetrics;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void waitForIdleQueue() throws Exception {
+        awaitTrue(() -> permits(settlementService) == CAPACITY);
+    }
+
+    @Test
+    @DisplayName("An accepted payment should hold a permit until it is settled")
+    void acceptedPaymentHoldsPermitUntilSettled() throws Exception {
+        TransactionResponse response = upiService.acceptPayment(payment("user41@upi", "user42@upi"), null);
+
+        assertThat(response.getStatus()).isEqualTo("PROCESSING");
+        assertThat(permits(settlementService)).isEqualTo(CAPACITY - 1);
+
+        awaitTrue(() -> "SUCCESS".equals(statusOf(response.getTransactionId())));
+        awaitTrue(() -> permits(settlementService) == CAPACITY);
+    }
+
+    @Test
+    @DisplayName("An accept that rolls back should give its permit back and queue nothing")
+    void rolledBackAcceptReturnsPermit() {
+        long transactions = transactionRepository.count();
+
+        assertThatThrownBy(() -> settlementService.accept(() -> {
+            throw new IllegalStateException("Simulated failure while building the transaction");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(permits(settlementService)).isEqualTo(CAPACITY);
+        assertThat(transactionRepository.count()).isEqualTo(transactions);
+    }
+
+    @Test
+    @DisplayName("A payment beyond workers + queue-capacity should get 503 with Retry-After and save nothing")
+    void fullQueueReturns503WithRetryAfter() throws Exception {
+        double rejected = meterRegistry.get("payment.settlement.rejected").counter().count();
+        long transactions = transactionRepository.count();
+
+        for (int i = 0; i < CAPACITY; i++) {
+            postAsyncPayment().andExpect(status().isAccepted());
+        }
+        assertThat(permits(settlementService)).isZero();
+
+        postAsyncPayment()
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        assertThat(meterRegistry.get("payment.settlement.rejected").counter().count()).isEqualTo(rejected + 1);
+        assertThat(transactionRepository.count()).isEqualTo(transactions + CAPACITY);
+        awaitTrue(() -> permits(settlementService) == CAPACITY);
+    }
+
+    @Test
+    @DisplayName("A payment committed after shutdown should release its permit and be settled by the next start")
+    void paymentAcceptedAfterShutdownIsRecovered() throws Exception {
+        PaymentSettlementService stopped = new PaymentSettlementService(transactionRepository, accountService,
+                transactionTemplate, paymentMetrics, new SimpleMeterRegistry(), 1, 1);
+        stopped.shutdown();
+
+        TransactionResponse response = stopped.accept(() -> newTransaction("ACC000045", "ACC000046"));
+
+        // The executor refused it: the permit is back and the row waits for recovery
+        assertThat(permits(stopped)).isEqualTo(CAPACITY);
+        assertThat(statusOf(response.getTransactionId())).isEqualTo("PROCESSING");
+
+        settlementService.recoverProcessing();
+
+        awaitTrue(() -> "SUCCESS".equals(statusOf(response.getTransactionId())));
+        awaitTrue(() -> permits(settlementService) == CAPACITY);
+    }
+
+    @Test
+    @DisplayName("A payment queued twice should be debited and credited once")
+    void paymentQueuedTwiceIsSettledOnce() throws Exception {
+        PaymentSettlementService stopped = new PaymentSettlementService(transactionRepository, accountService,
+                transactionTemplate, paymentMetrics, new SimpleMeterRegistry(), 1, 1);
+        stopped.shutdown();
+        TransactionResponse response = stopped.accept(() -> newTransaction("ACC000047", "ACC000048"));
+        BigDecimal fromBefore = accountService.getBalance("ACC000047");
+        BigDecimal toBefore = accountService.getBalance("ACC000048");
+
+        // As when a payment accepted during startup is queued by its own commit and by recovery
+        settlementService.recoverProcessing();
+        settlementService.recoverProcessing();
+
+        awaitTrue(() -> "SUCCESS".equals(statusOf(response.getTransactionId())));
+        awaitTrue(() -> permits(settlementService) == CAPACITY);
+        assertThat(accountService.getBalance("ACC000047")).isEqualByComparingTo(fromBefore.subtract(BigDecimal.ONE));
+        assertThat(accountService.getBalance("ACC000048")).isEqualByComparingTo(toBefore.add(BigDecimal.ONE));
+    }
+
+    private ResultActions postAsyncPayment() throws Exception {
+        return mockMvc.perform(post("/upi/payment")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromUpiId\":\"user43@upi\",\"toUpiId\":\"user44@upi\",\"amount\":1}"));
+    }
+
+    private Transaction newTransaction(String from, String to) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("UPITEST" + System.nanoTime());
+        transaction.setTransactionType("UPI");
+        transaction.setFromAccount(accountRepository.findByAccountNumber(from).orElseThrow());
+        transaction.setToAccount(accountRepository.findByAccountNumber(to).orElseThrow());
+        transaction.setAmount(BigDecimal.ONE);
+        return transaction;
+    }
+
+    private String statusOf(String transactionId) {
+        return transactionRepository.findByTransactionId(transactionId).orElseThrow().getStatus();
+    }
+
+    private static int permits(PaymentSettlementService service) {
+        return ((Semaphore) ReflectionTestUtils.getField(service, "capacity")).availablePermits();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within 10s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static UpiPaymentRequest payment(String from, String to) {
+        UpiPaymentRequest request = new UpiPaymentRequest();
+        request.setFromUpiId(from);
+        request.setToUpiId(to);
+        request.setAmount(BigDecimal.ONE);
+        return request;
+    }
+}
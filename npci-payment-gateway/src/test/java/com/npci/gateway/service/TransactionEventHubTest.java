@@ -0,0 +1,277 @@
+package com.npci.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jayway.jsonpath.JsonPath;
+import com.npci.gateway.dto.TransactionEvent;
+import com.npci.gateway.model.Transaction;
+import com.npci.gateway.repository.AccountRepository;
+import com.npci.gateway.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Server-Sent Events from TransactionEventHub, read over a real port. The hub has one sender
+ * thread, which a test can hold busy so that events pile up in a subscriber's buffer.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.transaction-events.sender-threads=1",
+        "app.transaction-events.buffer-size=2"
+})
+@ActiveProfiles("test")
+class TransactionEventHubTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TransactionEventHub transactionEventHub;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor sender;
+    private CountDownLatch senderBlocked;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sender = (ThreadPoolExecutor) ReflectionTestUtils.getField(transactionEventHub, "sender");
+        awaitTrue(() -> subscribers() == 0);
+    }
+
+    @AfterEach
+    void releaseSender() {
+        if (senderBlocked != null) {
+            senderBlocked.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Every subscriber to a transaction should get its events, and the streams end with the final status")
+    void fanOutToEverySubscriber() throws Exception {
+        String transactionId = processingTransaction();
+
+        List<EventStream> streams = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            streams.add(subscribe(transactionId));
+        }
+        for (EventStream stream : streams) {
+            awaitTrue(() -> stream.events.contains("status:PROCESSING"));
+        }
+        assertThat(subscribers()).isEqualTo(3);
+
+        updateStatus(transactionId, "SUCCESS");
+
+        for (EventStream stream : streams) {
+            assertThat(stream.ended.await(10, TimeUnit.SECONDS)).as("stream ended").isTrue();
+            assertThat(stream.events).containsExactly("status:PROCESSING", "status:SUCCESS");
+        }
+        assertThat(subscribers()).isZero();
+    }
+
+    @Test
+    @DisplayName("A subscriber that falls behind its buffer should get an overflow event and be dropped")
+    void overflowClosesSubscriber() throws Exception {
+        String transactionId = processingTransaction();
+        double overflows = meterRegistry.get("transaction.events.overflows").counter().count();
+        blockSender();
+
+        EventStream stream = subscribe(transactionId);
+        // The drain queued behind the blocked sender means the initial status is buffered
+        awaitTrue(() -> sender.getQueue().size() == 1);
+
+        // The buffer holds buffer-size events on top of the initial status
+        for (int i = 0; i < 3; i++) {
+            transactionEventHub.publish(event(transactionId, i % 2 == 0 ? "PENDING" : "PROCESSING"));
+        }
+        senderBlocked.countDown();
+
+        assertThat(stream.ended.await(10, TimeUnit.SECONDS)).as("stream ended").isTrue();
+        assertThat(stream.events).containsExactly("overflow");
+        assertThat(meterRegistry.get("transaction.events.overflows").counter().count()).isEqualTo(overflows + 1);
+        awaitTrue(() -> subscribers() == 0);
+
+        // Unregistered: later events for the transaction reach nobody
+        transactionEventHub.publish(event(transactionId, "SUCCESS"));
+        assertThat(stream.events).containsExactly("overflow");
+    }
+
+    @Test
+    @DisplayName("A status delivered by both the initial read and a concurrent publish should be sent once")
+    void initialReadAndPublishDeduplicated() throws Exception {
+        String transactionId = processingTransaction();
+        blockSender();
+
+        EventStream stream = subscribe(transactionId);
+        awaitTrue(() -> sender.getQueue().size() == 1);
+
+        // The same status again, as when a commit lands between registration and the initial read
+        transactionEventHub.publish(event(transactionId, "PROCESSING"));
+        updateStatus(transactionId, "FAILED");
+        senderBlocked.countDown();
+
+        assertThat(stream.ended.await(10, TimeUnit.SECONDS)).as("stream ended").isTrue();
+        assertThat(stream.events).containsExactly("status:PROCESSING", "status:FAILED");
+        awaitTrue(() -> subscribers() == 0);
+    }
+
+    @Test
+    @DisplayName("A stream over several transactions should end only after the last one is final")
+    void streamEndsAfterLastFinalStatus() throws Exception {
+        String first = processingTransaction();
+        String second = processingTransaction();
+
+        EventStream stream = open("/api/transactions/events?ids=" + first + "," + second);
+        awaitTrue(() -> stream.events.size() == 2);
+
+        updateStatus(first, "SUCCESS");
+        awaitTrue(() -> stream.events.size() == 3);
+        assertThat(stream.ended.getCount()).as("stream still open").isEqualTo(1);
+        assertThat(subscribers()).isEqualTo(1);
+
+        updateStatus(second, "FAILED");
+
+        assertThat(stream.ended.await(10, TimeUnit.SECONDS)).as("stream ended").isTrue();
+        assertThat(stream.events).containsExactly(
+                "status:PROCESSING", "status:PROCESSING", "status:SUCCESS", "status:FAILED");
+        awaitTrue(() -> subscribers() == 0);
+    }
+
+    @Test
+    @DisplayName("A subscription to no or too many transactions should get 400")
+    void invalidSubscriptionIsBadRequest() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i <= 50; i++) {
+            ids.add("TXN" + i);
+        }
+
+        for (String query : List.of(String.join(",", ids), "")) {
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/api/transactions/events?ids=" + query))
+                    .header("Accept", "text/event-stream, application/json")
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertThat(response.statusCode()).as("ids=%s", query).isEqualTo(400);
+        }
+        assertThat(subscribers()).isZero();
+    }
+
+    private String processingTransaction() {
+        return transactionTemplate.execute(status -> {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId("UPIEVENTS" + System.nanoTime());
+            transaction.setTransactionType("UPI");
+            transaction.setFromAccount(accountRepository.findByAccountNumber("ACC000071").orElseThrow());
+            transaction.setToAccount(accountRepository.findByAccountNumber("ACC000072").orElseThrow());
+            transaction.setAmount(BigDecimal.ONE);
+            transaction.setStatus("PROCESSING");
+            return transactionRepository.save(transaction).getTransactionId();
+        });
+    }
+
+    /**
+     * Change the status in its own transaction, so the entity listener publishes it on commit
+     */
+    private void updateStatus(String transactionId, String status) {
+        transactionTemplate.executeWithoutResult(tx ->
+                transactionRepository.findByTransactionId(transactionId).orElseThrow().setStatus(status));
+    }
+
+    private void blockSender() throws Exception {
+        senderBlocked = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        sender.execute(() -> {
+            running.countDown();
+            try {
+                senderBlocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static TransactionEvent event(String transactionId, String status) {
+        return new TransactionEvent(transactionId, "UPI", status, null, LocalDateTime.now());
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("transaction.events.subscribers").gauge().value();
+    }
+
+    private EventStream subscribe(String transactionId) {
+        return open("/api/transactions/" + transactionId + "/events");
+    }
+
+    /**
+     * Read a stream in the background, recording each event as "status:<status>" or its name
+     */
+    private EventStream open(String path) {
+        EventStream stream = new EventStream();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", "text/event-stream")
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                .thenAccept(response -> {
+                    String[] name = {null};
+                    response.body().forEach(line -> {
+                        if (line.startsWith("event:")) {
+                            name[0] = line.substring("event:".length());
+                        } else if (line.startsWith("data:")) {
+                            stream.events.add("status".equals(name[0])
+                                    ? "status:" + JsonPath.read(line.substring("data:".length()), "$.status")
+                                    : name[0]);
+                        }
+                    });
+                })
+                .whenComplete((result, error) -> stream.ended.countDown());
+        return stream;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within 10s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static final class EventStream {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch ended = new CountDownLatch(1);
+    }
+}
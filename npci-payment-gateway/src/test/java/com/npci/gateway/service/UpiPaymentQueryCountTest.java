@@ -0,0 +1,78 @@
+package com.npci.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.npci.gateway.dto.TransactionResponse;
+import com.npci.gateway.dto.UpiPaymentRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+
+/**
+ * Verifies that a UPI payment with cached VPAs never loads an account: the debit and credit are
+ * UPDATEs by account number and the response takes the numbers from the resolved VPAs.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UpiPaymentQueryCountTest {
+
+    @Autowired
+    private UpiService upiService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        // Resolve both VPAs once so the measured payment is served from the cache
+        upiService.validateUpiId("user11@upi");
+        upiService.validateUpiId("user12@upi");
+    }
+
+    @Test
+    @DisplayName("A synchronous UPI payment should not SELECT either account")
+    void synchronousPaymentLoadsNoAccount() {
+        statistics.clear();
+
+        TransactionResponse response = upiService.initiatePayment(payment(), null);
+
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        assertThat(response.getFromAccount()).isEqualTo("ACC000011");
+        assertThat(response.getToAccount()).isEqualTo("ACC000012");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Accepting an asynchronous UPI payment should not SELECT either account")
+    void acceptedPaymentLoadsNoAccount() {
+        statistics.clear();
+
+        TransactionResponse response = upiService.acceptPayment(payment(), null);
+
+        assertThat(response.getStatus()).isEqualTo("PROCESSING");
+        assertThat(response.getFromAccount()).isEqualTo("ACC000011");
+        assertThat(response.getToAccount()).isEqualTo("ACC000012");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private static UpiPaymentRequest payment() {
+        UpiPaymentRequest request = new UpiPaymentRequest();
+        request.setFromUpiId("user11@upi");
+        request.setToUpiId("user12@upi");
+        request.setAmount(BigDecimal.ONE);
+        request.setRemarks("Query count test");
+        return request;
+    }
+}
@@ -0,0 +1,70 @@
+package com.npci.gateway.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for JwtUtil token verification and its verified-token cache.
+ */
+class JwtUtilTest {
+
+    private static final String SECRET = "TestSecretKeyForJwtUtilTestWhichMustBeAtLeastSixtyFourBytesLongForHS512";
+    private static final String OTHER_SECRET = "AnotherSecretKeyForJwtUtilTestWhichMustAlsoBeAtLeastSixtyFourBytesLong";
+
+    @Test
+    @DisplayName("A token issued with the same key should authenticate as its subject")
+    void validTokenAuthenticates() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 60_000);
+        String token = jwtUtil.generateToken("alice");
+
+        assertThat(jwtUtil.authenticate(token)).contains("alice");
+        // The second call is served from the cache and must agree
+        assertThat(jwtUtil.authenticate(token)).contains("alice");
+    }
+
+    @Test
+    @DisplayName("Tampered, foreign-key, malformed and blank tokens should be rejected")
+    void badTokensRejected() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 60_000);
+        String token = jwtUtil.generateToken("alice");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(jwtUtil.authenticate(tampered)).isEmpty();
+        assertThat(jwtUtil.authenticate(jwtUtil(OTHER_SECRET, 60_000).generateToken("alice"))).isEmpty();
+        assertThat(jwtUtil.authenticate("not.a.token")).isEmpty();
+        assertThat(jwtUtil.authenticate(" ")).isEmpty();
+        assertThat(jwtUtil.authenticate(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("An already expired token should be rejected")
+    void expiredTokenRejected() {
+        JwtUtil issuer = jwtUtil(SECRET, -60_000);
+
+        assertThat(jwtUtil(SECRET, 60_000).authenticate(issuer.generateToken("alice"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A cached token should stop authenticating once its exp has passed")
+    void cachedTokenDoesNotOutliveExpiry() throws Exception {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 1_500);
+        String token = jwtUtil.generateToken("alice");
+
+        // exp has whole-second precision, so it falls 0.5 to 1.5 seconds from now
+        assertThat(jwtUtil.authenticate(token)).contains("alice");
+
+        long deadline = System.currentTimeMillis() + 3_000;
+        while (jwtUtil.authenticate(token).isPresent()) {
+            assertThat(System.currentTimeMillis()).as("token still accepted after its exp").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+        assertThat(jwtUtil.authenticate(token)).isEmpty();
+    }
+
+    private static JwtUtil jwtUtil(String secret, long expirationMillis) {
+        return new JwtUtil(secret, expirationMillis, 1000, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,97 @@
+package com.npci.gateway.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Token verifications per second through JwtUtil.authenticate, whose verified-token cache turns a
+ * repeat token into one SHA-256, against the per-request key, parser and signature check it
+ * replaced, at 1, 8 and 64 threads. Not part of the regular build; run it explicitly:
+ *
+ *   mvn test -Dtest=JwtVerificationBenchmark
+ *
+ * Each run is a warm-up followed by a timed second per thread count, so treat the
+ * printed numbers as a rough comparison rather than a JMH measurement.
+ */
+class JwtVerificationBenchmark {
+
+    private static final String SECRET = "BenchmarkSecretKeyForJwtVerificationWhichMustBeAtLeastSixtyFourBytesLong";
+    private static final int[] THREAD_COUNTS = {1, 8, 64};
+    private static final long WARMUP_MILLIS = 1000;
+    private static final long MEASURE_MILLIS = 1000;
+
+    // Keeps the verified subjects observable so the JIT cannot drop the calls
+    private static final LongAdder characters = new LongAdder();
+
+    @Test
+    @DisplayName("Token verifications per second, cached vs full signature check")
+    void compareVerification() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000L, 10_000, new SimpleMeterRegistry());
+        String token = jwtUtil.generateToken("benchmark-user");
+
+        System.out.println("\n=== JWT verification throughput ===");
+        System.out.printf("%-8s %18s %18s%n", "Threads", "Cached verif/s", "Uncached verif/s");
+        for (int threads : THREAD_COUNTS) {
+            double cached = measure(threads, token, t -> jwtUtil.authenticate(t).orElseThrow().length());
+            double uncached = measure(threads, token, JwtVerificationBenchmark::parseEveryTime);
+            System.out.printf("%-8d %18.0f %18.0f%n", threads, cached, uncached);
+        }
+        System.out.println("===================================\n");
+    }
+
+    /**
+     * The verification before user-021: a new key and parser, and a full parse, per request
+     */
+    private static int parseEveryTime(String token) {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return claims.getSubject().length();
+    }
+
+    private static double measure(int threads, String token, ToIntFunction<String> verify) throws Exception {
+        run(threads, token, verify, WARMUP_MILLIS);
+        return run(threads, token, verify, MEASURE_MILLIS) * 1000.0 / MEASURE_MILLIS;
+    }
+
+    private static long run(int threads, String token, ToIntFunction<String> verify, long millis) throws Exception {
+        LongAdder count = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                long verified = 0;
+                long length = 0;
+                while (System.nanoTime() < deadline[0]) {
+                    for (int i = 0; i < 16; i++) {
+                        length += verify.applyAsInt(token);
+                    }
+                    verified += 16;
+                }
+                count.add(verified);
+                characters.add(length);
+                return null;
+            });
+        }
+        deadline[0] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return count.sum();
+    }
+}
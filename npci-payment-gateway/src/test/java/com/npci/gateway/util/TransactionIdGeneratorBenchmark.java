@@ -0,0 +1,122 @@
+package com.npci.gateway.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of TransactionIdGenerator against the UUID-based generator it replaced,
+ * at 1, 8 and 64 threads. Not part of the regular build; run it explicitly:
+ *
+ *   mvn test -Dtest=TransactionIdGeneratorBenchmark
+ *
+ * Each run is a warm-up followed by a timed second per thread count, so treat the
+ * printed numbers as a rough comparison rather than a JMH measurement. It fails if the
+ * generator is not faster than the UUID-based one at every thread count, or if an ID
+ * allocates more than the returned String.
+ */
+class TransactionIdGeneratorBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 8, 64};
+    private static final long WARMUP_MILLIS = 1000;
+    private static final long MEASURE_MILLIS = 1000;
+    private static final int ALLOCATION_SAMPLE = 100_000;
+    // A 25-character Latin-1 String: 24-byte String object plus a 48-byte byte[] with padding
+    private static final long MAX_BYTES_PER_ID = 72;
+
+    // Keeps the generated IDs observable so the JIT cannot drop the calls
+    private static final LongAdder characters = new LongAdder();
+
+    @Test
+    @DisplayName("Transaction IDs per second, counter-based vs UUID-based")
+    void compareGenerators() throws Exception {
+        TransactionIdGenerator generator = new TransactionIdGenerator(0);
+
+        System.out.println("\n=== Transaction ID throughput ===");
+        System.out.printf("%-8s %15s %15s%n", "Threads", "Current ids/s", "UUID ids/s");
+        for (int threads : THREAD_COUNTS) {
+            double current = measure(threads, generator::generateUpiTransactionId);
+            double uuid = measure(threads, TransactionIdGeneratorBenchmark::uuidTransactionId);
+            System.out.printf("%-8d %15.0f %15.0f%n", threads, current, uuid);
+
+            assertThat(current).as("IDs per second at %d threads", threads).isGreaterThan(uuid);
+        }
+        double currentBytes = bytesPerId(generator::generateUpiTransactionId);
+        double uuidBytes = bytesPerId(TransactionIdGeneratorBenchmark::uuidTransactionId);
+        System.out.printf("%-8s %15.1f %15.1f%n", "Bytes/id", currentBytes, uuidBytes);
+        System.out.println("=================================\n");
+
+        assertThat(currentBytes).as("bytes allocated per ID").isLessThanOrEqualTo(MAX_BYTES_PER_ID);
+    }
+
+    /**
+     * Heap allocated by this thread per ID, after a warm-up so the JIT has compiled the generator
+     */
+    private static double bytesPerId(Supplier<String> ids) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long length = 0;
+        for (int i = 0; i < ALLOCATION_SAMPLE; i++) {
+            length += ids.get().length();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ALLOCATION_SAMPLE; i++) {
+            length += ids.get().length();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        characters.add(length);
+        return (double) allocated / ALLOCATION_SAMPLE;
+    }
+
+    /**
+     * The generator before user-005: a new formatter and a random UUID per ID
+     */
+    private static String uuidTransactionId() {
+        return "UPI" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    private static double measure(int threads, Supplier<String> ids) throws Exception {
+        run(threads, ids, WARMUP_MILLIS);
+        return run(threads, ids, MEASURE_MILLIS) * 1000.0 / MEASURE_MILLIS;
+    }
+
+    private static long run(int threads, Supplier<String> ids, long millis) throws Exception {
+        LongAdder count = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                long generated = 0;
+                long length = 0;
+                while (System.nanoTime() < deadline[0]) {
+                    for (int i = 0; i < 256; i++) {
+                        length += ids.get().length();
+                    }
+                    generated += 256;
+                }
+                count.add(generated);
+                characters.add(length);
+                return null;
+            });
+        }
+        deadline[0] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return count.sum();
+    }
+}
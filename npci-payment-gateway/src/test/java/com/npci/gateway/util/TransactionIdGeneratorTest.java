@@ -0,0 +1,128 @@
+package com.npci.gateway.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Unit tests for TransactionIdGenerator.
+ */
+class TransactionIdGeneratorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 12, 11, 12, 34, 56);
+
+    @Test
+    @DisplayName("IDs should keep the PREFIX + yyyyMMddHHmmss + 8 hex characters format")
+    void idFormatMatchesPreviousGenerator() {
+        TransactionIdGenerator generator = new TransactionIdGenerator(0, clockAt(NOW));
+
+        assertThat(generator.generateUpiTransactionId()).hasSize(25).matches("UPI20241211123456[0-9A-F]{8}");
+        assertThat(generator.generateImpsTransactionId()).hasSize(26).matches("IMPS20241211123456[0-9A-F]{8}");
+        assertThat(generator.generateNeftTransactionId()).hasSize(26).matches("NEFT20241211123456[0-9A-F]{8}");
+    }
+
+    @Test
+    @DisplayName("IDs generated concurrently by many threads should all be unique")
+    void concurrentIdsAreUnique() throws Exception {
+        int threads = 16;
+        int idsPerThread = 50_000;
+        TransactionIdGenerator generator = new TransactionIdGenerator(3);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < idsPerThread; i++) {
+                    // Compare the suffix only, so IDs straddling a second boundary cannot hide a repeat
+                    String id = generator.generateUpiTransactionId();
+                    ids.add(id.substring(id.length() - 8));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(ids).hasSize(threads * idsPerThread);
+    }
+
+    @Test
+    @DisplayName("The first two suffix characters should be the node ID")
+    void suffixStartsWithNodeId() {
+        for (int nodeId : new int[] {0, 0x1F, 0xA5, 0xFF}) {
+            TransactionIdGenerator generator = new TransactionIdGenerator(nodeId, clockAt(NOW));
+
+            for (int i = 0; i < 1000; i++) {
+                String id = generator.generateImpsTransactionId();
+                assertThat(id.substring(18, 20)).isEqualTo(String.format("%02X", nodeId));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Different nodes should never produce the same ID for the same second")
+    void nodesProduceDistinctIds() {
+        TransactionIdGenerator node1 = new TransactionIdGenerator(1, clockAt(NOW));
+        TransactionIdGenerator node2 = new TransactionIdGenerator(2, clockAt(NOW));
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(ids.add(node1.generateUpiTransactionId())).isTrue();
+            assertThat(ids.add(node2.generateUpiTransactionId())).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("The timestamp digits should follow the clock across second, minute and day boundaries")
+    void timestampRollsOverWithClock() {
+        AtomicLong clock = new AtomicLong(epochMillis(LocalDateTime.of(2024, 12, 31, 23, 59, 58)));
+        TransactionIdGenerator generator = new TransactionIdGenerator(0, clock::get);
+
+        assertThat(timestampOf(generator.generateUpiTransactionId())).isEqualTo("20241231235958");
+        clock.addAndGet(999);
+        assertThat(timestampOf(generator.generateUpiTransactionId())).isEqualTo("20241231235958");
+        clock.addAndGet(1);
+        assertThat(timestampOf(generator.generateUpiTransactionId())).isEqualTo("20241231235959");
+        clock.addAndGet(1000);
+        assertThat(timestampOf(generator.generateUpiTransactionId())).isEqualTo("20250101000000");
+
+        // A clock that steps back is formatted again rather than keeping the newer digits
+        clock.addAndGet(-2000);
+        assertThat(timestampOf(generator.generateUpiTransactionId())).isEqualTo("20241231235958");
+    }
+
+    @Test
+    @DisplayName("Node IDs outside 0-255 should be rejected")
+    void invalidNodeIdRejected() {
+        assertThatThrownBy(() -> new TransactionIdGenerator(256)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TransactionIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String timestampOf(String upiId) {
+        return upiId.substring(3, 17);
+    }
+
+    private static LongSupplier clockAt(LocalDateTime time) {
+        long millis = epochMillis(time);
+        return () -> millis;
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,102 @@
+package com.npci.tests.performance;
+
+import com.npci.tests.utils.TestConfig;
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+import us.abstracta.jmeter.javadsl.core.stats.StatsSummary;
+import us.abstracta.jmeter.javadsl.core.timers.DslThroughputTimer.ThroughputMode;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+/**
+ * Floods the gateway with UPI payments from a single VPA while other users pay at a normal rate,
+ * and reports the latency those well-behaved users see.
+ *
+ * The flood is offered at a fixed rate, -Dflood.rps requests per second (default 200), whether
+ * the gateway answers it with fast 429s or with real payments, so both runs get the same load.
+ * Its -Dthreads must be enough to sustain that rate against the unprotected gateway; compare the
+ * achieved flood rate printed by both runs, and lower flood.rps or raise threads if they differ.
+ *
+ * Run it once against a gateway started with --app.rate-limit.enabled=true, where the flood is
+ * answered 429 before it reaches the database, and once against a gateway started normally,
+ * then compare the printed p99 of "Well-behaved payment":
+ *
+ *   mvn test -Dtest=RateLimitFloodTest -Dthreads=50 -Dduration=60 -Drate.limit=on
+ *   mvn test -Dtest=RateLimitFloodTest -Dthreads=50 -Dduration=60 -Drate.limit=off
+ *
+ * With rate.limit=on the test fails if that p99 exceeds -Dp99.max (milliseconds, default
+ * TestConfig.MAX_RESPONSE_TIME_MS); the off run is the unprotected baseline and only reports it.
+ */
+public class RateLimitFloodTest {
+
+    private static final String RATE_LIMIT = System.getProperty("rate.limit", "on");
+    private static final int FLOOD_RPS = Integer.parseInt(System.getProperty("flood.rps", "200"));
+    private static final String FLOOD_LABEL = "Flood payment";
+    private static final String WELL_BEHAVED_LABEL = "Well-behaved payment";
+    private static final long MAX_WELL_BEHAVED_P99_MS =
+            Long.parseLong(System.getProperty("p99.max", String.valueOf(TestConfig.MAX_RESPONSE_TIME_MS)));
+
+    @Test
+    @DisplayName("Well-behaved payers keep their latency while one VPA floods the gateway")
+    public void testWellBehavedPayersDuringFlood() throws Exception {
+        TestConfig.printConfig();
+
+        TestPlanStats stats = testPlan(
+                threadGroup("Flood")
+                        .rampToAndHold(TestConfig.DEFAULT_THREADS,
+                                Duration.ofSeconds(TestConfig.DEFAULT_RAMPUP),
+                                Duration.ofSeconds(TestConfig.DEFAULT_DURATION))
+                        .children(
+                                httpSampler(FLOOD_LABEL, TestConfig.FULL_URL + "/upi/payment")
+                                        .post(payment("user1@upi"), ContentType.APPLICATION_JSON),
+                                throughputTimer(FLOOD_RPS * 60.0)
+                                        .calculation(ThroughputMode.THREAD_GROUP_ACCURATE)
+                        ),
+                // Each thread pays from a random VPA every second, far below the per-VPA limit
+                threadGroup("Well-behaved")
+                        .rampToAndHold(TestConfig.DEFAULT_THREADS,
+                                Duration.ofSeconds(TestConfig.DEFAULT_RAMPUP),
+                                Duration.ofSeconds(TestConfig.DEFAULT_DURATION))
+                        .children(
+                                httpSampler(WELL_BEHAVED_LABEL, TestConfig.FULL_URL + "/upi/payment")
+                                        .post(payment("user${__Random(2,50)}@upi"), ContentType.APPLICATION_JSON),
+                                constantTimer(Duration.ofSeconds(1))
+                        ),
+                htmlReporter("target/jmeter-report-rate-limit-" + RATE_LIMIT)
+        ).run();
+
+        StatsSummary flood = stats.byLabel(FLOOD_LABEL);
+        StatsSummary wellBehaved = stats.byLabel(WELL_BEHAVED_LABEL);
+        double wellBehavedErrorRate = (double) wellBehaved.errorsCount() / wellBehaved.samplesCount();
+
+        System.out.println("\n=== Flood from user1@upi (rate limit " + RATE_LIMIT + ") ===");
+        System.out.printf("Flood:        %d samples, %.1f/s achieved of %d/s offered, %d refused or failed, p99 %d ms%n",
+                flood.samplesCount(), flood.samplesCount() * 1000.0 / stats.duration().toMillis(), FLOOD_RPS,
+                flood.errorsCount(), flood.sampleTimePercentile99().toMillis());
+        System.out.printf("Well-behaved: %d samples, %.2f%% errors, p99 %d ms%n",
+                wellBehaved.samplesCount(), wellBehavedErrorRate * 100,
+                wellBehaved.sampleTimePercentile99().toMillis());
+        System.out.println("================================\n");
+
+        assertThat(wellBehavedErrorRate).isLessThan(TestConfig.MAX_ERROR_RATE);
+        if ("on".equals(RATE_LIMIT)) {
+            assertThat(wellBehaved.sampleTimePercentile99().toMillis())
+                    .as("p99 of %s while the flood is rate limited", WELL_BEHAVED_LABEL)
+                    .isLessThanOrEqualTo(MAX_WELL_BEHAVED_P99_MS);
+        }
+    }
+
+    private static String payment(String fromUpiId) {
+        return "{\n" +
+                "  \"fromUpiId\": \"" + fromUpiId + "\",\n" +
+                "  \"toUpiId\": \"user${__Random(51,100)}@upi\",\n" +
+                "  \"amount\": 1,\n" +
+                "  \"remarks\": \"Rate limit flood test\"\n" +
+                "}";
+    }
+}
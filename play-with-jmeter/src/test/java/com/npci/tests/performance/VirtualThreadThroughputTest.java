@@ -0,0 +1,90 @@
+package com.npci.tests.performance;
+
+import com.npci.tests.utils.TestConfig;
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+/**
+ * Compares UPI payment throughput and p99 of the gateway on platform threads and on virtual
+ * threads, under the same number of concurrent users.
+ *
+ * Start two gateways, one normally and one with virtual threads (Java 21+; the gateway refuses
+ * to start with them on an older JVM), then run the same load against each in turn:
+ *
+ *   java -jar target/payment-gateway-1.0.0.jar
+ *   java -jar target/payment-gateway-1.0.0.jar --server.port=8081 --spring.threads.virtual.enabled=true
+ *   mvn test -Dtest=VirtualThreadThroughputTest -Dthreads=400 -Dduration=60
+ *
+ * The base URLs default to http://localhost:8080 (platform) and http://localhost:8081 (virtual)
+ * and can be changed with -Dplatform.url and -Dvirtual.url. The test prints both modes and the
+ * difference, and fails if virtual threads reach less than -Dmin.speedup times the platform
+ * throughput (default 1.0).
+ */
+public class VirtualThreadThroughputTest {
+
+    private static final String PLATFORM_URL = System.getProperty("platform.url", "http://localhost:8080");
+    private static final String VIRTUAL_URL = System.getProperty("virtual.url", "http://localhost:8081");
+    private static final double MIN_SPEEDUP = Double.parseDouble(System.getProperty("min.speedup", "1.0"));
+
+    @Test
+    @DisplayName("UPI payment throughput with many concurrent users, platform vs virtual threads")
+    public void testUpiPaymentThroughput() throws Exception {
+        TestConfig.printConfig();
+
+        Result platform = run("platform", PLATFORM_URL);
+        Result virtual = run("virtual", VIRTUAL_URL);
+
+        System.out.println("\n=== Throughput, platform vs virtual threads ===");
+        System.out.printf("%-10s %10s %12s %8s %8s%n", "Mode", "Samples", "Req/s", "p99 ms", "Errors");
+        platform.print();
+        virtual.print();
+        System.out.printf("Virtual/platform throughput: %.2fx, p99 difference: %+d ms%n",
+                virtual.throughput / platform.throughput, virtual.p99Millis - platform.p99Millis);
+        System.out.println("===============================================\n");
+
+        assertThat(platform.errorRate).as("platform error rate").isLessThan(TestConfig.MAX_ERROR_RATE);
+        assertThat(virtual.errorRate).as("virtual error rate").isLessThan(TestConfig.MAX_ERROR_RATE);
+        assertThat(virtual.throughput)
+                .as("virtual-thread throughput against %.2fx platform throughput", MIN_SPEEDUP)
+                .isGreaterThanOrEqualTo(platform.throughput * MIN_SPEEDUP);
+    }
+
+    private static Result run(String mode, String baseUrl) throws Exception {
+        TestPlanStats stats = testPlan(
+                threadGroup()
+                        .rampToAndHold(TestConfig.DEFAULT_THREADS,
+                                Duration.ofSeconds(TestConfig.DEFAULT_RAMPUP),
+                                Duration.ofSeconds(TestConfig.DEFAULT_DURATION))
+                        .children(
+                                httpSampler("UPI Payment", baseUrl + TestConfig.BASE_PATH + "/upi/payment")
+                                        .post("{\n" +
+                                                "  \"fromUpiId\": \"user${__Random(1,50)}@upi\",\n" +
+                                                "  \"toUpiId\": \"user${__Random(51,100)}@upi\",\n" +
+                                                "  \"amount\": 1,\n" +
+                                                "  \"remarks\": \"Throughput test\"\n" +
+                                                "}", ContentType.APPLICATION_JSON)
+                        ),
+                htmlReporter("target/jmeter-report-" + mode)
+        ).run();
+
+        double seconds = stats.duration().toMillis() / 1000.0;
+        long samples = stats.overall().samplesCount();
+        return new Result(mode, samples, samples / seconds,
+                stats.overall().sampleTimePercentile99().toMillis(),
+                (double) stats.overall().errorsCount() / samples);
+    }
+
+    private record Result(String mode, long samples, double throughput, long p99Millis, double errorRate) {
+
+        void print() {
+            System.out.printf("%-10s %10d %12.1f %8d %7.2f%%%n", mode, samples, throughput, p99Millis, errorRate * 100);
+        }
+    }
+}
@@ -21,11 +21,28 @@ CREATE TABLE IF NOT EXISTS accounts (
     version             BIGINT DEFAULT 0
 );
 
+-- -----------------------------------------------------------------------------
+-- Account Stripes Table (sub-ledgers of hot accounts, see StripedLedger.java)
+-- -----------------------------------------------------------------------------
+CREATE SEQUENCE IF NOT EXISTS account_stripes_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS account_stripes (
+    stripe_id           BIGINT PRIMARY KEY,
+    account_id          VARCHAR(12) NOT NULL,
+    stripe_index        INTEGER NOT NULL,
+    balance             DECIMAL(15, 2) NOT NULL DEFAULT 0.00,
+
+    CONSTRAINT fk_stripe_account FOREIGN KEY (account_id) REFERENCES accounts(account_id),
+    CONSTRAINT uk_account_stripe UNIQUE (account_id, stripe_index)
+);
+
 -- -----------------------------------------------------------------------------
 -- Transactions Table
 -- -----------------------------------------------------------------------------
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS transactions (
-    transaction_id      BIGINT AUTO_INCREMENT PRIMARY KEY,
+    transaction_id      BIGINT PRIMARY KEY,
     reference_number    VARCHAR(20) NOT NULL UNIQUE,
     from_account_id     VARCHAR(12) NOT NULL,
     to_account_id       VARCHAR(12) NOT NULL,
@@ -39,6 +56,7 @@ CREATE TABLE IF NOT EXISTS transactions (
     to_balance_before   DECIMAL(15, 2),
     to_balance_after    DECIMAL(15, 2),
     failure_reason      VARCHAR(255),
+    idempotency_key     VARCHAR(64) UNIQUE,
     
     CONSTRAINT fk_from_account FOREIGN KEY (from_account_id) REFERENCES accounts(account_id),
     CONSTRAINT fk_to_account FOREIGN KEY (to_account_id) REFERENCES accounts(account_id)
@@ -48,8 +66,8 @@ CREATE TABLE IF NOT EXISTS transactions (
 -- Indexes
 -- -----------------------------------------------------------------------------
 CREATE INDEX IF NOT EXISTS idx_accounts_status ON accounts(status);
-CREATE INDEX IF NOT EXISTS idx_transaction_from_account ON transactions(from_account_id);
-CREATE INDEX IF NOT EXISTS idx_transaction_to_account ON transactions(to_account_id);
+CREATE INDEX IF NOT EXISTS idx_transaction_from_account_date ON transactions(from_account_id, transaction_date, transaction_id);
+CREATE INDEX IF NOT EXISTS idx_transaction_to_account_date ON transactions(to_account_id, transaction_date, transaction_id);
 CREATE INDEX IF NOT EXISTS idx_transaction_reference ON transactions(reference_number);
 CREATE INDEX IF NOT EXISTS idx_transaction_date ON transactions(transaction_date);
 
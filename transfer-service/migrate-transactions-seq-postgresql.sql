@@ -0,0 +1,23 @@
+-- =============================================================================
+-- Transfer Service - Migrate transaction IDs from BIGSERIAL to transactions_seq
+-- =============================================================================
+-- Transaction IDs used to come from the transaction_id BIGSERIAL column and now
+-- come from the pooled sequence transactions_seq (INCREMENT BY 50, matching
+-- allocationSize in Transaction.java). On a database created before that
+-- change, ddl-auto=update creates transactions_seq starting at 1, next to rows
+-- that already use those IDs, and new transfers fail with duplicate keys.
+--
+-- Run this once against an existing database, with the application stopped,
+-- before starting the new version:
+--
+--   psql -U postgres -d transferdb -f migrate-transactions-seq-postgresql.sql
+--
+-- It is safe to run again. A fresh database created from schema-postgresql.sql
+-- does not need it.
+-- =============================================================================
+
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+
+-- Hibernate's pooled optimizer hands out the 50 IDs up to each value it fetches,
+-- so the sequence has to be at least 50 ahead of the highest existing ID
+SELECT setval('transactions_seq', (SELECT COALESCE(MAX(transaction_id), 0) + 50 FROM transactions));
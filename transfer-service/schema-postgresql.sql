@@ -21,7 +21,10 @@
 -- Drop existing tables (for fresh setup)
 -- -----------------------------------------------------------------------------
 DROP TABLE IF EXISTS transactions CASCADE;
+DROP TABLE IF EXISTS account_stripes CASCADE;
 DROP TABLE IF EXISTS accounts CASCADE;
+DROP SEQUENCE IF EXISTS transactions_seq;
+DROP SEQUENCE IF EXISTS account_stripes_seq;
 
 -- -----------------------------------------------------------------------------
 -- Create ENUM types (PostgreSQL specific)
@@ -90,11 +93,33 @@ CREATE INDEX idx_accounts_email ON accounts(email);
 CREATE INDEX idx_accounts_phone ON accounts(phone);
 CREATE INDEX idx_accounts_holder_name ON accounts(account_holder_name);
 
+-- -----------------------------------------------------------------------------
+-- Account Stripes Table
+-- -----------------------------------------------------------------------------
+-- Sub-ledger rows of hot accounts listed in transfer.striped-accounts.account-ids.
+-- Credits land on one stripe; a scheduled fold moves the stripe balances into accounts.balance.
+-- INCREMENT BY must match allocationSize in AccountStripe.java
+CREATE SEQUENCE account_stripes_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE account_stripes (
+    stripe_id           BIGINT PRIMARY KEY,
+    account_id          VARCHAR(12) NOT NULL,
+    stripe_index        INTEGER NOT NULL,
+    balance             DECIMAL(15, 2) NOT NULL DEFAULT 0.00,
+
+    CONSTRAINT fk_stripe_account FOREIGN KEY (account_id) REFERENCES accounts(account_id),
+    CONSTRAINT uk_account_stripe UNIQUE (account_id, stripe_index),
+    CONSTRAINT chk_stripe_balance_non_negative CHECK (balance >= 0)
+);
+
 -- -----------------------------------------------------------------------------
 -- Transactions Table
 -- -----------------------------------------------------------------------------
+-- IDs come from a pooled sequence (INCREMENT BY must match allocationSize in Transaction.java)
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE transactions (
-    transaction_id      BIGSERIAL PRIMARY KEY,
+    transaction_id      BIGINT PRIMARY KEY,
     reference_number    VARCHAR(20) NOT NULL UNIQUE,
     from_account_id     VARCHAR(12) NOT NULL,
     to_account_id       VARCHAR(12) NOT NULL,
@@ -108,6 +133,7 @@ CREATE TABLE transactions (
     to_balance_before   DECIMAL(15, 2),
     to_balance_after    DECIMAL(15, 2),
     failure_reason      VARCHAR(255),
+    idempotency_key     VARCHAR(64) UNIQUE,
     
     -- Foreign Keys
     CONSTRAINT fk_from_account FOREIGN KEY (from_account_id) REFERENCES accounts(account_id),
@@ -121,14 +147,15 @@ CREATE TABLE transactions (
 );
 
 -- Indexes for transactions table
-CREATE INDEX idx_transaction_from_account ON transactions(from_account_id);
-CREATE INDEX idx_transaction_to_account ON transactions(to_account_id);
 CREATE INDEX idx_transaction_reference ON transactions(reference_number);
 CREATE INDEX idx_transaction_date ON transactions(transaction_date);
 CREATE INDEX idx_transaction_status ON transactions(status);
 
--- Composite index for account transaction history queries
-CREATE INDEX idx_transaction_accounts ON transactions(from_account_id, to_account_id, transaction_date DESC);
+-- Composite indexes for account transaction history queries.
+-- Keyset paging seeks on (transaction_date, transaction_id) within one side of the transfer,
+-- so each side gets its own index; the leading column also serves the foreign key lookups.
+CREATE INDEX idx_transaction_from_account_date ON transactions(from_account_id, transaction_date, transaction_id);
+CREATE INDEX idx_transaction_to_account_date ON transactions(to_account_id, transaction_date, transaction_id);
 
 -- -----------------------------------------------------------------------------
 -- Function: Update timestamp on row update
@@ -284,6 +311,6 @@ SELECT 'Transactions created: ' || COUNT(*) FROM transactions;
 \echo '============================================='
 \echo 'PostgreSQL Schema created successfully!'
 \echo '============================================='
-\echo 'Tables: accounts, transactions'
+\echo 'Tables: accounts, account_stripes, transactions'
 \echo 'Views: v_account_summary, v_recent_transactions, v_transaction_stats'
 \echo '============================================='
@@ -18,6 +18,8 @@ import com.upi.dto.AccountRequest;
 import com.upi.dto.AccountResponse;
 import com.upi.dto.AccountUpdateRequest;
 import com.upi.dto.ApiResponse;
+import com.upi.dto.BulkAccountRequest;
+import com.upi.dto.BulkAccountResponse;
 import com.upi.model.AccountStatus;
 import com.upi.service.AccountService;
 
@@ -73,6 +75,32 @@ public class AccountController {
                 .body(ApiResponse.success("Account created successfully", response));
     }
 
+    @Operation(
+        summary = "Create accounts in bulk",
+        description = "Creates up to 5000 accounts in a single database transaction and reports the outcome of each one"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Bulk request processed; see per-item results",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400", 
+            description = "Invalid request data")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkAccountResponse>> createAccountsBulk(
+            @Valid @RequestBody BulkAccountRequest request) {
+        
+        log.info("Bulk account creation request received: Count={}", request.getAccounts().size());
+        
+        BulkAccountResponse response = accountService.createAccountsBulk(request.getAccounts());
+        
+        String message = String.format("Bulk request processed: %d created, %d failed",
+                response.getCreatedCount(), response.getFailureCount());
+        return ResponseEntity.ok(ApiResponse.success(message, response));
+    }
+
     @Operation(
         summary = "Get account by ID",
         description = "Retrieves account details for the specified account ID"
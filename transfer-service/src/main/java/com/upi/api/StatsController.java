@@ -0,0 +1,36 @@
+package com.upi.api;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.upi.dto.ApiResponse;
+import com.upi.dto.TransactionStatsResponse;
+import com.upi.service.TransactionStats;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * REST Controller for operational statistics.
+ * Served from in-memory counters, so dashboards can poll it without querying the database.
+ */
+@RestController
+@RequestMapping("/api/v1/stats")
+@RequiredArgsConstructor
+@Tag(name = "Statistics", description = "APIs for transaction statistics")
+public class StatsController {
+
+    private final TransactionStats transactionStats;
+
+    @Operation(
+        summary = "Get transaction statistics",
+        description = "Returns transaction counts and amount sums per status, per type and per day"
+    )
+    @GetMapping
+    public ResponseEntity<ApiResponse<TransactionStatsResponse>> getStats() {
+        return ResponseEntity.ok(ApiResponse.success(transactionStats.snapshot()));
+    }
+}
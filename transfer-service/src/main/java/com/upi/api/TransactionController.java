@@ -8,15 +8,22 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.upi.dto.ApiResponse;
+import com.upi.dto.ExportFormat;
 import com.upi.dto.TransactionResponse;
+import com.upi.dto.TransactionSliceResponse;
+import com.upi.exception.AccountNotFoundException;
+import com.upi.service.AccountService;
 import com.upi.service.TransactionService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -37,7 +44,10 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "Transaction History", description = "APIs for viewing transaction history and audit trails")
 public class TransactionController {
 
+    private static final int MAX_SLICE_SIZE = 100;
+
     private final TransactionService transactionService;
+    private final AccountService accountService;
 
     @Operation(
         summary = "Get transaction by reference number",
@@ -100,6 +110,75 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.success(transactions));
     }
 
+    @Operation(
+        summary = "Get transaction history for an account using a cursor",
+        description = "Retrieves transactions newest first. Pass the nextCursor of a response to fetch the following slice; " +
+                      "no total count is computed, so deep slices cost the same as the first one"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Slice returned"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400", 
+            description = "Invalid cursor"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404", 
+            description = "Account not found")
+    })
+    @GetMapping("/account/{accountId}/history")
+    public ResponseEntity<ApiResponse<TransactionSliceResponse>> getTransactionHistory(
+            @Parameter(description = "Account ID", example = "A001")
+            @PathVariable String accountId,
+            @Parameter(description = "Opaque cursor returned as nextCursor by the previous slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size (max " + MAX_SLICE_SIZE + ")", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        
+        log.debug("Fetching transaction history for account: {}, size: {}", accountId, size);
+        
+        int sliceSize = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        TransactionSliceResponse slice = transactionService.getTransactionsByAccountSlice(accountId, cursor, sliceSize);
+        
+        return ResponseEntity.ok(ApiResponse.success(slice));
+    }
+
+    @Operation(
+        summary = "Export full transaction history for an account",
+        description = "Streams every transaction of the account, oldest first, as NDJSON (one JSON object per line) or CSV. " +
+                      "Rows are written as they are read from the database, so the history can be of any size"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Export streamed"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404", 
+            description = "Account not found")
+    })
+    @GetMapping("/account/{accountId}/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @Parameter(description = "Account ID", example = "A001")
+            @PathVariable String accountId,
+            @Parameter(description = "Output format", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        
+        log.debug("Exporting transactions for account: {} as {}", accountId, format);
+        
+        // Checked up front: once streaming starts the status code is already committed
+        if (!accountService.accountExists(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        
+        StreamingResponseBody body = out -> transactionService.exportTransactionsByAccount(accountId, format, out);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-" + accountId + "." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+
     @Operation(
         summary = "Get sent (debit) transactions",
         description = "Retrieves all transactions where the account was the sender"
@@ -4,15 +4,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.upi.dto.ApiResponse;
+import com.upi.dto.BatchTransferRequest;
+import com.upi.dto.BatchTransferResponse;
 import com.upi.dto.TransferRequest;
 import com.upi.dto.TransferResponse;
 import com.upi.service.TransferService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -33,13 +37,16 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "Fund Transfers", description = "APIs for transferring funds between accounts")
 public class TransferController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final TransferService transferService;
 
     @Operation(summary = "Initiate fund transfer", description = "Transfers funds from one account to another with validation")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Transfer completed successfully", content = @Content(schema = @Schema(implementation = ApiResponse.class))),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request or insufficient funds"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Account not found")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Account not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different transfer")
     })
     @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Transfer request details", required = true, content = @Content(schema = @Schema(implementation = TransferRequest.class), examples = @ExampleObject(name = "Sample Transfer", value = """
             {
@@ -51,15 +58,43 @@ public class TransferController {
             """)))
     @PostMapping
     public ResponseEntity<ApiResponse<TransferResponse>> initiateTransfer(
-            @Valid @RequestBody TransferRequest request) {
+            @Valid @RequestBody TransferRequest request,
+            @Parameter(description = "Client-chosen key; retries with the same key return the original result instead of transferring again", example = "7f3c1b9e-2d4a-4c1e-9b7a-1f2e3d4c5b6a")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
         log.info("Transfer request received: From={}, To={}, Amount={}",
                 request.getFromAccId(), request.getToAccId(), request.getAmount());
 
-        TransferResponse response = transferService.transferFunds(request);
+        TransferResponse response = transferService.transferFunds(request, idempotencyKey);
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Transfer completed successfully", response));
     }
+
+    @Operation(summary = "Initiate batch fund transfer", description = "Settles multiple transfers in a single database transaction and reports the outcome of each one")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Batch processed; see per-item results", content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid batch request")
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Batch transfer request details", required = true, content = @Content(schema = @Schema(implementation = BatchTransferRequest.class), examples = @ExampleObject(name = "Sample Batch Transfer", value = """
+            {
+                "transfers": [
+                    { "fromAccId": "A001", "toAccId": "A002", "amount": 500.00, "description": "Payout 1" },
+                    { "fromAccId": "A001", "toAccId": "A003", "amount": 250.00, "description": "Payout 2" }
+                ]
+            }
+            """)))
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchTransferResponse>> initiateBatchTransfer(
+            @Valid @RequestBody BatchTransferRequest request) {
+
+        log.info("Batch transfer request received: Count={}", request.getTransfers().size());
+
+        BatchTransferResponse response = transferService.transferFundsBatch(request.getTransfers());
+
+        String message = String.format("Batch processed: %d succeeded, %d failed",
+                response.getSuccessCount(), response.getFailureCount());
+        return ResponseEntity.ok(ApiResponse.success(message, response));
+    }
 }
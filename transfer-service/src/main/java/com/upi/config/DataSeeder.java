@@ -0,0 +1,307 @@
+package com.upi.config;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.model.TransactionStatus;
+import com.upi.model.TransactionType;
+import com.upi.repository.AccountRepository;
+import com.upi.service.TransactionStats;
+import com.upi.util.ZipfSampler;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads a large synthetic dataset for load tests, on top of the DataLoader sample data.
+ *
+ * Set app.seed.accounts (e.g. app.seed.accounts=5_000_000) to create that many accounts,
+ * SEED00000001 upwards, and app.seed.transactions for a transaction history between them.
+ * Senders and receivers are drawn from a Zipf distribution (app.seed.zipf-exponent), so a few
+ * accounts carry most of the traffic as in production. History is spread over the last
+ * app.seed.history-days and does not change balances.
+ *
+ * Rows are written with plain JDBC batches from app.seed.threads threads, each committing every
+ * app.seed.batch-size rows; entity listeners are bypassed, so TransactionStats is rebuilt at the
+ * end. Throughput is logged per table. Finally CSV feeders for JMeter are written to
+ * app.seed.feeder-directory, with senders drawn from the same distribution.
+ *
+ * Seeding is skipped if the first seeded account already exists.
+ */
+@Component
+@Order(2)
+@Slf4j
+public class DataSeeder implements CommandLineRunner {
+
+    static final String ACCOUNT_PREFIX = "SEED";
+    private static final String REFERENCE_PREFIX = "SEED";
+    private static final double FAILURE_RATE = 0.03;
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final AccountRepository accountRepository;
+    private final TransactionStats transactionStats;
+    private final long accounts;
+    private final long transactions;
+    private final double zipfExponent;
+    private final int historyDays;
+    private final int threads;
+    private final int batchSize;
+    private final long randomSeed;
+    private final Path feederDirectory;
+    private final int feederRows;
+
+    public DataSeeder(DataSource dataSource,
+                      EntityManagerFactory entityManagerFactory,
+                      AccountRepository accountRepository,
+                      TransactionStats transactionStats,
+                      @Value("${app.seed.accounts:0}") String accounts,
+                      @Value("${app.seed.transactions:0}") String transactions,
+                      @Value("${app.seed.zipf-exponent:1.0}") double zipfExponent,
+                      @Value("${app.seed.history-days:30}") int historyDays,
+                      @Value("${app.seed.threads:0}") int threads,
+                      @Value("${app.seed.batch-size:1000}") int batchSize,
+                      @Value("${app.seed.random-seed:42}") long randomSeed,
+                      @Value("${app.seed.feeder-directory:seed-data}") Path feederDirectory,
+                      @Value("${app.seed.feeder-rows:100000}") int feederRows) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.accountRepository = accountRepository;
+        this.transactionStats = transactionStats;
+        // Accept Java-style digit separators such as 5_000_000
+        this.accounts = Long.parseLong(accounts.replace("_", ""));
+        this.transactions = Long.parseLong(transactions.replace("_", ""));
+        this.zipfExponent = zipfExponent;
+        this.historyDays = historyDays;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.randomSeed = randomSeed;
+        this.feederDirectory = feederDirectory;
+        this.feederRows = feederRows;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (accounts <= 0) {
+            return;
+        }
+        if (accountRepository.existsById(accountId(0))) {
+            log.info("Seed data already present, skipping");
+            return;
+        }
+        log.info("Seeding {} accounts and {} transactions with {} threads", accounts, transactions, threads);
+        ZipfSampler popularity = new ZipfSampler(accounts, zipfExponent);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("seed-"));
+        try {
+            insert(executor, "accounts", accounts,
+                    "INSERT INTO accounts (account_id, account_holder_name, email, phone, balance, account_type, "
+                            + "status, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                    this::bindAccount);
+            if (transactions > 0 && accounts > 1) {
+                insert(executor, "transactions", transactions,
+                        "INSERT INTO transactions (transaction_id, reference_number, from_account_id, to_account_id, "
+                                + "amount, transaction_type, status, description, transaction_date, failure_reason) "
+                                + "VALUES (" + nextTransactionId() + ", ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        (statement, row, random) -> bindTransaction(statement, row, random, popularity));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        transactionStats.rebuild();
+        writeFeeders(popularity);
+    }
+
+    /**
+     * Row-level callback: set the parameters of one row
+     */
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement statement, long row, SplittableRandom random) throws SQLException;
+    }
+
+    /**
+     * Insert rows 0..count-1 in chunks spread over the executor, logging progress and rows per second
+     */
+    private void insert(ExecutorService executor, String table, long count, String sql, RowBinder binder)
+            throws InterruptedException {
+        long chunkRows = (long) batchSize * 10;
+        long started = System.nanoTime();
+        Progress progress = new Progress(table, count, started);
+        List<Future<?>> chunks = new ArrayList<>();
+        for (long from = 0; from < count; from += chunkRows) {
+            long start = from;
+            long end = Math.min(count, from + chunkRows);
+            chunks.add(executor.submit(() -> {
+                insertChunk(sql, start, end, binder, progress);
+                return null;
+            }));
+        }
+        for (Future<?> chunk : chunks) {
+            try {
+                chunk.get();
+            } catch (ExecutionException e) {
+                chunks.forEach(pending -> pending.cancel(true));
+                throw new IllegalStateException("Seeding " + table + " failed", e.getCause());
+            }
+        }
+        log.info("Seeded {} {} in {} ms ({} rows/s)", count, table,
+                (System.nanoTime() - started) / 1_000_000, rate(count, started));
+    }
+
+    private void insertChunk(String sql, long from, long to, RowBinder binder, Progress progress) throws SQLException {
+        // Seeded per chunk, so the same settings always produce the same data whatever the thread timing
+        SplittableRandom random = new SplittableRandom(randomSeed * 31 + from);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            int pending = 0;
+            for (long row = from; row < to; row++) {
+                binder.bind(statement, row, random);
+                statement.addBatch();
+                if (++pending == batchSize || row == to - 1) {
+                    statement.executeBatch();
+                    connection.commit();
+                    progress.committed(pending);
+                    pending = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Committed row count of one table, logged at every tenth of the total
+     */
+    private static final class Progress {
+
+        private final String table;
+        private final long total;
+        private final long step;
+        private final long startedNanos;
+        private final AtomicLong committed = new AtomicLong();
+
+        Progress(String table, long total, long startedNanos) {
+            this.table = table;
+            this.total = total;
+            this.step = Math.max(1, total / 10);
+            this.startedNanos = startedNanos;
+        }
+
+        void committed(long rows) {
+            long done = committed.addAndGet(rows);
+            if (done < total && done / step > (done - rows) / step) {
+                log.info("Seeded {}/{} {} ({} rows/s)", done, total, table, rate(done, startedNanos));
+            }
+        }
+    }
+
+    private void bindAccount(PreparedStatement statement, long row, SplittableRandom random) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        statement.setString(1, accountId(row));
+        statement.setString(2, "Seed User " + (row + 1));
+        statement.setString(3, "seed" + (row + 1) + "@example.com");
+        statement.setString(4, String.format("7%09d", row + 1));
+        statement.setBigDecimal(5, BigDecimal.valueOf(random.nextLong(1_000_00, 1_000_000_01), 2));
+        statement.setString(6, AccountType.values()[random.nextInt(AccountType.values().length)].name());
+        statement.setString(7, AccountStatus.ACTIVE.name());
+        statement.setTimestamp(8, now);
+        statement.setTimestamp(9, now);
+    }
+
+    private void bindTransaction(PreparedStatement statement, long row, SplittableRandom random,
+                                 ZipfSampler popularity) throws SQLException {
+        long from = popularity.sample(random) - 1;
+        long to = otherAccount(from, popularity, random);
+        boolean failed = random.nextDouble() < FAILURE_RATE;
+        long secondsAgo = random.nextLong(Math.max(1, historyDays * 86_400L));
+        statement.setString(1, String.format("%s%016d", REFERENCE_PREFIX, row + 1));
+        statement.setString(2, accountId(from));
+        statement.setString(3, accountId(to));
+        statement.setBigDecimal(4, BigDecimal.valueOf(random.nextLong(1_00, 5_000_01), 2));
+        statement.setString(5, TransactionType.FUND_TRANSFER.name());
+        statement.setString(6, (failed ? TransactionStatus.FAILED : TransactionStatus.COMPLETED).name());
+        statement.setString(7, "Seeded transfer");
+        statement.setTimestamp(8, Timestamp.valueOf(LocalDateTime.now().minusSeconds(secondsAgo)));
+        statement.setString(9, failed ? "Insufficient funds" : null);
+    }
+
+    /**
+     * Write transfers.csv (fromAccId,toAccId,amount,description) and accounts.csv (accountId)
+     */
+    private void writeFeeders(ZipfSampler popularity) {
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        try {
+            Files.createDirectories(feederDirectory);
+            try (BufferedWriter transfers = Files.newBufferedWriter(feederDirectory.resolve("transfers.csv"));
+                 BufferedWriter lookups = Files.newBufferedWriter(feederDirectory.resolve("accounts.csv"))) {
+                transfers.write("fromAccId,toAccId,amount,description\n");
+                lookups.write("accountId\n");
+                for (int i = 0; i < feederRows; i++) {
+                    long from = popularity.sample(random) - 1;
+                    if (accounts > 1) {
+                        long to = otherAccount(from, popularity, random);
+                        transfers.write(accountId(from) + "," + accountId(to) + ","
+                                + random.nextInt(1, 501) + ",Load test transfer " + (i + 1) + "\n");
+                    }
+                    lookups.write(accountId(popularity.sample(random) - 1) + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write feeder files to " + feederDirectory, e);
+        }
+        log.info("Wrote {} rows of JMeter feeders to {}", feederRows, feederDirectory.toAbsolutePath());
+    }
+
+    private long otherAccount(long from, ZipfSampler popularity, SplittableRandom random) {
+        long to;
+        do {
+            to = popularity.sample(random) - 1;
+        } while (to == from);
+        return to;
+    }
+
+    /**
+     * SQL for the next transactions_seq value in this database's dialect. Each seeded row takes
+     * its own value, so none can collide with the ID ranges Hibernate allocates from the sequence.
+     */
+    private String nextTransactionId() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSelectSequenceNextValString("transactions_seq");
+    }
+
+    static String accountId(long row) {
+        return String.format("%s%08d", ACCOUNT_PREFIX, row + 1);
+    }
+
+    private static long rate(long rows, long startedNanos) {
+        long elapsed = Math.max(1, System.nanoTime() - startedNanos);
+        return rows * 1_000_000_000L / elapsed;
+    }
+}
@@ -0,0 +1,12 @@
+package com.upi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background tasks such as folding striped account balances.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,25 @@
+package com.upi.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for batch fund transfer operations.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTransferRequest {
+
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 1000, message = "A batch cannot contain more than 1000 transfers")
+    private List<@Valid TransferRequest> transfers;
+}
@@ -0,0 +1,24 @@
+package com.upi.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for batch fund transfer operations.
+ * Results are returned in the same order as the requested transfers.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTransferResponse {
+
+    private int totalCount;
+    private int successCount;
+    private int failureCount;
+    private List<TransferResponse> results;
+}
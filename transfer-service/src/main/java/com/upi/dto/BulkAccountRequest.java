@@ -0,0 +1,25 @@
+package com.upi.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for bulk account creation.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkAccountRequest {
+
+    @NotEmpty(message = "At least one account is required")
+    @Size(max = 5000, message = "A bulk request cannot contain more than 5000 accounts")
+    private List<@Valid AccountRequest> accounts;
+}
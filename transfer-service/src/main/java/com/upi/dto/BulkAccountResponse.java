@@ -0,0 +1,24 @@
+package com.upi.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for bulk account creation.
+ * Results are returned in the same order as the requested accounts.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkAccountResponse {
+
+    private int totalCount;
+    private int createdCount;
+    private int failureCount;
+    private List<BulkAccountResult> results;
+}
@@ -0,0 +1,44 @@
+package com.upi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single account in a bulk creation request.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkAccountResult {
+
+    private String accountId;
+    private String status;
+    private String message;
+
+    /**
+     * Create a result for an account that was inserted
+     */
+    public static BulkAccountResult created(String accountId) {
+        return BulkAccountResult.builder()
+                .accountId(accountId)
+                .status("CREATED")
+                .build();
+    }
+
+    /**
+     * Create a result for an account that was rejected
+     */
+    public static BulkAccountResult failure(String accountId, String message) {
+        return BulkAccountResult.builder()
+                .accountId(accountId)
+                .status("FAILED")
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.upi.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One slice of an account's transaction history for cursor-based paging.
+ * No total count is computed; pass nextCursor back to fetch the following slice.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionSliceResponse {
+
+    private List<TransactionResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
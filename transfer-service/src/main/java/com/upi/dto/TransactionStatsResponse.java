@@ -0,0 +1,41 @@
+package com.upi.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import com.upi.model.TransactionStatus;
+import com.upi.model.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for transaction statistics.
+ * Status and type breakdowns cover all transactions; the daily breakdown covers the
+ * most recent days only, newest first.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionStatsResponse {
+
+    private Bucket total;
+    private Map<TransactionStatus, Bucket> byStatus;
+    private Map<TransactionType, Bucket> byType;
+    private Map<LocalDate, Bucket> byDay;
+
+    /**
+     * Number of transactions and the sum of their amounts
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Bucket {
+        private long count;
+        private BigDecimal amount;
+    }
+}
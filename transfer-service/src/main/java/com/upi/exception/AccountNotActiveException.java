@@ -5,7 +5,7 @@ import com.upi.model.AccountStatus;
 /**
  * Exception thrown when attempting to perform a transaction on a non-active account.
  */
-public class AccountNotActiveException extends RuntimeException {
+public class AccountNotActiveException extends BusinessException {
 
     private final String accountId;
     private final AccountStatus currentStatus;
@@ -3,7 +3,7 @@ package com.upi.exception;
 /**
  * Exception thrown when an account is not found in the system.
  */
-public class AccountNotFoundException extends RuntimeException {
+public class AccountNotFoundException extends BusinessException {
 
     private final String accountId;
 
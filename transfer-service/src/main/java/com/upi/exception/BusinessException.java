@@ -0,0 +1,16 @@
+package com.upi.exception;
+
+/**
+ * Base class for expected business rejections (unknown account, insufficient funds,
+ * invalid transfer and so on) that GlobalExceptionHandler turns into 4xx responses.
+ *
+ * These are part of normal traffic rather than programming errors, so they skip
+ * stack trace capture, which otherwise dominates the cost of a rejected request.
+ * getStackTrace() returns an empty array; the message and fields carry the context.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    protected BusinessException(String message) {
+        super(message, null, false, false);
+    }
+}
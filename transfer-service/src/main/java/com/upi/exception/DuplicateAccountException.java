@@ -3,7 +3,7 @@ package com.upi.exception;
 /**
  * Exception thrown when attempting to create an account that already exists.
  */
-public class DuplicateAccountException extends RuntimeException {
+public class DuplicateAccountException extends BusinessException {
 
     private final String accountId;
 
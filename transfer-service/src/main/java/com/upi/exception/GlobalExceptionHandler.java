@@ -3,6 +3,7 @@ package com.upi.exception;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -135,6 +136,58 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage(), errorDetails));
     }
 
+    /**
+     * Handle InvalidCursorException
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCursor(InvalidCursorException ex) {
+        log.error("Invalid cursor: {}", ex.getCursor());
+        
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .code("INVALID_CURSOR")
+                .field("cursor")
+                .rejectedValue(ex.getCursor())
+                .build();
+        
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(ex.getMessage(), errorDetails));
+    }
+
+    /**
+     * Handle IdempotencyKeyMismatchException
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        log.error("Idempotency key reused: {}", ex.getIdempotencyKey());
+        
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .code("IDEMPOTENCY_KEY_MISMATCH")
+                .field("Idempotency-Key")
+                .rejectedValue(ex.getIdempotencyKey())
+                .build();
+        
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ApiResponse.error(ex.getMessage(), errorDetails));
+    }
+
+    /**
+     * Handle a unique constraint that fired at commit, e.g. two requests creating the same account at once
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        log.error("Data integrity violation: {}", ex.getMostSpecificCause().getMessage());
+        
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .code("DATA_CONFLICT")
+                .build();
+        
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("The request conflicts with existing data", errorDetails));
+    }
+
     /**
      * Handle validation errors from @Valid annotations
      */
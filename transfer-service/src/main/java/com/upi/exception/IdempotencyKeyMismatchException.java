@@ -0,0 +1,18 @@
+package com.upi.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is reused for a different transfer.
+ */
+public class IdempotencyKeyMismatchException extends BusinessException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super(String.format("Idempotency-Key %s was already used for a different transfer", idempotencyKey));
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
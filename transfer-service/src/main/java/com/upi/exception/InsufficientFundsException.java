@@ -5,7 +5,7 @@ import java.math.BigDecimal;
 /**
  * Exception thrown when an account has insufficient funds for a transaction.
  */
-public class InsufficientFundsException extends RuntimeException {
+public class InsufficientFundsException extends BusinessException {
 
     private final String accountId;
     private final BigDecimal availableBalance;
@@ -0,0 +1,18 @@
+package com.upi.exception;
+
+/**
+ * Exception thrown when a pagination cursor cannot be decoded.
+ */
+public class InvalidCursorException extends BusinessException {
+
+    private final String cursor;
+
+    public InvalidCursorException(String cursor) {
+        super(String.format("Invalid pagination cursor: %s", cursor));
+        this.cursor = cursor;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+}
@@ -3,7 +3,7 @@ package com.upi.exception;
 /**
  * Exception thrown when a transfer request is invalid.
  */
-public class InvalidTransferException extends RuntimeException {
+public class InvalidTransferException extends BusinessException {
 
     public InvalidTransferException(String message) {
         super(message);
@@ -3,7 +3,7 @@ package com.upi.exception;
 /**
  * Exception thrown when a transaction is not found in the system.
  */
-public class TransactionNotFoundException extends RuntimeException {
+public class TransactionNotFoundException extends BusinessException {
 
     private final String referenceNumber;
 
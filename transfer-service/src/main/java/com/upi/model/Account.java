@@ -3,8 +3,12 @@ package com.upi.model;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.upi.service.AccountCacheInvalidator;
+import com.upi.service.AccountUniquenessListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
@@ -27,6 +31,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Entity
 @Table(name = "accounts")
+@EntityListeners({AccountCacheInvalidator.class, AccountUniquenessListener.class})
 public class Account {
 
     @Id
@@ -36,10 +41,10 @@ public class Account {
     @Column(name = "account_holder_name", nullable = false, length = 100)
     private String accountHolderName;
 
-    @Column(name = "email", length = 100)
+    @Column(name = "email", length = 100, unique = true)
     private String email;
 
-    @Column(name = "phone", length = 15)
+    @Column(name = "phone", length = 15, unique = true)
     private String phone;
 
     @Column(name = "balance", nullable = false, precision = 15, scale = 2)
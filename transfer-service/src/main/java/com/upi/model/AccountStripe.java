@@ -0,0 +1,51 @@
+package com.upi.model;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AccountStripe Entity - One credit sub-ledger of a striped (hot) account.
+ * Credits to a striped account are spread over its stripes so they do not all wait on
+ * the accounts row lock; the account's balance is its own balance plus all of its stripes.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "account_stripes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_account_stripe", columnNames = {"account_id", "stripe_index"})
+})
+public class AccountStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_stripe_seq")
+    @SequenceGenerator(name = "account_stripe_seq", sequenceName = "account_stripes_seq", allocationSize = 50)
+    @Column(name = "stripe_id")
+    private Long stripeId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(name = "stripe_index", nullable = false)
+    private int stripeIndex;
+
+    @Column(name = "balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+}
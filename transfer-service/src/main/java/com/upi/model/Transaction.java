@@ -3,8 +3,11 @@ package com.upi.model;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.upi.service.TransactionStatsListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -14,7 +17,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -30,19 +36,38 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@EntityListeners(TransactionStatsListener.class)
 @Table(name = "transactions", indexes = {
-    @Index(name = "idx_transaction_from_account", columnList = "from_account_id"),
-    @Index(name = "idx_transaction_to_account", columnList = "to_account_id"),
+    @Index(name = "idx_transaction_from_account_date", columnList = "from_account_id, transaction_date, transaction_id"),
+    @Index(name = "idx_transaction_to_account_date", columnList = "to_account_id, transaction_date, transaction_id"),
     @Index(name = "idx_transaction_reference", columnList = "reference_number"),
     @Index(name = "idx_transaction_date", columnList = "transaction_date")
 })
+@NamedEntityGraph(name = Transaction.WITH_ACCOUNTS, attributeNodes = {
+    @NamedAttributeNode("fromAccount"),
+    @NamedAttributeNode("toAccount")
+})
 public class Transaction {
 
+    /**
+     * Entity graph that loads both accounts in the same query, so mapping to
+     * TransactionResponse does not trigger one lazy account SELECT per row.
+     */
+    public static final String WITH_ACCOUNTS = "Transaction.withAccounts";
+
+    /**
+     * Pooled sequence IDs let Hibernate batch INSERTs; IDENTITY columns force one round trip per row.
+     * allocationSize must match the INCREMENT BY of transactions_seq.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transactions_seq", allocationSize = 50)
     @Column(name = "transaction_id")
     private Long transactionId;
 
+    /**
+     * Assigned by the service layer from ReferenceIdGenerator before the row is persisted.
+     */
     @Column(name = "reference_number", nullable = false, unique = true, length = 20)
     private String referenceNumber;
 
@@ -88,20 +113,16 @@ public class Transaction {
     @Column(name = "failure_reason", length = 255)
     private String failureReason;
 
+    /**
+     * Idempotency-Key supplied by the client for this transfer, if any. Unique so that a
+     * retried request can never create a second transaction.
+     */
+    @Column(name = "idempotency_key", unique = true, length = 64)
+    private String idempotencyKey;
+
     @PrePersist
     protected void onCreate() {
         transactionDate = LocalDateTime.now();
-        if (referenceNumber == null) {
-            referenceNumber = generateReferenceNumber();
-        }
-    }
-
-    /**
-     * Generate a unique reference number for the transaction.
-     * Format: TXN + timestamp + random suffix
-     */
-    private String generateReferenceNumber() {
-        return "TXN" + System.currentTimeMillis() + (int)(Math.random() * 1000);
     }
 
     /**
@@ -1,10 +1,16 @@
 package com.upi.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +18,9 @@ import com.upi.model.Account;
 import com.upi.model.AccountStatus;
 import com.upi.model.AccountType;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 /**
  * Repository interface for Account entity operations.
  * Extends JpaRepository for full CRUD and query capabilities.
@@ -19,11 +28,29 @@ import com.upi.model.AccountType;
 @Repository
 public interface AccountRepository extends JpaRepository<Account, String> {
 
+    String SCAN_FETCH_SIZE = "1000";
+
     /**
      * Find account by account ID
      */
     Optional<Account> findByAccountId(String accountId);
 
+    /**
+     * Find account by account ID and take a row-level write lock (SELECT ... FOR UPDATE).
+     * The lock is held until the surrounding transaction commits or rolls back.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountId = :accountId")
+    Optional<Account> findByAccountIdForUpdate(@Param("accountId") String accountId);
+
+    /**
+     * Find all accounts with the given IDs and take row-level write locks on them.
+     * Rows are locked in ascending account ID order, matching findByAccountIdForUpdate.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountId IN :accountIds ORDER BY a.accountId")
+    List<Account> findAllByAccountIdInForUpdate(@Param("accountIds") Collection<String> accountIds);
+
     /**
      * Find all accounts by status
      */
@@ -65,6 +92,38 @@ public interface AccountRepository extends JpaRepository<Account, String> {
      */
     boolean existsByPhone(String phone);
 
+    /**
+     * Return which of the given account IDs are already taken
+     */
+    @Query("SELECT a.accountId FROM Account a WHERE a.accountId IN :accountIds")
+    List<String> findExistingAccountIds(@Param("accountIds") Collection<String> accountIds);
+
+    /**
+     * Return which of the given emails are already registered
+     */
+    @Query("SELECT a.email FROM Account a WHERE a.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Return which of the given phone numbers are already registered
+     */
+    @Query("SELECT a.phone FROM Account a WHERE a.phone IN :phones")
+    List<String> findExistingPhones(@Param("phones") Collection<String> phones);
+
+    /**
+     * Stream every registered email. The caller must consume the stream inside a transaction and close it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = SCAN_FETCH_SIZE))
+    @Query("SELECT a.email FROM Account a WHERE a.email IS NOT NULL")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Stream every registered phone number. The caller must consume the stream inside a transaction and close it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = SCAN_FETCH_SIZE))
+    @Query("SELECT a.phone FROM Account a WHERE a.phone IS NOT NULL")
+    Stream<String> streamAllPhones();
+
     /**
      * Find all active accounts
      */
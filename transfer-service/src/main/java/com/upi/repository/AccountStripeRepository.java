@@ -0,0 +1,61 @@
+package com.upi.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.upi.model.AccountStripe;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repository interface for AccountStripe entity operations.
+ */
+@Repository
+public interface AccountStripeRepository extends JpaRepository<AccountStripe, Long> {
+
+    /**
+     * Add an amount to one stripe in a single UPDATE, locking only that stripe row.
+     *
+     * @return the number of rows updated; 0 if the stripe does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE AccountStripe s SET s.balance = s.balance + :amount " +
+           "WHERE s.account.accountId = :accountId AND s.stripeIndex = :stripeIndex")
+    int credit(@Param("accountId") String accountId, @Param("stripeIndex") int stripeIndex,
+               @Param("amount") BigDecimal amount);
+
+    /**
+     * Sum of all stripes of an account
+     */
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountStripe s WHERE s.account.accountId = :accountId")
+    BigDecimal sumBalance(@Param("accountId") String accountId);
+
+    /**
+     * Account balance plus all of its stripes, read in one statement so a concurrent fold
+     * can never be seen half applied
+     */
+    @Query("SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM AccountStripe s WHERE s.account = a), 0) " +
+           "FROM Account a WHERE a.accountId = :accountId")
+    Optional<BigDecimal> findTotalBalance(@Param("accountId") String accountId);
+
+    /**
+     * Indexes of the stripes that exist for an account
+     */
+    @Query("SELECT s.stripeIndex FROM AccountStripe s WHERE s.account.accountId = :accountId")
+    List<Integer> findStripeIndexes(@Param("accountId") String accountId);
+
+    /**
+     * Find all stripes of an account and take row-level write locks on them, in stripe order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountStripe s WHERE s.account.accountId = :accountId ORDER BY s.stripeIndex")
+    List<AccountStripe> findByAccountIdForUpdate(@Param("accountId") String accountId);
+}
@@ -1,13 +1,20 @@
 package com.upi.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,6 +22,8 @@ import com.upi.model.Transaction;
 import com.upi.model.TransactionStatus;
 import com.upi.model.TransactionType;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repository interface for Transaction entity operations.
  * Provides methods to query transaction history and audit trails.
@@ -22,46 +31,119 @@ import com.upi.model.TransactionType;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    String EXPORT_FETCH_SIZE = "500";
+
     /**
      * Find transaction by reference number
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     Optional<Transaction> findByReferenceNumber(String referenceNumber);
 
+    /**
+     * Find the transaction created by the request with the given Idempotency-Key
+     */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+
     /**
      * Find all transactions for an account (as sender or receiver)
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     @Query("SELECT t FROM Transaction t WHERE t.fromAccount.accountId = :accountId OR t.toAccount.accountId = :accountId ORDER BY t.transactionDate DESC")
     List<Transaction> findByAccountId(@Param("accountId") String accountId);
 
     /**
      * Find all transactions for an account with pagination
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     @Query("SELECT t FROM Transaction t WHERE t.fromAccount.accountId = :accountId OR t.toAccount.accountId = :accountId ORDER BY t.transactionDate DESC")
     Page<Transaction> findByAccountIdPaginated(@Param("accountId") String accountId, Pageable pageable);
 
+    /**
+     * Newest sent transactions for an account, served by idx_transaction_from_account_date
+     */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
+    @Query("SELECT t FROM Transaction t WHERE t.fromAccount.accountId = :accountId ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<Transaction> findSentSlice(@Param("accountId") String accountId, Limit limit);
+
+    /**
+     * Sent transactions that sort after the given (transactionDate, transactionId) position
+     */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
+    @Query("SELECT t FROM Transaction t WHERE t.fromAccount.accountId = :accountId " +
+           "AND (t.transactionDate < :transactionDate OR (t.transactionDate = :transactionDate AND t.transactionId < :transactionId)) " +
+           "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<Transaction> findSentSliceAfter(
+        @Param("accountId") String accountId,
+        @Param("transactionDate") LocalDateTime transactionDate,
+        @Param("transactionId") Long transactionId,
+        Limit limit
+    );
+
+    /**
+     * Newest received transactions for an account, served by idx_transaction_to_account_date
+     */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
+    @Query("SELECT t FROM Transaction t WHERE t.toAccount.accountId = :accountId ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<Transaction> findReceivedSlice(@Param("accountId") String accountId, Limit limit);
+
+    /**
+     * Received transactions that sort after the given (transactionDate, transactionId) position
+     */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
+    @Query("SELECT t FROM Transaction t WHERE t.toAccount.accountId = :accountId " +
+           "AND (t.transactionDate < :transactionDate OR (t.transactionDate = :transactionDate AND t.transactionId < :transactionId)) " +
+           "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<Transaction> findReceivedSliceAfter(
+        @Param("accountId") String accountId,
+        @Param("transactionDate") LocalDateTime transactionDate,
+        @Param("transactionId") Long transactionId,
+        Limit limit
+    );
+
+    /**
+     * Stream all transactions for an account, oldest first, with both accounts fetched in the same query.
+     * Rows are pulled from the driver in chunks of EXPORT_FETCH_SIZE instead of being loaded up front;
+     * the caller must consume the stream inside a transaction and close it.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.fromAccount JOIN FETCH t.toAccount " +
+           "WHERE t.fromAccount.accountId = :accountId OR t.toAccount.accountId = :accountId " +
+           "ORDER BY t.transactionDate, t.transactionId")
+    Stream<Transaction> streamByAccountId(@Param("accountId") String accountId);
+
     /**
      * Find sent transactions (debits) for an account
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     List<Transaction> findByFromAccountAccountIdOrderByTransactionDateDesc(String accountId);
 
     /**
      * Find received transactions (credits) for an account
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     List<Transaction> findByToAccountAccountIdOrderByTransactionDateDesc(String accountId);
 
     /**
      * Find transactions by status
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     List<Transaction> findByStatus(TransactionStatus status);
 
     /**
      * Find transactions by type
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     List<Transaction> findByTransactionType(TransactionType transactionType);
 
     /**
      * Find transactions between two dates
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     @Query("SELECT t FROM Transaction t WHERE t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
     List<Transaction> findByDateRange(
         @Param("startDate") LocalDateTime startDate,
@@ -71,6 +153,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     /**
      * Find transactions for an account between two dates
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     @Query("SELECT t FROM Transaction t WHERE (t.fromAccount.accountId = :accountId OR t.toAccount.accountId = :accountId) AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
     List<Transaction> findByAccountIdAndDateRange(
         @Param("accountId") String accountId,
@@ -81,6 +164,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     /**
      * Find transactions between two specific accounts
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     @Query("SELECT t FROM Transaction t WHERE (t.fromAccount.accountId = :account1 AND t.toAccount.accountId = :account2) OR (t.fromAccount.accountId = :account2 AND t.toAccount.accountId = :account1) ORDER BY t.transactionDate DESC")
     List<Transaction> findTransactionsBetweenAccounts(
         @Param("account1") String account1,
@@ -92,13 +176,36 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     long countByStatus(TransactionStatus status);
 
+    /**
+     * Count and sum all transactions per status, type and day in one grouped scan.
+     * Used to rebuild TransactionStats at startup.
+     */
+    @Query("SELECT t.status AS status, t.transactionType AS transactionType, "
+            + "CAST(t.transactionDate AS LocalDate) AS transactionDay, "
+            + "COUNT(t) AS transactionCount, SUM(t.amount) AS totalAmount "
+            + "FROM Transaction t "
+            + "GROUP BY t.status, t.transactionType, CAST(t.transactionDate AS LocalDate)")
+    List<StatsRow> summarizeByStatusTypeAndDay();
+
     /**
      * Find recent transactions (last N)
      */
+    @EntityGraph(Transaction.WITH_ACCOUNTS)
     List<Transaction> findTop10ByOrderByTransactionDateDesc();
 
     /**
      * Check if reference number exists
      */
     boolean existsByReferenceNumber(String referenceNumber);
+
+    /**
+     * One group of summarizeByStatusTypeAndDay
+     */
+    interface StatsRow {
+        TransactionStatus getStatus();
+        TransactionType getTransactionType();
+        LocalDate getTransactionDay();
+        long getTransactionCount();
+        BigDecimal getTotalAmount();
+    }
 }
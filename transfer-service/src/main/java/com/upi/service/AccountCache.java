@@ -0,0 +1,63 @@
+package com.upi.service;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.upi.dto.AccountResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded read-through cache of account details keyed by account ID.
+ *
+ * Entries are evicted by AccountCacheInvalidator whenever the accounts row is written,
+ * so balances seen through the cache are never older than the last committed transfer.
+ * The TTL only bounds how long an account that is no longer read stays in memory.
+ * Cached responses are shared between callers and must not be modified.
+ */
+@Component
+public class AccountCache {
+
+    private final Cache<String, AccountResponse> cache;
+
+    public AccountCache(MeterRegistry meterRegistry,
+                        @Value("${account.cache.max-size:10000}") long maxSize,
+                        @Value("${account.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accountCache");
+    }
+
+    /**
+     * Return the cached account, loading it on a miss
+     *
+     * @param loader returns null for an unknown account; misses are not cached
+     * @return the account, or null if it does not exist
+     */
+    public AccountResponse get(String accountId, Function<String, AccountResponse> loader) {
+        return cache.get(accountId, loader);
+    }
+
+    /**
+     * Drop an account so the next read goes to the database
+     */
+    public void evict(String accountId) {
+        cache.invalidate(accountId);
+    }
+
+    /**
+     * Drop every cached account
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
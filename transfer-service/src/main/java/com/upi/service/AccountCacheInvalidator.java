@@ -0,0 +1,46 @@
+package com.upi.service;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.upi.model.Account;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that evicts an account from AccountCache whenever its row is written,
+ * which covers account updates, soft deletes and both sides of every transfer.
+ * The entry is dropped immediately and again after the transaction completes, so a reader
+ * that repopulated the cache before commit cannot keep the old balance.
+ * Bulk JPQL updates bypass entity listeners, so accounts must only be changed through the entity.
+ */
+@Component
+public class AccountCacheInvalidator {
+
+    private final AccountCache accountCache;
+
+    // Lazy because Hibernate creates this listener before the rest of the context is ready
+    public AccountCacheInvalidator(@Lazy AccountCache accountCache) {
+        this.accountCache = accountCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Account account) {
+        String accountId = account.getAccountId();
+        accountCache.evict(accountId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    accountCache.evict(accountId);
+                }
+            });
+        }
+    }
+}
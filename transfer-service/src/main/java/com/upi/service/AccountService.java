@@ -5,6 +5,7 @@ import java.util.List;
 import com.upi.dto.AccountRequest;
 import com.upi.dto.AccountResponse;
 import com.upi.dto.AccountUpdateRequest;
+import com.upi.dto.BulkAccountResponse;
 import com.upi.model.AccountStatus;
 
 /**
@@ -20,6 +21,16 @@ public interface AccountService {
      */
     AccountResponse createAccount(AccountRequest request);
 
+    /**
+     * Create many accounts in a single database transaction.
+     * Duplicates, whether already stored or repeated within the request, are rejected
+     * per item; the remaining accounts are still created.
+     * 
+     * @param requests Account creation requests
+     * @return BulkAccountResponse with one result per request
+     */
+    BulkAccountResponse createAccountsBulk(List<AccountRequest> requests);
+
     /**
      * Get account by ID
      * 
@@ -1,14 +1,23 @@
 package com.upi.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.upi.dto.AccountRequest;
 import com.upi.dto.AccountResponse;
 import com.upi.dto.AccountUpdateRequest;
+import com.upi.dto.BulkAccountResponse;
+import com.upi.dto.BulkAccountResult;
 import com.upi.exception.AccountNotFoundException;
 import com.upi.exception.DuplicateAccountException;
 import com.upi.model.Account;
@@ -27,6 +36,9 @@ import lombok.extern.slf4j.Slf4j;
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final AccountUniquenessFilter uniquenessFilter;
+    private final StripedLedger stripedLedger;
 
     @Override
     @Transactional
@@ -38,42 +50,104 @@ public class AccountServiceImpl implements AccountService {
             throw new DuplicateAccountException(request.getAccountId());
         }
 
-        // Check for duplicate email if provided
-        if (request.getEmail() != null && accountRepository.existsByEmail(request.getEmail())) {
+        // Check for duplicate email if provided (the filter rules out most new emails without a query)
+        if (request.getEmail() != null && uniquenessFilter.mightContainEmail(request.getEmail())
+                && accountRepository.existsByEmail(request.getEmail())) {
             throw new DuplicateAccountException("Email already registered: " + request.getEmail(), request.getEmail());
         }
 
         // Check for duplicate phone if provided
-        if (request.getPhone() != null && accountRepository.existsByPhone(request.getPhone())) {
+        if (request.getPhone() != null && uniquenessFilter.mightContainPhone(request.getPhone())
+                && accountRepository.existsByPhone(request.getPhone())) {
             throw new DuplicateAccountException("Phone number already registered: " + request.getPhone(), request.getPhone());
         }
 
-        // Create account entity
-        Account account = Account.builder()
-                .accountId(request.getAccountId())
-                .accountHolderName(request.getAccountHolderName())
-                .email(request.getEmail())
-                .phone(request.getPhone())
-                .balance(request.getInitialBalance())
-                .accountType(request.getAccountType())
-                .status(AccountStatus.ACTIVE)
-                .build();
-
-        Account savedAccount = accountRepository.save(account);
+        // Flushed here so that a duplicate the checks above missed, through a stale filter
+        // or a concurrent insert, is reported as a duplicate rather than failing the commit
+        Account savedAccount;
+        try {
+            savedAccount = accountRepository.saveAndFlush(newAccount(request));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Account insert hit a unique constraint: {}", request.getAccountId());
+            throw new DuplicateAccountException(
+                    "Account ID, email or phone already registered: " + request.getAccountId(), request.getAccountId());
+        }
+        if (stripedLedger.isStriped(savedAccount.getAccountId())) {
+            stripedLedger.provision(savedAccount.getAccountId());
+        }
         log.info("Account created successfully: {}", savedAccount.getAccountId());
 
         return AccountResponse.fromEntity(savedAccount);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
+    public BulkAccountResponse createAccountsBulk(List<AccountRequest> requests) {
+        log.info("Creating accounts in bulk: Count={}", requests.size());
+
+        // One IN query per key type instead of three existence checks per account;
+        // emails and phones the uniqueness filter rules out are left out of the query
+        Set<String> takenIds = findExisting(requests, AccountRequest::getAccountId,
+                accountId -> true, accountRepository::findExistingAccountIds);
+        Set<String> takenEmails = findExisting(requests, AccountRequest::getEmail,
+                uniquenessFilter::mightContainEmail, accountRepository::findExistingEmails);
+        Set<String> takenPhones = findExisting(requests, AccountRequest::getPhone,
+                uniquenessFilter::mightContainPhone, accountRepository::findExistingPhones);
+
+        List<BulkAccountResult> results = new ArrayList<>(requests.size());
+        List<Account> accounts = new ArrayList<>();
+        for (AccountRequest request : requests) {
+            String duplicate = findDuplicate(request, takenIds, takenEmails, takenPhones);
+            if (duplicate != null) {
+                log.warn("Bulk account item rejected: AccountId={}, Reason={}", request.getAccountId(), duplicate);
+                results.add(BulkAccountResult.failure(request.getAccountId(), duplicate));
+                continue;
+            }
+
+            // Later items in the same request may not reuse these keys
+            takenIds.add(request.getAccountId());
+            if (request.getEmail() != null) {
+                takenEmails.add(request.getEmail());
+            }
+            if (request.getPhone() != null) {
+                takenPhones.add(request.getPhone());
+            }
+
+            accounts.add(newAccount(request));
+            results.add(BulkAccountResult.created(request.getAccountId()));
+        }
+
+        // Inserted in one flush so Hibernate can group them into JDBC batches
+        accountRepository.saveAll(accounts);
+        for (Account account : accounts) {
+            if (stripedLedger.isStriped(account.getAccountId())) {
+                stripedLedger.provision(account.getAccountId());
+            }
+        }
+
+        log.info("Bulk account creation completed: Created={}, Failed={}",
+                accounts.size(), requests.size() - accounts.size());
+
+        return BulkAccountResponse.builder()
+                .totalCount(requests.size())
+                .createdCount(accounts.size())
+                .failureCount(requests.size() - accounts.size())
+                .results(results)
+                .build();
+    }
+
+    @Override
     public AccountResponse getAccount(String accountId) {
         log.debug("Fetching account: {}", accountId);
-        
-        Account account = accountRepository.findByAccountId(accountId)
-                .orElseThrow(() -> new AccountNotFoundException(accountId));
-        
-        return AccountResponse.fromEntity(account);
+
+        // Striped accounts change with every credit, so caching them would only cost evictions
+        AccountResponse account = stripedLedger.isStriped(accountId)
+                ? withStripes(loadAccount(accountId))
+                : accountCache.get(accountId, this::loadAccount);
+        if (account == null) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return account;
     }
 
     @Override
@@ -83,6 +157,7 @@ public class AccountServiceImpl implements AccountService {
         
         return accountRepository.findAll().stream()
                 .map(AccountResponse::fromEntity)
+                .map(this::withStripes)
                 .collect(Collectors.toList());
     }
 
@@ -93,6 +168,7 @@ public class AccountServiceImpl implements AccountService {
         
         return accountRepository.findByStatus(status).stream()
                 .map(AccountResponse::fromEntity)
+                .map(this::withStripes)
                 .collect(Collectors.toList());
     }
 
@@ -110,22 +186,26 @@ public class AccountServiceImpl implements AccountService {
         }
 
         if (request.getEmail() != null) {
-            // Check if email is already used by another account
-            accountRepository.findByEmail(request.getEmail())
-                    .filter(a -> !a.getAccountId().equals(accountId))
-                    .ifPresent(a -> {
-                        throw new DuplicateAccountException("Email already registered: " + request.getEmail(), request.getEmail());
-                    });
+            // Check if email is already used by another account (the filter rules out most new values)
+            if (uniquenessFilter.mightContainEmail(request.getEmail())) {
+                accountRepository.findByEmail(request.getEmail())
+                        .filter(a -> !a.getAccountId().equals(accountId))
+                        .ifPresent(a -> {
+                            throw new DuplicateAccountException("Email already registered: " + request.getEmail(), request.getEmail());
+                        });
+            }
             account.setEmail(request.getEmail());
         }
 
         if (request.getPhone() != null) {
-            // Check if phone is already used by another account
-            accountRepository.findByPhone(request.getPhone())
-                    .filter(a -> !a.getAccountId().equals(accountId))
-                    .ifPresent(a -> {
-                        throw new DuplicateAccountException("Phone already registered: " + request.getPhone(), request.getPhone());
-                    });
+            // Check if phone is already used by another account (the filter rules out most new values)
+            if (uniquenessFilter.mightContainPhone(request.getPhone())) {
+                accountRepository.findByPhone(request.getPhone())
+                        .filter(a -> !a.getAccountId().equals(accountId))
+                        .ifPresent(a -> {
+                            throw new DuplicateAccountException("Phone already registered: " + request.getPhone(), request.getPhone());
+                        });
+            }
             account.setPhone(request.getPhone());
         }
 
@@ -136,7 +216,7 @@ public class AccountServiceImpl implements AccountService {
         Account updatedAccount = accountRepository.save(account);
         log.info("Account updated successfully: {}", accountId);
 
-        return AccountResponse.fromEntity(updatedAccount);
+        return withStripes(AccountResponse.fromEntity(updatedAccount));
     }
 
     @Override
@@ -155,8 +235,73 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public boolean accountExists(String accountId) {
-        return accountRepository.existsByAccountId(accountId);
+        return accountCache.get(accountId, this::loadAccount) != null;
+    }
+
+    /**
+     * Build a new active account entity from a creation request
+     */
+    private Account newAccount(AccountRequest request) {
+        return Account.builder()
+                .accountId(request.getAccountId())
+                .accountHolderName(request.getAccountHolderName())
+                .email(request.getEmail())
+                .phone(request.getPhone())
+                .balance(request.getInitialBalance())
+                .accountType(request.getAccountType())
+                .status(AccountStatus.ACTIVE)
+                .build();
+    }
+
+    /**
+     * Look up which values of one key are already stored, skipping the query when no candidates remain
+     */
+    private Set<String> findExisting(List<AccountRequest> requests, Function<AccountRequest, String> key,
+                                     Predicate<String> candidate, Function<Collection<String>, List<String>> query) {
+        Set<String> values = new HashSet<>();
+        for (AccountRequest request : requests) {
+            String value = key.apply(request);
+            if (value != null && candidate.test(value)) {
+                values.add(value);
+            }
+        }
+        return values.isEmpty() ? new HashSet<>() : new HashSet<>(query.apply(values));
+    }
+
+    /**
+     * Describe why a bulk item collides with a stored or earlier account, or null if it does not
+     */
+    private String findDuplicate(AccountRequest request, Set<String> takenIds,
+                                 Set<String> takenEmails, Set<String> takenPhones) {
+        if (takenIds.contains(request.getAccountId())) {
+            return String.format("Account already exists with ID: %s", request.getAccountId());
+        }
+        if (request.getEmail() != null && takenEmails.contains(request.getEmail())) {
+            return "Email already registered: " + request.getEmail();
+        }
+        if (request.getPhone() != null && takenPhones.contains(request.getPhone())) {
+            return "Phone number already registered: " + request.getPhone();
+        }
+        return null;
+    }
+
+    /**
+     * Report a striped account's balance as its row plus all stripes, read in one statement
+     */
+    private AccountResponse withStripes(AccountResponse account) {
+        if (account != null && stripedLedger.isStriped(account.getAccountId())) {
+            account.setBalance(stripedLedger.totalBalance(account.getAccountId()));
+        }
+        return account;
+    }
+
+    /**
+     * Cache loader: read an account from the database, or null if it does not exist
+     */
+    private AccountResponse loadAccount(String accountId) {
+        return accountRepository.findByAccountId(accountId)
+                .map(AccountResponse::fromEntity)
+                .orElse(null);
     }
 }
@@ -0,0 +1,134 @@
+package com.upi.service;
+
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.upi.model.Account;
+import com.upi.repository.AccountRepository;
+import com.upi.util.BloomFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory Bloom filters of every registered email and phone number.
+ *
+ * Account creation and update ask this filter first and only query the database when it
+ * reports a possible match, which skips the lookup for almost every new email or phone.
+ * The filters are filled by a streaming scan once the application is ready and kept current
+ * by AccountUniquenessListener on every account write. Until the scan has finished, every
+ * value is reported as a possible match so callers fall back to the database.
+ *
+ * The filters only see writes made through this instance; the unique constraints on
+ * accounts.email and accounts.phone remain the final guard.
+ */
+@Component
+@Slf4j
+public class AccountUniquenessFilter {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final BloomFilter emails;
+    private final BloomFilter phones;
+    private final Counter negativeChecks;
+    private final Counter positiveChecks;
+
+    private volatile boolean ready;
+
+    public AccountUniquenessFilter(AccountRepository accountRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${account.uniqueness-filter.expected-insertions:1000000}") long expectedInsertions,
+                                   @Value("${account.uniqueness-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.accountRepository = accountRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.phones = new BloomFilter(expectedInsertions, falsePositiveRate);
+
+        registerGauges(meterRegistry, "email", emails);
+        registerGauges(meterRegistry, "phone", phones);
+        this.negativeChecks = Counter.builder("account.uniqueness.filter.checks")
+                .description("Uniqueness checks answered by the filter without a database query")
+                .tag("result", "negative")
+                .register(meterRegistry);
+        this.positiveChecks = Counter.builder("account.uniqueness.filter.checks")
+                .description("Uniqueness checks the filter passed on to the database")
+                .tag("result", "positive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fill both filters from the accounts table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        long[] counts = readOnlyTransaction.execute(status -> {
+            try (Stream<String> emailStream = accountRepository.streamAllEmails();
+                 Stream<String> phoneStream = accountRepository.streamAllPhones()) {
+                long emailCount = emailStream.peek(emails::put).count();
+                long phoneCount = phoneStream.peek(phones::put).count();
+                return new long[] {emailCount, phoneCount};
+            }
+        });
+        ready = true;
+        log.info("Account uniqueness filter built: Emails={}, Phones={}, Time={}ms",
+                counts[0], counts[1], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Return false if no account can have this email, true if the database must be checked
+     */
+    public boolean mightContainEmail(String email) {
+        return check(emails, email);
+    }
+
+    /**
+     * Return false if no account can have this phone number, true if the database must be checked
+     */
+    public boolean mightContainPhone(String phone) {
+        return check(phones, phone);
+    }
+
+    /**
+     * Record the email and phone of an account that has been written
+     */
+    public void add(Account account) {
+        if (account.getEmail() != null) {
+            emails.put(account.getEmail());
+        }
+        if (account.getPhone() != null) {
+            phones.put(account.getPhone());
+        }
+    }
+
+    private boolean check(BloomFilter filter, String value) {
+        if (ready && !filter.mightContain(value)) {
+            negativeChecks.increment();
+            return false;
+        }
+        positiveChecks.increment();
+        return true;
+    }
+
+    private static void registerGauges(MeterRegistry meterRegistry, String key, BloomFilter filter) {
+        Gauge.builder("account.uniqueness.filter.memory", filter, BloomFilter::memoryBytes)
+                .description("Size of the uniqueness filter bit array")
+                .baseUnit("bytes")
+                .tag("key", key)
+                .register(meterRegistry);
+        Gauge.builder("account.uniqueness.filter.fpp", filter, BloomFilter::expectedFalsePositiveRate)
+                .description("Estimated false-positive probability of the uniqueness filter")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.upi.service;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.upi.model.Account;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that adds the email and phone of every written account to
+ * AccountUniquenessFilter. Values are added as soon as the row is flushed; if the
+ * transaction then rolls back the filter keeps a harmless false positive.
+ */
+@Component
+public class AccountUniquenessListener {
+
+    private final AccountUniquenessFilter uniquenessFilter;
+
+    // Lazy because Hibernate creates this listener before the rest of the context is ready
+    public AccountUniquenessListener(@Lazy AccountUniquenessFilter uniquenessFilter) {
+        this.uniquenessFilter = uniquenessFilter;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Account account) {
+        uniquenessFilter.add(account);
+    }
+}
@@ -0,0 +1,91 @@
+package com.upi.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.upi.dto.TransferRequest;
+import com.upi.dto.TransferResponse;
+import com.upi.exception.IdempotencyKeyMismatchException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded in-memory store of recent transfer results keyed by Idempotency-Key.
+ *
+ * This is the fast path for client retries: a hit is replayed without touching the
+ * database. Entries expire after the configured TTL or when the store is full; the
+ * unique idempotency_key column on transactions remains the source of truth after that.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final Cache<String, StoredTransfer> cache;
+
+    public IdempotencyStore(MeterRegistry meterRegistry,
+                            @Value("${transfer.idempotency.max-entries:100000}") long maxEntries,
+                            @Value("${transfer.idempotency.ttl:24h}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotencyStore");
+    }
+
+    /**
+     * Look up the stored result for a key
+     *
+     * @throws IdempotencyKeyMismatchException if the key was used for a different transfer
+     */
+    public Optional<TransferResponse> find(String idempotencyKey, TransferRequest request) {
+        StoredTransfer stored = cache.getIfPresent(idempotencyKey);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        if (!stored.fingerprint().equals(fingerprint(request))) {
+            throw new IdempotencyKeyMismatchException(idempotencyKey);
+        }
+        return Optional.of(stored.response());
+    }
+
+    /**
+     * Remember a result once the surrounding database transaction has committed,
+     * so a rolled-back transfer is never replayed
+     */
+    public void rememberAfterCommit(String idempotencyKey, TransferRequest request, TransferResponse response) {
+        StoredTransfer stored = new StoredTransfer(fingerprint(request), response);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.put(idempotencyKey, stored);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(idempotencyKey, stored);
+            }
+        });
+    }
+
+    /**
+     * Identifies what a key was used for: the same key must always carry the same transfer
+     */
+    static String fingerprint(String fromAccId, String toAccId, BigDecimal amount) {
+        return fromAccId + '|' + toAccId + '|' + amount.stripTrailingZeros().toPlainString();
+    }
+
+    private static String fingerprint(TransferRequest request) {
+        return fingerprint(request.getFromAccId(), request.getToAccId(), request.getAmount());
+    }
+
+    private record StoredTransfer(String fingerprint, TransferResponse response) {
+    }
+}
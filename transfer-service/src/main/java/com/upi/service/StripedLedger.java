@@ -0,0 +1,191 @@
+package com.upi.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.upi.model.Account;
+import com.upi.model.AccountStripe;
+import com.upi.repository.AccountRepository;
+import com.upi.repository.AccountStripeRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Striped sub-ledgers for hot accounts that receive more credits than one row lock can serialise.
+ *
+ * Accounts listed in transfer.striped-accounts.account-ids get transfer.striped-accounts.stripes
+ * rows in account_stripes. A credit to such an account adds to one stripe, chosen by hashing the
+ * transaction reference, with a single UPDATE; the accounts row itself is neither locked nor written.
+ * The account's balance is its own balance plus the sum of its stripes. A scheduled fold moves
+ * the stripe balances back into the accounts row. Stripes are created with the account, or at
+ * startup for accounts that already exist.
+ *
+ * A debit from a striped account folds its stripes first when the accounts row alone cannot cover it,
+ * so the row never goes negative.
+ *
+ * Lock order is accounts rows before stripe rows: transfers lock the source account and then one
+ * stripe, and a fold locks the striped account and then all of its stripes.
+ */
+@Component
+@Slf4j
+public class StripedLedger {
+
+    private final AccountRepository accountRepository;
+    private final AccountStripeRepository stripeRepository;
+    private final TransactionTemplate newTransaction;
+    private final Set<String> accountIds;
+    private final int stripes;
+
+    public StripedLedger(AccountRepository accountRepository,
+                         AccountStripeRepository stripeRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${transfer.striped-accounts.account-ids:}") List<String> accountIds,
+                         @Value("${transfer.striped-accounts.stripes:8}") int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripe count must be at least 1: " + stripes);
+        }
+        this.accountRepository = accountRepository;
+        this.stripeRepository = stripeRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.accountIds = Set.copyOf(accountIds);
+        this.stripes = stripes;
+    }
+
+    /**
+     * Check if credits to an account are spread over stripes
+     */
+    public boolean isStriped(String accountId) {
+        return accountIds.contains(accountId);
+    }
+
+    /**
+     * Credit a striped account inside the caller's transaction
+     *
+     * @param hashKey spreads credits over the stripes, e.g. the transaction reference number
+     */
+    public void credit(String accountId, BigDecimal amount, String hashKey) {
+        int stripeIndex = Math.floorMod(hashKey.hashCode(), stripes);
+        if (stripeRepository.credit(accountId, stripeIndex, amount) == 0) {
+            throw new IllegalStateException("No stripe " + stripeIndex + " for account " + accountId);
+        }
+    }
+
+    /**
+     * Sum of the stripes of an account, excluding the accounts row
+     */
+    public BigDecimal stripeBalance(String accountId) {
+        return stripeRepository.sumBalance(accountId);
+    }
+
+    /**
+     * Account balance including all stripes, read in a single statement
+     */
+    public BigDecimal totalBalance(String accountId) {
+        return stripeRepository.findTotalBalance(accountId).orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * Create the stripes of every configured account that already exists.
+     * Accounts created later get their stripes from AccountService.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void provisionAll() {
+        for (String accountId : accountIds) {
+            try {
+                newTransaction.executeWithoutResult(status -> {
+                    if (accountRepository.existsByAccountId(accountId)) {
+                        provision(accountId);
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created them first
+                log.debug("Stripes for account {} were provisioned concurrently", accountId);
+            }
+        }
+        if (!accountIds.isEmpty()) {
+            log.info("Striped accounts ready: Accounts={}, Stripes={}", accountIds, stripes);
+        }
+    }
+
+    /**
+     * Move the stripe balances of every configured account into its accounts row
+     */
+    @Scheduled(fixedDelayString = "${transfer.striped-accounts.fold-interval:5s}",
+               initialDelayString = "${transfer.striped-accounts.fold-interval:5s}")
+    public void foldAll() {
+        for (String accountId : accountIds) {
+            fold(accountId);
+        }
+    }
+
+    /**
+     * Move the stripe balances of one account into its accounts row in its own transaction.
+     * The total balance is unchanged, so no transaction record is written.
+     *
+     * @return the amount folded
+     */
+    public BigDecimal fold(String accountId) {
+        BigDecimal folded = newTransaction.execute(status -> accountRepository.findByAccountIdForUpdate(accountId)
+                .map(this::foldInto)
+                .orElse(BigDecimal.ZERO));
+        if (folded.signum() != 0) {
+            log.debug("Folded stripes: Account={}, Amount={}", accountId, folded);
+        }
+        return folded;
+    }
+
+    /**
+     * Move the stripe balances of an account the caller has already locked into its accounts row,
+     * inside the caller's transaction
+     *
+     * @return the amount folded
+     */
+    public BigDecimal foldInto(Account account) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountStripe stripe : stripeRepository.findByAccountIdForUpdate(account.getAccountId())) {
+            if (stripe.getBalance().signum() != 0) {
+                total = total.add(stripe.getBalance());
+                stripe.setBalance(BigDecimal.ZERO);
+            }
+        }
+        if (total.signum() != 0) {
+            account.credit(total);
+        }
+        return total;
+    }
+
+    /**
+     * Create any missing stripes of a striped account inside the caller's transaction.
+     * Stripes are never created on the transfer path: doing so there would either race other
+     * transfers on uk_account_stripe or need a second connection per transfer.
+     */
+    public void provision(String accountId) {
+        Set<Integer> existing = new HashSet<>(stripeRepository.findStripeIndexes(accountId));
+        Account account = accountRepository.getReferenceById(accountId);
+        List<AccountStripe> missing = new ArrayList<>();
+        for (int i = 0; i < stripes; i++) {
+            if (!existing.contains(i)) {
+                missing.add(AccountStripe.builder()
+                        .account(account)
+                        .stripeIndex(i)
+                        .balance(BigDecimal.ZERO)
+                        .build());
+            }
+        }
+        stripeRepository.saveAll(missing);
+    }
+}
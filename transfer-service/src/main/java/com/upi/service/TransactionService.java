@@ -1,12 +1,16 @@
 package com.upi.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.upi.dto.ExportFormat;
 import com.upi.dto.TransactionResponse;
+import com.upi.dto.TransactionSliceResponse;
 
 /**
  * Service interface for transaction history operations.
@@ -38,6 +42,28 @@ public interface TransactionService {
      */
     Page<TransactionResponse> getTransactionsByAccountPaginated(String accountId, Pageable pageable);
 
+    /**
+     * Get one slice of an account's transactions using keyset pagination
+     * 
+     * @param accountId Account ID
+     * @param cursor Opaque cursor from the previous slice, or null for the newest transactions
+     * @param size Maximum number of transactions to return
+     * @return Slice of transactions with the cursor for the next slice
+     */
+    TransactionSliceResponse getTransactionsByAccountSlice(String accountId, String cursor, int size);
+
+    /**
+     * Write an account's full transaction history to the given stream, oldest first.
+     * Rows are streamed from the database and written one at a time, so memory use does
+     * not depend on the size of the history. Must be called where blocking I/O is allowed.
+     * 
+     * @param accountId Account ID
+     * @param format Output format
+     * @param out Destination stream; flushed but not closed
+     * @return Number of transactions written
+     */
+    long exportTransactionsByAccount(String accountId, ExportFormat format, OutputStream out) throws IOException;
+
     /**
      * Get sent transactions (debits) for an account
      * 
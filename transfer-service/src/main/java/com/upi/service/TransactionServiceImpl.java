@@ -1,21 +1,37 @@
 package com.upi.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upi.dto.ExportFormat;
 import com.upi.dto.TransactionResponse;
+import com.upi.dto.TransactionSliceResponse;
 import com.upi.exception.AccountNotFoundException;
 import com.upi.exception.TransactionNotFoundException;
 import com.upi.model.Transaction;
 import com.upi.repository.AccountRepository;
 import com.upi.repository.TransactionRepository;
+import com.upi.util.TransactionCursor;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,8 +43,20 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(Transaction::getTransactionId)
+            .reversed();
+
+    private static final String CSV_HEADER = "transactionId,referenceNumber,fromAccountId,fromAccountName,toAccountId,"
+            + "toAccountName,amount,transactionType,status,description,failureReason,transactionDate\n";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional(readOnly = true)
@@ -70,6 +98,84 @@ public class TransactionServiceImpl implements TransactionService {
                 .map(TransactionResponse::fromEntity);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionSliceResponse getTransactionsByAccountSlice(String accountId, String cursor, int size) {
+        log.debug("Fetching transaction slice for account: {}, size: {}", accountId, size);
+        
+        // Verify account exists
+        if (!accountRepository.existsByAccountId(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        
+        // One extra row tells us whether another slice follows without a COUNT query
+        Limit limit = Limit.of(size + 1);
+        List<Transaction> sent;
+        List<Transaction> received;
+        if (cursor == null || cursor.isBlank()) {
+            sent = transactionRepository.findSentSlice(accountId, limit);
+            received = transactionRepository.findReceivedSlice(accountId, limit);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            sent = transactionRepository.findSentSliceAfter(
+                    accountId, position.transactionDate(), position.transactionId(), limit);
+            received = transactionRepository.findReceivedSliceAfter(
+                    accountId, position.transactionDate(), position.transactionId(), limit);
+        }
+        
+        // Each side is an index range scan; merging the two sorted lists replaces the OR query
+        List<Transaction> merged = mergeNewestFirst(sent, received, size + 1);
+        boolean hasNext = merged.size() > size;
+        List<Transaction> slice = hasNext ? merged.subList(0, size) : merged;
+        
+        return TransactionSliceResponse.builder()
+                .content(slice.stream()
+                        .map(TransactionResponse::fromEntity)
+                        .collect(Collectors.toList()))
+                .size(slice.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? TransactionCursor.of(slice.get(slice.size() - 1)).encode() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTransactionsByAccount(String accountId, ExportFormat format, OutputStream out) throws IOException {
+        log.debug("Exporting transactions for account: {} as {}", accountId, format);
+        
+        // Verify account exists
+        if (!accountRepository.existsByAccountId(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        
+        long count = 0;
+        try (Stream<Transaction> transactions = transactionRepository.streamByAccountId(accountId)) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                TransactionResponse row = TransactionResponse.fromEntity(iterator.next());
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                // Read-only entities are still tracked; clearing keeps the persistence context from growing with the export
+                if (++count % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+        
+        log.debug("Exported {} transactions for account: {}", count, accountId);
+        return count;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<TransactionResponse> getSentTransactions(String accountId) {
@@ -124,4 +230,62 @@ public class TransactionServiceImpl implements TransactionService {
                 .map(TransactionResponse::fromEntity)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Merge two lists sorted by (transactionDate DESC, transactionId DESC), keeping at most limit rows
+     */
+    private List<Transaction> mergeNewestFirst(List<Transaction> first, List<Transaction> second, int limit) {
+        List<Transaction> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j >= second.size()
+                    || (i < first.size() && NEWEST_FIRST.compare(first.get(i), second.get(j)) <= 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    private void writeCsvRow(Writer writer, TransactionResponse row) throws IOException {
+        writer.write(String.valueOf(row.getTransactionId()));
+        writer.write(',');
+        writer.write(csvValue(row.getReferenceNumber()));
+        writer.write(',');
+        writer.write(csvValue(row.getFromAccountId()));
+        writer.write(',');
+        writer.write(csvValue(row.getFromAccountName()));
+        writer.write(',');
+        writer.write(csvValue(row.getToAccountId()));
+        writer.write(',');
+        writer.write(csvValue(row.getToAccountName()));
+        writer.write(',');
+        writer.write(row.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(row.getTransactionType().name());
+        writer.write(',');
+        writer.write(row.getStatus().name());
+        writer.write(',');
+        writer.write(csvValue(row.getDescription()));
+        writer.write(',');
+        writer.write(csvValue(row.getFailureReason()));
+        writer.write(',');
+        writer.write(row.getTransactionDate().toString());
+        writer.write('\n');
+    }
+
+    /**
+     * Quote a CSV field when it contains a delimiter, quote or line break (RFC 4180)
+     */
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
 }
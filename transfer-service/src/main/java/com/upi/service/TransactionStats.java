@@ -0,0 +1,178 @@
+package com.upi.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.upi.dto.TransactionStatsResponse;
+import com.upi.model.TransactionStatus;
+import com.upi.model.TransactionType;
+import com.upi.repository.TransactionRepository;
+import com.upi.repository.TransactionRepository.StatsRow;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Running counts and amount sums of transactions per status, per type and per day.
+ *
+ * The counters are rebuilt from one grouped scan of the transactions table when the bean is
+ * created, before the web server accepts requests, and from then on TransactionStatsListener
+ * adds every transaction as its database transaction commits. Reading the statistics never
+ * touches the database. Transactions are written once with their final status, so inserts are
+ * the only changes counted.
+ *
+ * Amounts are kept as LongAdders of paise, so concurrent commits never contend on one lock.
+ * Daily buckets are kept for transfer.stats.days days.
+ */
+@Component
+@Slf4j
+public class TransactionStats {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int days;
+
+    private final Tally total = new Tally();
+    private final Map<TransactionStatus, Tally> byStatus = new EnumMap<>(TransactionStatus.class);
+    private final Map<TransactionType, Tally> byType = new EnumMap<>(TransactionType.class);
+    private final Map<LocalDate, Tally> byDay = new ConcurrentHashMap<>();
+
+    public TransactionStats(TransactionRepository transactionRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${transfer.stats.days:30}") int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Stats days must be at least 1: " + days);
+        }
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.days = days;
+
+        // Every key exists up front, so the enum maps are never written after construction
+        for (TransactionStatus status : TransactionStatus.values()) {
+            byStatus.put(status, new Tally());
+        }
+        for (TransactionType type : TransactionType.values()) {
+            byType.put(type, new Tally());
+        }
+    }
+
+    /**
+     * Reset the counters and reload them from the transactions table.
+     * Transactions committed while the scan runs may be counted twice or not at all.
+     */
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<StatsRow> rows = readOnlyTransaction.execute(status -> transactionRepository.summarizeByStatusTypeAndDay());
+
+        total.reset();
+        byStatus.values().forEach(Tally::reset);
+        byType.values().forEach(Tally::reset);
+        byDay.clear();
+
+        LocalDate oldestDay = oldestDay();
+        for (StatsRow row : rows) {
+            long paise = toPaise(row.getTotalAmount());
+            total.add(row.getTransactionCount(), paise);
+            byStatus.get(row.getStatus()).add(row.getTransactionCount(), paise);
+            byType.get(row.getTransactionType()).add(row.getTransactionCount(), paise);
+            if (!row.getTransactionDay().isBefore(oldestDay)) {
+                dayTally(row.getTransactionDay()).add(row.getTransactionCount(), paise);
+            }
+        }
+        log.info("Transaction stats rebuilt: Transactions={}, Groups={}, Time={}ms",
+                total.count.sum(), rows.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Count one committed transaction
+     */
+    public void record(TransactionStatus status, TransactionType type, LocalDate day, BigDecimal amount) {
+        long paise = toPaise(amount);
+        total.add(1, paise);
+        byStatus.get(status).add(1, paise);
+        byType.get(type).add(1, paise);
+        if (!day.isBefore(oldestDay())) {
+            dayTally(day).add(1, paise);
+        }
+    }
+
+    /**
+     * Current statistics; the daily breakdown lists the last transfer.stats.days days, newest first
+     */
+    public TransactionStatsResponse snapshot() {
+        Map<TransactionStatus, TransactionStatsResponse.Bucket> statuses = new EnumMap<>(TransactionStatus.class);
+        byStatus.forEach((status, tally) -> statuses.put(status, tally.toBucket()));
+
+        Map<TransactionType, TransactionStatsResponse.Bucket> types = new EnumMap<>(TransactionType.class);
+        byType.forEach((type, tally) -> types.put(type, tally.toBucket()));
+
+        Map<LocalDate, TransactionStatsResponse.Bucket> daily = new LinkedHashMap<>();
+        LocalDate day = LocalDate.now();
+        for (int i = 0; i < days; i++, day = day.minusDays(1)) {
+            Tally tally = byDay.get(day);
+            daily.put(day, tally != null ? tally.toBucket() : new TransactionStatsResponse.Bucket(0, BigDecimal.ZERO.setScale(2)));
+        }
+
+        return TransactionStatsResponse.builder()
+                .total(total.toBucket())
+                .byStatus(statuses)
+                .byType(types)
+                .byDay(daily)
+                .build();
+    }
+
+    private Tally dayTally(LocalDate day) {
+        Tally tally = byDay.get(day);
+        if (tally == null) {
+            tally = byDay.computeIfAbsent(day, d -> new Tally());
+            // A new day has started: drop the buckets that fell out of the window
+            LocalDate oldestDay = oldestDay();
+            byDay.keySet().removeIf(d -> d.isBefore(oldestDay));
+        }
+        return tally;
+    }
+
+    private LocalDate oldestDay() {
+        return LocalDate.now().minusDays(days - 1);
+    }
+
+    private static long toPaise(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Count and amount of one bucket
+     */
+    private static final class Tally {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder paise = new LongAdder();
+
+        void add(long transactions, long amountPaise) {
+            count.add(transactions);
+            paise.add(amountPaise);
+        }
+
+        void reset() {
+            count.reset();
+            paise.reset();
+        }
+
+        TransactionStatsResponse.Bucket toBucket() {
+            return new TransactionStatsResponse.Bucket(count.sum(), BigDecimal.valueOf(paise.sum(), 2));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.upi.service;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.upi.model.Transaction;
+
+import jakarta.persistence.PostPersist;
+
+/**
+ * JPA entity listener that adds every inserted transaction to TransactionStats once the
+ * database transaction commits. A rolled-back transfer is never counted.
+ */
+@Component
+public class TransactionStatsListener {
+
+    private final TransactionStats transactionStats;
+
+    // Lazy because Hibernate creates this listener before the rest of the context is ready
+    public TransactionStatsListener(@Lazy TransactionStats transactionStats) {
+        this.transactionStats = transactionStats;
+    }
+
+    @PostPersist
+    public void onInsert(Transaction transaction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(transaction);
+                }
+            });
+        } else {
+            record(transaction);
+        }
+    }
+
+    private void record(Transaction transaction) {
+        transactionStats.record(transaction.getStatus(), transaction.getTransactionType(),
+                transaction.getTransactionDate().toLocalDate(), transaction.getAmount());
+    }
+}
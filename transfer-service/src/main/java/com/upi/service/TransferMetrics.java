@@ -0,0 +1,151 @@
+package com.upi.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.upi.exception.BusinessException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer instrumentation for the transfer pipeline.
+ *
+ * transfer.stage times each step of a transfer (tag stage), transfer.duration times the whole
+ * call including its commit, and transfer.outcomes counts results by status and failure reason.
+ * Percentiles and histogram buckets are configured per meter with
+ * management.metrics.distribution.* properties.
+ */
+@Component
+public class TransferMetrics {
+
+    static final String STAGE_TIMER = "transfer.stage";
+    static final String DURATION_TIMER = "transfer.duration";
+    static final String OUTCOME_COUNTER = "transfer.outcomes";
+    static final String NO_REASON = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer durationTimer;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> outcomeCounters = new ConcurrentHashMap<>();
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.durationTimer = Timer.builder(DURATION_TIMER)
+                .description("Time to process a transfer request end to end")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start timing a whole transfer; pass the sample to {@link #stopDuration}
+     */
+    public Timer.Sample startDuration() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stopDuration(Timer.Sample sample) {
+        sample.stop(durationTimer);
+    }
+
+    /**
+     * Run one stage of a transfer and record how long it took, whether or not it threw
+     */
+    public <T> T time(String stage, Supplier<T> step) {
+        return stageTimer(stage).record(step);
+    }
+
+    public void time(String stage, Runnable step) {
+        stageTimer(stage).record(step);
+    }
+
+    /**
+     * Time the flush and commit of the current transaction as the "commit" stage.
+     * Entity writes are deferred to the flush, so this is where the SQL for a transfer runs.
+     */
+    public void timeCommit() {
+        timeCommit(null, 0);
+    }
+
+    /**
+     * Time the commit and count one transfer with the given status once it has committed
+     */
+    public void timeCommit(String status) {
+        timeCommit(status, 1);
+    }
+
+    /**
+     * Time the commit and count transfers with the given status once it has committed. The INSERTs
+     * run at commit, so transfers that fail there (e.g. on a duplicate Idempotency-Key) are only
+     * counted by the caller's {@link #recordFailure}.
+     */
+    public void timeCommit(String status, int count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (status != null) {
+                outcomeCounter(status, NO_REASON).increment(count);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Timer.Sample sample;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                sample = Timer.start(meterRegistry);
+            }
+
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (sample != null) {
+                    sample.stop(stageTimer("commit"));
+                }
+                if (status != null && completionStatus == STATUS_COMMITTED) {
+                    outcomeCounter(status, NO_REASON).increment(count);
+                }
+            }
+        });
+    }
+
+    /**
+     * Count a completed transfer, e.g. SUCCESS or REPLAYED
+     */
+    public void recordOutcome(String status) {
+        outcomeCounter(status, NO_REASON).increment();
+    }
+
+    /**
+     * Count a transfer that ended with an exception. Business rejections are counted as
+     * REJECTED and anything else as FAILED, with the exception type as the reason.
+     */
+    public void recordFailure(RuntimeException e) {
+        recordFailure(e, 1);
+    }
+
+    /**
+     * Count several transfers that ended with the same exception, e.g. the items of a batch whose commit failed
+     */
+    public void recordFailure(RuntimeException e, int count) {
+        String status = e instanceof BusinessException ? "REJECTED" : "FAILED";
+        outcomeCounter(status, e.getClass().getSimpleName()).increment(count);
+    }
+
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, name -> Timer.builder(STAGE_TIMER)
+                .description("Time spent in one stage of a transfer")
+                .tag("stage", name)
+                .register(meterRegistry));
+    }
+
+    private Counter outcomeCounter(String status, String reason) {
+        return outcomeCounters.computeIfAbsent(status + '|' + reason, key -> Counter.builder(OUTCOME_COUNTER)
+                .description("Transfers by final status and failure reason")
+                .tag("status", status)
+                .tag("reason", reason)
+                .register(meterRegistry));
+    }
+}
@@ -1,5 +1,8 @@
 package com.upi.service;
 
+import java.util.List;
+
+import com.upi.dto.BatchTransferResponse;
 import com.upi.dto.TransferRequest;
 import com.upi.dto.TransferResponse;
 
@@ -15,4 +18,24 @@ public interface TransferService {
      * @return TransferResponse with transaction details
      */
     TransferResponse transferFunds(TransferRequest request);
+
+    /**
+     * Transfer funds between two accounts at most once per idempotency key.
+     * Repeating a request with the same key returns the result of the first successful
+     * attempt without moving money again.
+     * 
+     * @param request Transfer request containing source, destination, and amount
+     * @param idempotencyKey Client-chosen key identifying this transfer, or null to disable deduplication
+     * @return TransferResponse with transaction details
+     */
+    TransferResponse transferFunds(TransferRequest request, String idempotencyKey);
+
+    /**
+     * Transfer funds for a batch of requests in a single database transaction.
+     * Each transfer succeeds or fails on its own; failed items do not affect the others.
+     * 
+     * @param requests Transfer requests, applied in order
+     * @return BatchTransferResponse with one result per request
+     */
+    BatchTransferResponse transferFundsBatch(List<TransferRequest> requests);
 }
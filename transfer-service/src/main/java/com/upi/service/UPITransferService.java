@@ -1,14 +1,25 @@
 package com.upi.service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.upi.dto.BatchTransferResponse;
 import com.upi.dto.TransferRequest;
 import com.upi.dto.TransferResponse;
 import com.upi.exception.AccountNotActiveException;
 import com.upi.exception.AccountNotFoundException;
+import com.upi.exception.IdempotencyKeyMismatchException;
 import com.upi.exception.InsufficientFundsException;
 import com.upi.exception.InvalidTransferException;
 import com.upi.model.Account;
@@ -17,7 +28,9 @@ import com.upi.model.TransactionStatus;
 import com.upi.model.TransactionType;
 import com.upi.repository.AccountRepository;
 import com.upi.repository.TransactionRepository;
+import com.upi.util.ReferenceIdGenerator;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,56 +43,232 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class UPITransferService implements TransferService {
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final ReferenceIdGenerator referenceIdGenerator;
+    private final IdempotencyStore idempotencyStore;
+    private final TransferMetrics transferMetrics;
+    private final StripedLedger stripedLedger;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
-    @Transactional
     public TransferResponse transferFunds(TransferRequest request) {
+        return transferFunds(request, null);
+    }
+
+    /**
+     * Runs the transfer in a transaction of its own, so that a commit that fails on the
+     * idempotency key can be answered from the row that won the race.
+     */
+    @Override
+    public TransferResponse transferFunds(TransferRequest request, String idempotencyKey) {
+        Timer.Sample sample = transferMetrics.startDuration();
+        try {
+            try {
+                return transactionTemplate.execute(status -> executeTransfer(request, idempotencyKey));
+            } catch (DataIntegrityViolationException e) {
+                if (idempotencyKey == null) {
+                    throw e;
+                }
+                return replayAfterConflict(idempotencyKey, request, e);
+            }
+        } catch (RuntimeException e) {
+            transferMetrics.recordFailure(e);
+            throw e;
+        } finally {
+            transferMetrics.stopDuration(sample);
+        }
+    }
+
+    /**
+     * Runs the batch in a transaction of its own, so that a failed commit is counted against
+     * the items it rolled back.
+     */
+    @Override
+    public BatchTransferResponse transferFundsBatch(List<TransferRequest> requests) {
+        AtomicInteger applied = new AtomicInteger();
+        try {
+            return transactionTemplate.execute(status -> executeBatch(requests, applied));
+        } catch (RuntimeException e) {
+            transferMetrics.recordFailure(e, applied.get());
+            throw e;
+        }
+    }
+
+    /**
+     * Apply a batch inside the caller's transaction
+     *
+     * @param applied incremented for every item applied in memory; these all fail if the commit does
+     */
+    private BatchTransferResponse executeBatch(List<TransferRequest> requests, AtomicInteger applied) {
+        log.info("Initiating batch fund transfer: Count={}", requests.size());
+
+        // Pre-load and lock every distinct account once
+        TreeSet<String> accountIds = new TreeSet<>();
+        for (TransferRequest request : requests) {
+            accountIds.add(request.getFromAccId());
+            accountIds.add(request.getToAccId());
+        }
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllByAccountIdInForUpdate(accountIds)) {
+            accounts.put(account.getAccountId(), account);
+        }
+
+        // Apply debits and credits in memory, collecting one result per request
+        List<TransferResponse> results = new ArrayList<>(requests.size());
+        List<Transaction> transactions = new ArrayList<>();
+        Map<String, Account> touchedAccounts = new LinkedHashMap<>();
+        for (TransferRequest request : requests) {
+            try {
+                validateTransferRequest(request);
+
+                Account fromAccount = accounts.get(request.getFromAccId());
+                if (fromAccount == null) {
+                    throw new AccountNotFoundException(request.getFromAccId());
+                }
+                Account toAccount = accounts.get(request.getToAccId());
+                if (toAccount == null) {
+                    throw new AccountNotFoundException(request.getToAccId());
+                }
+
+                validateAccounts(fromAccount, toAccount, request.getAmount());
+
+                Transaction transaction = createTransaction(fromAccount, toAccount, request);
+                transaction.setFromBalanceBefore(fromAccount.getBalance());
+                transaction.setToBalanceBefore(toAccount.getBalance());
+
+                debit(fromAccount, request.getAmount());
+                toAccount.credit(request.getAmount());
+
+                transaction.setFromBalanceAfter(fromAccount.getBalance());
+                transaction.setToBalanceAfter(toAccount.getBalance());
+                transaction.markCompleted();
+
+                transactions.add(transaction);
+                touchedAccounts.put(fromAccount.getAccountId(), fromAccount);
+                touchedAccounts.put(toAccount.getAccountId(), toAccount);
+                results.add(null); // filled in once the transaction row has been written
+                applied.incrementAndGet();
+            } catch (InvalidTransferException | AccountNotFoundException
+                    | AccountNotActiveException | InsufficientFundsException e) {
+                log.warn("Batch transfer item rejected: From={}, To={}, Reason={}",
+                        request.getFromAccId(), request.getToAccId(), e.getMessage());
+                transferMetrics.recordFailure(e);
+                results.add(buildFailureResponse(request, e.getMessage()));
+            }
+        }
+
+        // Write all rows in one flush so Hibernate can group them into JDBC batches
+        accountRepository.saveAll(touchedAccounts.values());
+        transactionRepository.saveAll(transactions);
+        transferMetrics.timeCommit("SUCCESS", transactions.size());
+
+        int transactionIndex = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                Transaction transaction = transactions.get(transactionIndex++);
+                results.set(i, buildSuccessResponse(transaction));
+            }
+        }
+
+        log.info("Batch transfer completed: Succeeded={}, Failed={}",
+                transactions.size(), requests.size() - transactions.size());
+
+        return BatchTransferResponse.builder()
+                .totalCount(requests.size())
+                .successCount(transactions.size())
+                .failureCount(requests.size() - transactions.size())
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Run a single transfer inside the caller's transaction, timing each stage
+     */
+    private TransferResponse executeTransfer(TransferRequest request, String idempotencyKey) {
         log.info("Initiating fund transfer: From={}, To={}, Amount={}",
                 request.getFromAccId(), request.getToAccId(), request.getAmount());
 
+        // Replay a recent result for the same key without touching the accounts
+        if (idempotencyKey != null) {
+            validateIdempotencyKey(idempotencyKey);
+            Optional<TransferResponse> replay = idempotencyStore.find(idempotencyKey, request);
+            if (replay.isPresent()) {
+                log.info("Replaying transfer for Idempotency-Key={}", idempotencyKey);
+                transferMetrics.recordOutcome("REPLAYED");
+                return replay.get();
+            }
+        }
+
         // Validate request
-        validateTransferRequest(request);
+        transferMetrics.time("validate", () -> validateTransferRequest(request));
 
-        // Fetch accounts
-        Account fromAccount = accountRepository.findByAccountId(request.getFromAccId())
-                .orElseThrow(() -> new AccountNotFoundException(request.getFromAccId()));
+        // Fetch and lock accounts; a striped destination is credited through a stripe row instead of its own row
+        boolean stripedCredit = stripedLedger.isStriped(request.getToAccId());
+        Account[] accounts = transferMetrics.time("load_accounts", () -> stripedCredit
+                ? lockSourceAccount(request.getFromAccId(), request.getToAccId())
+                : lockAccounts(request.getFromAccId(), request.getToAccId()));
+        Account fromAccount = accounts[0];
+        Account toAccount = accounts[1];
 
-        Account toAccount = accountRepository.findByAccountId(request.getToAccId())
-                .orElseThrow(() -> new AccountNotFoundException(request.getToAccId()));
+        // A retry racing the original blocks on the account locks above, so the original's row is visible by now
+        if (idempotencyKey != null) {
+            Optional<Transaction> previous = transactionRepository.findByIdempotencyKey(idempotencyKey);
+            if (previous.isPresent()) {
+                transferMetrics.timeCommit("REPLAYED");
+                return replayTransfer(idempotencyKey, request, previous.get());
+            }
+        }
 
         // Validate accounts
-        validateAccounts(fromAccount, toAccount, request.getAmount());
+        transferMetrics.time("validate_accounts", () -> validateAccounts(fromAccount, toAccount, request.getAmount()));
 
         // Create transaction record
         Transaction transaction = createTransaction(fromAccount, toAccount, request);
+        transaction.setIdempotencyKey(idempotencyKey);
 
         try {
             // Record balances before transfer
-            BigDecimal fromBalanceBefore = fromAccount.getBalance();
+            BigDecimal fromBalanceBefore = availableBalance(fromAccount);
             BigDecimal toBalanceBefore = toAccount.getBalance();
 
             // Perform transfer
-            fromAccount.debit(request.getAmount());
-            toAccount.credit(request.getAmount());
+            transferMetrics.time("debit_credit", () -> {
+                debit(fromAccount, request.getAmount());
+                if (stripedCredit) {
+                    stripedLedger.credit(toAccount.getAccountId(), request.getAmount(), transaction.getReferenceNumber());
+                } else {
+                    toAccount.credit(request.getAmount());
+                }
+            });
 
-            // Save updated accounts
-            accountRepository.save(fromAccount);
-            accountRepository.save(toAccount);
-
-            // Update transaction with balance info and mark as completed
+            // Update transaction with balance info and mark as completed.
+            // A striped account's total moves with concurrent credits to its other stripes, so it is not recorded.
             transaction.setFromBalanceBefore(fromBalanceBefore);
-            transaction.setFromBalanceAfter(fromAccount.getBalance());
-            transaction.setToBalanceBefore(toBalanceBefore);
-            transaction.setToBalanceAfter(toAccount.getBalance());
+            transaction.setFromBalanceAfter(fromBalanceBefore.subtract(request.getAmount()));
+            if (!stripedCredit) {
+                transaction.setToBalanceBefore(toBalanceBefore);
+                transaction.setToBalanceAfter(toAccount.getBalance());
+            }
             transaction.markCompleted();
 
-            transactionRepository.save(transaction);
+            // Save updated accounts and the transaction; the SQL itself runs in the commit stage
+            transferMetrics.time("save", () -> {
+                accountRepository.save(fromAccount);
+                accountRepository.save(toAccount);
+                transactionRepository.save(transaction);
+            });
+            transferMetrics.timeCommit("SUCCESS");
 
             log.info("Transfer completed successfully: Reference={}", transaction.getReferenceNumber());
 
-            return buildSuccessResponse(transaction, fromAccount, toAccount);
+            TransferResponse response = buildSuccessResponse(transaction);
+            if (idempotencyKey != null) {
+                idempotencyStore.rememberAfterCommit(idempotencyKey, request, response);
+            }
+            return response;
 
         } catch (Exception e) {
             log.error("Transfer failed: {}", e.getMessage());
@@ -102,6 +291,89 @@ public class UPITransferService implements TransferService {
         }
     }
 
+    /**
+     * Reject keys that do not fit the idempotency_key column
+     */
+    private void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidTransferException(
+                    "Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Answer a retried request from the transaction it already created
+     */
+    private TransferResponse replayTransfer(String idempotencyKey, TransferRequest request, Transaction previous) {
+        String expected = IdempotencyStore.fingerprint(
+                request.getFromAccId(), request.getToAccId(), request.getAmount());
+        String actual = IdempotencyStore.fingerprint(
+                previous.getFromAccount().getAccountId(), previous.getToAccount().getAccountId(), previous.getAmount());
+        if (!expected.equals(actual)) {
+            throw new IdempotencyKeyMismatchException(idempotencyKey);
+        }
+
+        log.info("Replaying transfer for Idempotency-Key={}: Reference={}",
+                idempotencyKey, previous.getReferenceNumber());
+
+        TransferResponse response = buildSuccessResponse(previous);
+        idempotencyStore.rememberAfterCommit(idempotencyKey, request, response);
+        return response;
+    }
+
+    /**
+     * Answer a keyed transfer whose insert lost to a concurrent request with the same key.
+     * Requests for different accounts share no row lock, so both can pass the key lookup in
+     * executeTransfer; the unique idempotency_key column then rejects the second one at commit.
+     * The stored row decides between a replay and a mismatch.
+     */
+    private TransferResponse replayAfterConflict(String idempotencyKey, TransferRequest request,
+                                                 DataIntegrityViolationException conflict) {
+        TransferResponse response = transactionTemplate.execute(status ->
+                transactionRepository.findByIdempotencyKey(idempotencyKey)
+                        .map(previous -> replayTransfer(idempotencyKey, request, previous))
+                        .orElse(null));
+        if (response == null) {
+            // Not a key conflict, or the winner rolled back after all
+            throw conflict;
+        }
+        transferMetrics.recordOutcome("REPLAYED");
+        return response;
+    }
+
+    /**
+     * Lock both accounts with SELECT ... FOR UPDATE, always in ascending account ID order
+     * so that two opposite transfers between the same pair can never deadlock.
+     *
+     * @return the locked accounts as {fromAccount, toAccount}
+     */
+    private Account[] lockAccounts(String fromAccId, String toAccId) {
+        boolean fromFirst = fromAccId.compareTo(toAccId) < 0;
+        String firstId = fromFirst ? fromAccId : toAccId;
+        String secondId = fromFirst ? toAccId : fromAccId;
+
+        Account first = accountRepository.findByAccountIdForUpdate(firstId)
+                .orElseThrow(() -> new AccountNotFoundException(firstId));
+        Account second = accountRepository.findByAccountIdForUpdate(secondId)
+                .orElseThrow(() -> new AccountNotFoundException(secondId));
+
+        return fromFirst ? new Account[] {first, second} : new Account[] {second, first};
+    }
+
+    /**
+     * Lock only the source account for a transfer into a striped account. The destination row is read
+     * without a lock for validation and never written; its credit goes to a stripe row.
+     *
+     * @return the accounts as {fromAccount, toAccount}
+     */
+    private Account[] lockSourceAccount(String fromAccId, String toAccId) {
+        Account from = accountRepository.findByAccountIdForUpdate(fromAccId)
+                .orElseThrow(() -> new AccountNotFoundException(fromAccId));
+        Account to = accountRepository.findByAccountId(toAccId)
+                .orElseThrow(() -> new AccountNotFoundException(toAccId));
+        return new Account[] {from, to};
+    }
+
     /**
      * Validate account states for transfer
      */
@@ -117,20 +389,44 @@ public class UPITransferService implements TransferService {
         }
 
         // Check sufficient balance
-        if (!fromAccount.hasSufficientBalance(amount)) {
+        BigDecimal availableBalance = availableBalance(fromAccount);
+        if (availableBalance.compareTo(amount) < 0) {
             throw new InsufficientFundsException(
                     fromAccount.getAccountId(),
-                    fromAccount.getBalance(),
+                    availableBalance,
                     amount
             );
         }
     }
 
+    /**
+     * Debit an account. A striped account's row may hold less than its total balance, so its stripes
+     * are folded into the row first when needed; the row never goes negative.
+     */
+    private void debit(Account account, BigDecimal amount) {
+        if (account.getBalance().compareTo(amount) < 0 && stripedLedger.isStriped(account.getAccountId())) {
+            stripedLedger.foldInto(account);
+        }
+        account.debit(amount);
+    }
+
+    /**
+     * Balance that can be debited: the locked accounts row plus, for a striped account, its stripes.
+     * Stripes only grow while the row is locked (folding needs the same lock), so this never overstates it.
+     */
+    private BigDecimal availableBalance(Account account) {
+        if (!stripedLedger.isStriped(account.getAccountId())) {
+            return account.getBalance();
+        }
+        return account.getBalance().add(stripedLedger.stripeBalance(account.getAccountId()));
+    }
+
     /**
      * Create a new transaction record
      */
     private Transaction createTransaction(Account fromAccount, Account toAccount, TransferRequest request) {
         return Transaction.builder()
+                .referenceNumber(referenceIdGenerator.nextReferenceNumber())
                 .fromAccount(fromAccount)
                 .toAccount(toAccount)
                 .amount(request.getAmount())
@@ -144,18 +440,29 @@ public class UPITransferService implements TransferService {
     /**
      * Build success response
      */
-    private TransferResponse buildSuccessResponse(Transaction transaction, Account fromAccount, Account toAccount) {
+    private TransferResponse buildSuccessResponse(Transaction transaction) {
         return TransferResponse.builder()
                 .transactionId(transaction.getTransactionId().toString())
                 .referenceNumber(transaction.getReferenceNumber())
                 .status("SUCCESS")
                 .message("Transfer completed successfully")
-                .fromAccountId(fromAccount.getAccountId())
-                .toAccountId(toAccount.getAccountId())
+                .fromAccountId(transaction.getFromAccount().getAccountId())
+                .toAccountId(transaction.getToAccount().getAccountId())
                 .amount(transaction.getAmount())
-                .fromAccountBalance(fromAccount.getBalance())
-                .toAccountBalance(toAccount.getBalance())
+                .fromAccountBalance(transaction.getFromBalanceAfter())
+                .toAccountBalance(transaction.getToBalanceAfter())
                 .transactionDate(transaction.getTransactionDate())
                 .build();
     }
+
+    /**
+     * Build failure response for a rejected batch item
+     */
+    private TransferResponse buildFailureResponse(TransferRequest request, String reason) {
+        TransferResponse response = TransferResponse.failure(reason);
+        response.setFromAccountId(request.getFromAccId());
+        response.setToAccountId(request.getToAccId());
+        response.setAmount(request.getAmount());
+        return response;
+    }
 }
@@ -0,0 +1,127 @@
+package com.upi.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings.
+ *
+ * mightContain never returns false for a value that was put, and returns true for a value
+ * that was not put with roughly the configured probability while the filter holds no more
+ * than the expected number of values. Values cannot be removed; the false-positive rate
+ * climbs past the target once the filter is overfilled, which expectedFalsePositiveRate reports.
+ *
+ * Bit positions come from double hashing (h1 + i * h2) of a 64-bit FNV-1a hash, and bits are
+ * set with compare-and-set so concurrent puts never lose each other's bits.
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLong setBits = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive: " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        long wordCount = (optimalBits + 63) / 64;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large for " + expectedInsertions + " insertions");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bitSize = wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * LN2));
+    }
+
+    /**
+     * Add a value to the filter
+     */
+    public void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            setBit(index(hash1 + i * hash2));
+        }
+    }
+
+    /**
+     * Return false if the value was definitely never put, true if it might have been
+     */
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long index = index(hash1 + i * hash2);
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Size of the bit array in bytes
+     */
+    public long memoryBytes() {
+        return words.length() * 8L;
+    }
+
+    /**
+     * Probability that mightContain returns true for a value that was never put,
+     * estimated from the fraction of bits currently set
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) setBits.get() / bitSize, hashCount);
+    }
+
+    int hashCount() {
+        return hashCount;
+    }
+
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitSize;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+            if (words.compareAndSet(word, current, current | mask)) {
+                setBits.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    // MurmurHash3 64-bit finalizer: spreads every input bit over the whole word
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,87 @@
+package com.upi.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Snowflake-style generator for transaction reference numbers.
+ *
+ * Each ID packs 41 bits of milliseconds since 2024-01-01, a 10-bit node ID and a
+ * 12-bit per-millisecond sequence into one long. The timestamp and sequence share a
+ * single AtomicLong that is advanced with compare-and-set, so IDs are unique and
+ * strictly increasing per node without locking. When the 4096 IDs of a millisecond
+ * are used up, or the wall clock moves backwards, the generator keeps counting into
+ * the next millisecond instead of waiting.
+ *
+ * Reference numbers are rendered as "TXN" followed by 13 base-36 characters, which
+ * fits the 20-character reference_number column and sorts in generation order.
+ */
+@Component
+public class ReferenceIdGenerator {
+
+    public static final String PREFIX = "TXN";
+
+    static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final int ENCODED_LENGTH = 13; // Long.MAX_VALUE in base 36
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    /** (millis since epoch << SEQUENCE_BITS) | sequence of the last issued ID */
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public ReferenceIdGenerator(@Value("${transfer.reference-id.node-id:0}") long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    ReferenceIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * Generate the next unique ID as a positive long
+     */
+    public long nextId() {
+        long now = clock.getAsLong() - EPOCH_MILLIS;
+        long prev;
+        long next;
+        do {
+            prev = lastState.get();
+            long nowState = now << SEQUENCE_BITS;
+            // Sequence overflow carries into the timestamp, borrowing the next millisecond
+            next = nowState > prev ? nowState : prev + 1;
+        } while (!lastState.compareAndSet(prev, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+
+    /**
+     * Generate the next unique transaction reference number, e.g. TXN00A1B2C3D4E5F
+     */
+    public String nextReferenceNumber() {
+        long id = nextId();
+        char[] buf = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), buf, 0);
+        for (int i = buf.length - 1; i >= PREFIX.length(); i--) {
+            buf[i] = DIGITS[(int) (id % 36)];
+            id /= 36;
+        }
+        return new String(buf);
+    }
+}
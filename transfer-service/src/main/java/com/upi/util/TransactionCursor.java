@@ -0,0 +1,52 @@
+package com.upi.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.upi.exception.InvalidCursorException;
+import com.upi.model.Transaction;
+
+/**
+ * Position in an account's transaction history, ordered by (transactionDate DESC, transactionId DESC).
+ *
+ * Clients receive it as an opaque URL-safe token and pass it back unchanged to fetch the
+ * next slice; the next query seeks directly past this row instead of skipping an offset.
+ */
+public record TransactionCursor(LocalDateTime transactionDate, Long transactionId) {
+
+    private static final char SEPARATOR = '|';
+
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getTransactionDate(), transaction.getTransactionId());
+    }
+
+    /**
+     * Encode this cursor as an opaque token
+     */
+    public String encode() {
+        String raw = transactionDate.toString() + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     *
+     * @throws InvalidCursorException if the token is malformed
+     */
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException(token);
+            }
+            return new TransactionCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.upi.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks 1..n from a Zipf distribution: rank k is chosen with probability proportional
+ * to 1 / k^exponent, so a handful of low ranks take most of the draws. An exponent of 0 is
+ * uniform, and around 1 matches the skew of real payment traffic.
+ *
+ * Uses rejection-inversion sampling (Hörmann and Derflinger, 1996): each draw costs a few
+ * logarithms and exponentials and needs no table, so n can be in the millions. The sampler
+ * holds no mutable state; callers pass their own random source.
+ */
+public class ZipfSampler {
+
+    private final long n;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+
+    public ZipfSampler(long n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Number of elements must be positive: " + n);
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent must not be negative: " + exponent);
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1.0;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+    }
+
+    /**
+     * Return a rank between 1 and n, where 1 is the most frequent
+     */
+    public long sample(SplittableRandom random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            long k = Math.max(1, Math.min(n, (long) (x + 0.5)));
+            // Accept at once near the centre of the bucket, otherwise compare with the exact mass
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * Integral of h from 1 to x, shifted so that it is well defined for exponent 1
+     */
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1Over((1.0 - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = Math.max(-1.0, x * (1.0 - exponent));
+        return Math.exp(log1pOver(t) * x);
+    }
+
+    /**
+     * log(1 + x) / x, accurate near 0
+     */
+    private static double log1pOver(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+    }
+
+    /**
+     * (e^x - 1) / x, accurate near 0
+     */
+    private static double expm1Over(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1.0 + x * 0.5 * (1.0 + x / 3.0 * (1.0 + 0.25 * x));
+    }
+}
@@ -3,6 +3,7 @@ package com.upi;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,6 +17,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import com.upi.dto.AccountResponse;
 import com.upi.dto.ApiResponse;
+import com.upi.dto.BatchTransferRequest;
 import com.upi.dto.TransferRequest;
 import com.upi.dto.TransferResponse;
 import com.upi.service.AccountService;
@@ -96,6 +98,34 @@ class TransferServiceApplicationTests {
         assertThat(response.getBody()).contains("SUCCESS");
     }
 
+    @Test
+    @DisplayName("POST /api/v1/transfers/batch - Should report per-item results")
+    void testBatchFundTransfer() {
+        BatchTransferRequest request = BatchTransferRequest.builder()
+                .transfers(List.of(
+                        TransferRequest.builder()
+                                .fromAccId("A003")
+                                .toAccId("A005")
+                                .amount(new BigDecimal("100.00"))
+                                .build(),
+                        TransferRequest.builder()
+                                .fromAccId("A003")
+                                .toAccId("A006")
+                                .amount(new BigDecimal("100.00"))
+                                .build()))
+                .build();
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "http://localhost:" + port + "/api/v1/transfers/batch",
+                request,
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("\"successCount\":1");
+        assertThat(response.getBody()).contains("\"failureCount\":1");
+        assertThat(response.getBody()).contains("is not active");
+    }
+
     @Test
     @DisplayName("GET /api/v1/transactions/recent - Should return recent transactions")
     void testGetRecentTransactions() {
@@ -107,6 +137,29 @@ class TransferServiceApplicationTests {
         assertThat(response.getBody()).contains("success");
     }
 
+    @Test
+    @DisplayName("GET /api/v1/transactions/account/A001/export?format=CSV - Should stream CSV")
+    void testExportTransactionsCsv() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + port + "/api/v1/transactions/account/A001/export?format=CSV",
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).hasToString("text/csv");
+        assertThat(response.getBody()).startsWith("transactionId,referenceNumber,");
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/transactions/account/INVALID/export - Should return 404 before streaming")
+    void testExportTransactionsAccountNotFound() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + port + "/api/v1/transactions/account/INVALID/export",
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).contains("ACCOUNT_NOT_FOUND");
+    }
+
     @Test
     @DisplayName("GET /actuator/health - Should return health status")
     void testHealthEndpoint() {
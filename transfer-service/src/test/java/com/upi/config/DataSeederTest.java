@@ -0,0 +1,120 @@
+package com.upi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.TransferRequest;
+import com.upi.dto.TransferResponse;
+import com.upi.repository.AccountRepository;
+import com.upi.service.TransactionStats;
+import com.upi.service.TransferService;
+
+/**
+ * Tests for DataSeeder: row counts, Zipf skew of the history, statistics and feeder files,
+ * and that regular transfers still get fresh transaction IDs after seeding.
+ * Runs against its own in-memory database so the seeded rows do not leak into other tests.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seeddb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "app.seed.accounts=2_000",
+        "app.seed.transactions=20_000",
+        "app.seed.threads=4",
+        "app.seed.batch-size=500",
+        "app.seed.feeder-directory=target/seed-data-test",
+        "app.seed.feeder-rows=1000"
+})
+@ActiveProfiles("h2")
+class DataSeederTest {
+
+    private static final int ACCOUNTS = 2000;
+    private static final int TRANSACTIONS = 20_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionStats transactionStats;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Test
+    @DisplayName("Every seeded account and transaction should be in the database")
+    void seedsAllRows() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM accounts WHERE account_id LIKE 'SEED%'", Long.class)).isEqualTo(ACCOUNTS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE reference_number LIKE 'SEED%'", Long.class))
+                .isEqualTo(TRANSACTIONS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE from_account_id = to_account_id", Long.class)).isZero();
+        assertThat(accountRepository.findById(DataSeeder.accountId(ACCOUNTS - 1))).isPresent();
+    }
+
+    @Test
+    @DisplayName("The most popular accounts should send far more than their uniform share")
+    void historyIsSkewed() {
+        List<Long> senders = jdbcTemplate.queryForList(
+                "SELECT COUNT(*) FROM transactions WHERE reference_number LIKE 'SEED%' "
+                        + "GROUP BY from_account_id ORDER BY COUNT(*) DESC", Long.class);
+
+        long uniformShare = TRANSACTIONS / ACCOUNTS;
+        assertThat(senders.get(0)).isGreaterThan(100 * uniformShare);
+        assertThat(senders.get(0)).isEqualTo(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE reference_number LIKE 'SEED%' AND from_account_id = ?",
+                Long.class, DataSeeder.accountId(0)));
+    }
+
+    @Test
+    @DisplayName("Statistics should include the seeded history")
+    void statisticsIncludeSeededHistory() {
+        assertThat(transactionStats.snapshot().getTotal().getCount())
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class))
+                .isGreaterThanOrEqualTo(TRANSACTIONS);
+    }
+
+    @Test
+    @DisplayName("Feeder files should have a header and one row per configured feeder row")
+    void writesFeeders() throws IOException {
+        List<String> transfers = Files.readAllLines(Path.of("target/seed-data-test/transfers.csv"));
+        List<String> lookups = Files.readAllLines(Path.of("target/seed-data-test/accounts.csv"));
+
+        assertThat(transfers).hasSize(1001).first().isEqualTo("fromAccId,toAccId,amount,description");
+        assertThat(lookups).hasSize(1001).first().isEqualTo("accountId");
+        String[] fields = transfers.get(1).split(",");
+        assertThat(accountRepository.existsById(fields[0])).isTrue();
+        assertThat(accountRepository.existsById(fields[1])).isTrue();
+        assertThat(accountRepository.existsById(lookups.get(1))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Transfers after seeding should get transaction IDs that do not collide with seeded rows")
+    void transfersStillWorkAfterSeeding() {
+        for (int i = 0; i < 60; i++) {
+            TransferResponse response = transferService.transferFunds(TransferRequest.builder()
+                    .fromAccId(DataSeeder.accountId(i))
+                    .toAccId(DataSeeder.accountId(i + 1))
+                    .amount(new BigDecimal("1.00"))
+                    .description("After seeding")
+                    .build());
+            assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        }
+    }
+}
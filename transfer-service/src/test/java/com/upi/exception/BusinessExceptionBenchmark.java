@@ -0,0 +1,93 @@
+package com.upi.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cost of rejecting requests with BusinessException, which skips the stack trace, against
+ * the same rejection with a stack trace, at several rejection ratios. Not part of the
+ * regular build; run it explicitly:
+ *
+ *   mvn test -Dtest=BusinessExceptionBenchmark
+ *
+ * Each simulated request descends CALL_DEPTH frames, roughly a Spring MVC request reaching
+ * a service, and is rejected there or returns normally. Each run is a warm-up followed by
+ * a timed second, so treat the printed numbers as a rough comparison rather than a JMH
+ * measurement. It fails if requests without stack traces are not faster once at least one
+ * in ten is rejected.
+ */
+class BusinessExceptionBenchmark {
+
+    private static final int[] REJECTION_PERCENTAGES = {0, 1, 10, 50};
+    private static final int CALL_DEPTH = 100;
+    private static final long WARMUP_MILLIS = 1000;
+    private static final long MEASURE_MILLIS = 1000;
+
+    // Keeps the results observable so the JIT cannot drop the calls
+    private static long sink;
+
+    @Test
+    @DisplayName("Requests and rejections per second, with and without stack traces")
+    void compareRejectionCost() {
+        System.out.println("\n=== Rejection cost ===");
+        System.out.printf("%-10s %15s %15s %15s %15s %8s%n", "Rejected", "Traced req/s", "Traced rej/s",
+                "Untraced req/s", "Untraced rej/s", "Speedup");
+        for (int percentage : REJECTION_PERCENTAGES) {
+            double traced = measure(percentage, TracedRejection::new);
+            double untraced = measure(percentage, InvalidTransferException::new);
+            System.out.printf("%-10s %15.0f %15.0f %15.0f %15.0f %7.1fx%n", percentage + "%",
+                    traced, traced * percentage / 100, untraced, untraced * percentage / 100, untraced / traced);
+
+            if (percentage >= 10) {
+                assertThat(untraced).as("requests per second with %d%% rejected", percentage).isGreaterThan(traced);
+            }
+        }
+        System.out.println("======================\n");
+    }
+
+    private static double measure(int percentage, Function<String, RuntimeException> rejection) {
+        run(percentage, rejection, WARMUP_MILLIS);
+        return run(percentage, rejection, MEASURE_MILLIS) * 1000.0 / MEASURE_MILLIS;
+    }
+
+    private static long run(int percentage, Function<String, RuntimeException> rejection, long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        long requests = 0;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 100; i++) {
+                try {
+                    sink += handle(CALL_DEPTH, i < percentage, rejection);
+                } catch (RuntimeException e) {
+                    sink += e.getMessage().length();
+                }
+            }
+            requests += 100;
+        }
+        return requests;
+    }
+
+    private static int handle(int depth, boolean reject, Function<String, RuntimeException> rejection) {
+        if (depth > 0) {
+            return handle(depth - 1, reject, rejection) + 1;
+        }
+        if (reject) {
+            throw rejection.apply("Transfer amount must be greater than zero");
+        }
+        return 0;
+    }
+
+    /**
+     * The same rejection as an ordinary RuntimeException, as before BusinessException
+     */
+    private static class TracedRejection extends RuntimeException {
+
+        TracedRejection(String message) {
+            super(message);
+        }
+    }
+}
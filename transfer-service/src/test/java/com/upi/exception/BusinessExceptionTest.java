@@ -0,0 +1,45 @@
+package com.upi.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.upi.model.AccountStatus;
+
+/**
+ * Unit tests for BusinessException and its subclasses.
+ */
+class BusinessExceptionTest {
+
+    @Test
+    @DisplayName("Business rejections should not capture a stack trace")
+    void rejectionsHaveNoStackTrace() {
+        List<BusinessException> exceptions = List.of(
+                new InsufficientFundsException("A001", new BigDecimal("10.00"), new BigDecimal("20.00")),
+                new AccountNotActiveException("A006", AccountStatus.INACTIVE),
+                new InvalidTransferException("Source and destination accounts cannot be the same"),
+                new AccountNotFoundException("A999"),
+                new DuplicateAccountException("A001"),
+                new TransactionNotFoundException("TXN0"),
+                new InvalidCursorException("bad"),
+                new IdempotencyKeyMismatchException("key"));
+
+        for (BusinessException exception : exceptions) {
+            assertThat(exception.getStackTrace()).as(exception.getClass().getSimpleName()).isEmpty();
+            assertThat(exception.getMessage()).isNotBlank();
+        }
+    }
+
+    @Test
+    @DisplayName("Suppressed exceptions should be dropped rather than accumulated")
+    void suppressionIsDisabled() {
+        InvalidTransferException exception = new InvalidTransferException("Transfer amount must be greater than zero");
+        exception.addSuppressed(new IllegalStateException("cleanup failed"));
+
+        assertThat(exception.getSuppressed()).isEmpty();
+    }
+}
@@ -0,0 +1,144 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.AccountUpdateRequest;
+import com.upi.dto.TransferRequest;
+import com.upi.exception.AccountNotFoundException;
+import com.upi.model.Account;
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.repository.AccountRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifies that account reads are served from AccountCache and that every write
+ * to an account, including transfers, evicts the cached copy.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class AccountCacheTest {
+
+    private static final String FROM_ACCOUNT = "CACHE01";
+    private static final String TO_ACCOUNT = "CACHE02";
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        for (String accountId : List.of(FROM_ACCOUNT, TO_ACCOUNT)) {
+            Account account = accountRepository.findByAccountId(accountId)
+                    .orElseGet(() -> Account.builder()
+                            .accountId(accountId)
+                            .accountHolderName("Cache Test " + accountId)
+                            .accountType(AccountType.SAVINGS)
+                            .build());
+            account.setBalance(INITIAL_BALANCE);
+            account.setStatus(AccountStatus.ACTIVE);
+            accountRepository.save(account);
+        }
+    }
+
+    @Test
+    @DisplayName("Repeated reads should be answered without SQL")
+    void repeatedReadsHitCache() {
+        accountService.getAccount(FROM_ACCOUNT);
+        double hitsBefore = meterRegistry.get("cache.gets")
+                .tag("cache", "accountCache").tag("result", "hit").functionCounter().count();
+        statistics.clear();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(accountService.getAccount(FROM_ACCOUNT).getBalance()).isEqualByComparingTo(INITIAL_BALANCE);
+            assertThat(accountService.accountExists(FROM_ACCOUNT)).isTrue();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", "accountCache").tag("result", "hit").functionCounter().count())
+                .isEqualTo(hitsBefore + 20);
+    }
+
+    @Test
+    @DisplayName("A transfer should evict both cached accounts")
+    void transferEvictsBothAccounts() {
+        accountService.getAccount(FROM_ACCOUNT);
+        accountService.getAccount(TO_ACCOUNT);
+
+        transferService.transferFunds(TransferRequest.builder()
+                .fromAccId(FROM_ACCOUNT)
+                .toAccId(TO_ACCOUNT)
+                .amount(new BigDecimal("250.00"))
+                .build());
+
+        assertThat(accountService.getAccount(FROM_ACCOUNT).getBalance()).isEqualByComparingTo("750.00");
+        assertThat(accountService.getAccount(TO_ACCOUNT).getBalance()).isEqualByComparingTo("1250.00");
+    }
+
+    @Test
+    @DisplayName("A batch transfer should evict every touched account")
+    void batchTransferEvictsTouchedAccounts() {
+        accountService.getAccount(FROM_ACCOUNT);
+        accountService.getAccount(TO_ACCOUNT);
+
+        transferService.transferFundsBatch(List.of(
+                TransferRequest.builder().fromAccId(FROM_ACCOUNT).toAccId(TO_ACCOUNT).amount(new BigDecimal("100.00")).build(),
+                TransferRequest.builder().fromAccId(TO_ACCOUNT).toAccId(FROM_ACCOUNT).amount(new BigDecimal("40.00")).build()));
+
+        assertThat(accountService.getAccount(FROM_ACCOUNT).getBalance()).isEqualByComparingTo("940.00");
+        assertThat(accountService.getAccount(TO_ACCOUNT).getBalance()).isEqualByComparingTo("1060.00");
+    }
+
+    @Test
+    @DisplayName("Update and delete should evict the cached account")
+    void updateAndDeleteEvictAccount() {
+        accountService.getAccount(TO_ACCOUNT);
+
+        accountService.updateAccount(TO_ACCOUNT,
+                AccountUpdateRequest.builder().accountHolderName("Renamed Holder").build());
+        assertThat(accountService.getAccount(TO_ACCOUNT).getAccountHolderName()).isEqualTo("Renamed Holder");
+
+        accountService.deleteAccount(TO_ACCOUNT);
+        assertThat(accountService.getAccount(TO_ACCOUNT).getStatus()).isEqualTo(AccountStatus.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Unknown accounts should not be cached")
+    void unknownAccountIsNotCached() {
+        assertThat(accountService.accountExists("CACHE99")).isFalse();
+        assertThatThrownBy(() -> accountService.getAccount("CACHE99")).isInstanceOf(AccountNotFoundException.class);
+    }
+}
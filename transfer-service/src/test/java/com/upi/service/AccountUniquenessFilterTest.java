@@ -0,0 +1,124 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.AccountRequest;
+import com.upi.dto.AccountUpdateRequest;
+import com.upi.exception.DuplicateAccountException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifies that the email/phone uniqueness filter skips database lookups for new values
+ * without ever letting a duplicate through.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class AccountUniquenessFilterTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUniquenessFilter uniquenessFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    @DisplayName("Accounts present at startup should be in the filter")
+    void startupScanLoadsExistingAccounts() {
+        assertThat(uniquenessFilter.mightContainEmail("john.doe@example.com")).isTrue();
+        assertThat(uniquenessFilter.mightContainPhone("9876543210")).isTrue();
+        assertThat(meterRegistry.get("account.uniqueness.filter.memory").tag("key", "email").gauge().value())
+                .isPositive();
+        assertThat(meterRegistry.get("account.uniqueness.filter.fpp").tag("key", "phone").gauge().value())
+                .isBetween(0.0, 0.01);
+    }
+
+    @Test
+    @DisplayName("Creating an account with a new email and phone should skip both uniqueness queries")
+    void newValuesSkipDatabaseChecks() {
+        statistics.clear();
+
+        accountService.createAccount(request("BLOOM01", "bloom01@example.com", "9300000001"));
+
+        // The account ID check and the insert; no email or phone lookup
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(uniquenessFilter.mightContainEmail("bloom01@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Duplicates written after startup should still be rejected on create and update")
+    void duplicatesAreStillRejected() {
+        accountService.createAccount(request("BLOOM02", "bloom02@example.com", "9300000002"));
+        accountService.createAccount(request("BLOOM03", "bloom03@example.com", "9300000003"));
+
+        assertThatThrownBy(() -> accountService.createAccount(request("BLOOM04", "bloom02@example.com", null)))
+                .isInstanceOf(DuplicateAccountException.class);
+        assertThatThrownBy(() -> accountService.createAccount(request("BLOOM04", null, "9300000002")))
+                .isInstanceOf(DuplicateAccountException.class);
+        assertThatThrownBy(() -> accountService.updateAccount("BLOOM03",
+                AccountUpdateRequest.builder().email("bloom02@example.com").build()))
+                .isInstanceOf(DuplicateAccountException.class);
+
+        // A changed email becomes visible to the filter through the entity listener
+        accountService.updateAccount("BLOOM03", AccountUpdateRequest.builder().email("bloom03b@example.com").build());
+        assertThatThrownBy(() -> accountService.createAccount(request("BLOOM05", "bloom03b@example.com", null)))
+                .isInstanceOf(DuplicateAccountException.class);
+    }
+
+    @Test
+    @DisplayName("A duplicate the filter has not seen should be rejected by the unique constraint as a duplicate")
+    void staleFilterFallsBackToConstraint() {
+        // Written behind the entity listener's back, as another instance would
+        jdbcTemplate.update("INSERT INTO accounts (account_id, account_holder_name, email, phone, balance, account_type, "
+                + "status, created_at, updated_at, version) VALUES (?, ?, ?, ?, 0, 'SAVINGS', 'ACTIVE', "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)", "BLOOM06", "Bloom Holder BLOOM06",
+                "bloom06@example.com", "9300000006");
+        assertThat(uniquenessFilter.mightContainEmail("bloom06@example.com")).isFalse();
+        assertThat(uniquenessFilter.mightContainPhone("9300000006")).isFalse();
+
+        assertThatThrownBy(() -> accountService.createAccount(request("BLOOM07", "bloom06@example.com", null)))
+                .isInstanceOf(DuplicateAccountException.class);
+        assertThatThrownBy(() -> accountService.createAccount(request("BLOOM07", null, "9300000006")))
+                .isInstanceOf(DuplicateAccountException.class);
+        assertThat(accountService.accountExists("BLOOM07")).isFalse();
+    }
+
+    private static AccountRequest request(String accountId, String email, String phone) {
+        return AccountRequest.builder()
+                .accountId(accountId)
+                .accountHolderName("Bloom Holder " + accountId)
+                .email(email)
+                .phone(phone)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.upi.dto.AccountRequest;
+import com.upi.dto.BulkAccountResponse;
+import com.upi.dto.BulkAccountResult;
+import com.upi.repository.AccountRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Tests for bulk account creation: per-item duplicate detection against stored
+ * accounts and within the request, and set-based queries with batched inserts.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class BulkAccountCreationTest {
+
+    private static final int BULK_SIZE = 2000;
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUniquenessFilter uniquenessFilter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Duplicates should be rejected per item, both against stored accounts and within the request")
+    void rejectsStoredAndInBatchDuplicates() {
+        accountService.createAccount(request("BULKDUP0", "bulkdup0@example.com", "9100000000"));
+
+        BulkAccountResponse response = accountService.createAccountsBulk(List.of(
+                request("BULKDUP0", null, null),                          // stored ID
+                request("BULKDUP1", "bulkdup0@example.com", null),        // stored email
+                request("BULKDUP2", null, "9100000000"),                  // stored phone
+                request("BULKDUP3", "bulkdup3@example.com", "9100000003"),
+                request("BULKDUP3", null, null),                          // repeated ID
+                request("BULKDUP4", "bulkdup3@example.com", null),        // repeated email
+                request("BULKDUP5", null, "9100000003"),                  // repeated phone
+                request("BULKDUP6", null, null)));
+
+        assertThat(response.getTotalCount()).isEqualTo(8);
+        assertThat(response.getCreatedCount()).isEqualTo(2);
+        assertThat(response.getFailureCount()).isEqualTo(6);
+        assertThat(response.getResults()).extracting(BulkAccountResult::getStatus).containsExactly(
+                "FAILED", "FAILED", "FAILED", "CREATED", "FAILED", "FAILED", "FAILED", "CREATED");
+        assertThat(response.getResults().get(1).getMessage()).contains("bulkdup0@example.com");
+
+        assertThat(accountRepository.findByAccountId("BULKDUP3").orElseThrow().getEmail())
+                .isEqualTo("bulkdup3@example.com");
+        assertThat(accountRepository.existsByAccountId("BULKDUP6")).isTrue();
+        for (String rejected : List.of("BULKDUP1", "BULKDUP2", "BULKDUP4", "BULKDUP5")) {
+            assertThat(accountRepository.existsByAccountId(rejected)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("A large request of new values should cost one ID lookup plus batched inserts")
+    void largeRequestUsesSetBasedLookupsAndBatchedInserts() {
+        List<AccountRequest> requests = requests("BULK", "95");
+
+        Statistics statistics = clearedStatistics();
+        BulkAccountResponse response = accountService.createAccountsBulk(requests);
+
+        assertThat(response.getCreatedCount()).isEqualTo(BULK_SIZE);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(BULK_SIZE);
+        // The uniqueness filter rules out every new email and phone, so both lookups are skipped
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1 + BULK_SIZE / JDBC_BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Before the uniqueness filter is built, a large request should cost three lookups plus batched inserts")
+    void largeRequestQueriesEmailsAndPhonesUntilFilterIsReady() {
+        List<AccountRequest> requests = requests("BULKNF", "96");
+
+        ReflectionTestUtils.setField(uniquenessFilter, "ready", false);
+        try {
+            Statistics statistics = clearedStatistics();
+            BulkAccountResponse response = accountService.createAccountsBulk(requests);
+
+            assertThat(response.getCreatedCount()).isEqualTo(BULK_SIZE);
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(BULK_SIZE);
+            assertThat(statistics.getQueryExecutionCount()).isEqualTo(3);
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3 + BULK_SIZE / JDBC_BATCH_SIZE);
+        } finally {
+            ReflectionTestUtils.setField(uniquenessFilter, "ready", true);
+        }
+    }
+
+    private Statistics clearedStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private static List<AccountRequest> requests(String idPrefix, String phonePrefix) {
+        List<AccountRequest> requests = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            String suffix = String.format("%06d", i);
+            requests.add(request(idPrefix + suffix,
+                    idPrefix.toLowerCase() + suffix + "@example.com", phonePrefix + "00" + suffix));
+        }
+        return requests;
+    }
+
+    private static AccountRequest request(String accountId, String email, String phone) {
+        return AccountRequest.builder()
+                .accountId(accountId)
+                .accountHolderName("Bulk Holder " + accountId)
+                .email(email)
+                .phone(phone)
+                .initialBalance(new BigDecimal("100.00"))
+                .build();
+    }
+}
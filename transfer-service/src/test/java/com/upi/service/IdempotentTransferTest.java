@@ -0,0 +1,175 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.TransferRequest;
+import com.upi.dto.TransferResponse;
+import com.upi.exception.IdempotencyKeyMismatchException;
+import com.upi.model.Account;
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.repository.AccountRepository;
+
+/**
+ * Tests for Idempotency-Key handling in UPITransferService.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class IdempotentTransferTest {
+
+    private static final String FROM_ACCOUNT = "IDEM01";
+    private static final String TO_ACCOUNT = "IDEM02";
+    private static final String OTHER_FROM_ACCOUNT = "IDEM03";
+    private static final String OTHER_TO_ACCOUNT = "IDEM04";
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("10000.00");
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (String accountId : new String[] {FROM_ACCOUNT, TO_ACCOUNT, OTHER_FROM_ACCOUNT, OTHER_TO_ACCOUNT}) {
+            Account account = accountRepository.findByAccountId(accountId)
+                    .orElseGet(() -> Account.builder()
+                            .accountId(accountId)
+                            .accountHolderName("Idempotency Test " + accountId)
+                            .accountType(AccountType.SAVINGS)
+                            .status(AccountStatus.ACTIVE)
+                            .build());
+            account.setBalance(INITIAL_BALANCE);
+            accountRepository.save(account);
+        }
+    }
+
+    @Test
+    @DisplayName("A retried request should return the original result and move money once")
+    void retryIsReplayed() {
+        String key = UUID.randomUUID().toString();
+
+        TransferResponse first = transferService.transferFunds(request("100.00"), key);
+        TransferResponse retry = transferService.transferFunds(request("100.00"), key);
+
+        assertThat(retry.getReferenceNumber()).isEqualTo(first.getReferenceNumber());
+        assertThat(balance(FROM_ACCOUNT)).isEqualByComparingTo("9900.00");
+        assertThat(balance(TO_ACCOUNT)).isEqualByComparingTo("10100.00");
+    }
+
+    @Test
+    @DisplayName("Concurrent retries with the same key should move money once")
+    void concurrentRetriesAreDeduplicated() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<TransferResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> transferService.transferFunds(request("250.00"), key)));
+        }
+        executor.shutdown();
+
+        List<String> references = new ArrayList<>();
+        for (Future<TransferResponse> future : futures) {
+            references.add(future.get().getReferenceNumber());
+        }
+
+        assertThat(references).containsOnly(references.get(0));
+        assertThat(balance(FROM_ACCOUNT)).isEqualByComparingTo("9750.00");
+        assertThat(balance(TO_ACCOUNT)).isEqualByComparingTo("10250.00");
+    }
+
+    @Test
+    @DisplayName("Reusing a key for a different transfer should be rejected")
+    void keyReuseWithDifferentRequestIsRejected() {
+        String key = UUID.randomUUID().toString();
+        transferService.transferFunds(request("10.00"), key);
+
+        assertThatThrownBy(() -> transferService.transferFunds(request("20.00"), key))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(balance(FROM_ACCOUNT)).isEqualByComparingTo("9990.00");
+    }
+
+    @Test
+    @DisplayName("Concurrent requests reusing a key for different accounts should move money once and reject the other")
+    void concurrentKeyReuseWithDifferentAccountsIsRejected() throws Exception {
+        // Different account pairs share no row lock, so both requests pass the key lookup and race on the insert
+        int rounds = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                String key = UUID.randomUUID().toString();
+                CountDownLatch start = new CountDownLatch(1);
+                Future<TransferResponse> first = executor.submit(() -> {
+                    start.await();
+                    return transferService.transferFunds(request(FROM_ACCOUNT, TO_ACCOUNT, "10.00"), key);
+                });
+                Future<TransferResponse> second = executor.submit(() -> {
+                    start.await();
+                    return transferService.transferFunds(request(OTHER_FROM_ACCOUNT, OTHER_TO_ACCOUNT, "10.00"), key);
+                });
+                start.countDown();
+
+                List<Throwable> failures = new ArrayList<>();
+                for (Future<TransferResponse> future : List.of(first, second)) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        failures.add(e.getCause());
+                    }
+                }
+                assertThat(failures).as("round %d", round).hasSize(1);
+                assertThat(failures.get(0)).as("round %d", round).isInstanceOf(IdempotencyKeyMismatchException.class);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(balance(FROM_ACCOUNT).add(balance(OTHER_FROM_ACCOUNT)))
+                .isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(2))
+                        .subtract(new BigDecimal("10.00").multiply(BigDecimal.valueOf(rounds))));
+    }
+
+    @Test
+    @DisplayName("Requests without a key should not be deduplicated")
+    void requestsWithoutKeyAreIndependent() {
+        transferService.transferFunds(request("10.00"));
+        transferService.transferFunds(request("10.00"));
+
+        assertThat(balance(FROM_ACCOUNT)).isEqualByComparingTo("9980.00");
+    }
+
+    private static TransferRequest request(String amount) {
+        return request(FROM_ACCOUNT, TO_ACCOUNT, amount);
+    }
+
+    private static TransferRequest request(String fromAccId, String toAccId, String amount) {
+        return TransferRequest.builder()
+                .fromAccId(fromAccId)
+                .toAccId(toAccId)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private BigDecimal balance(String accountId) {
+        return accountRepository.findByAccountId(accountId).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,194 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.AccountRequest;
+import com.upi.dto.TransferRequest;
+import com.upi.exception.InsufficientFundsException;
+import com.upi.model.Account;
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.repository.AccountRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tests for StripedLedger: concurrent credits into a striped merchant account conserve money,
+ * reads include the stripes, and the fold moves the stripes back into the account row.
+ * Runs against its own in-memory database so the striped accounts do not leak into other tests.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stripedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "transfer.striped-accounts.account-ids=MERCH01,MERCH02",
+        "transfer.striped-accounts.stripes=8",
+        "transfer.striped-accounts.fold-interval=1h"
+})
+@ActiveProfiles("h2")
+@Slf4j
+class StripedLedgerTest {
+
+    private static final BigDecimal PAYER_BALANCE = new BigDecimal("100000.00");
+    private static final int PAYERS = 16;
+    private static final int TRANSFERS = 2000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private StripedLedger stripedLedger;
+
+    @Test
+    @DisplayName("Concurrent credits into a striped account should conserve the total balance")
+    void concurrentCreditsConserveTotalBalance() throws Exception {
+        List<String> payers = createPayers("SP");
+        createMerchant("MERCH01", BigDecimal.ZERO);
+        createMerchant("PLAIN01", BigDecimal.ZERO);
+        createMerchant("WARMUP01", BigDecimal.ZERO);
+
+        // The logged throughput compares the two modes; it is not asserted because the
+        // in-memory database does not model row lock waits the way a server database does
+        BigDecimal warmupTotal = creditConcurrently(payers, "WARMUP01");
+        BigDecimal plainTotal = creditConcurrently(payers, "PLAIN01");
+        BigDecimal stripedTotal = creditConcurrently(payers, "MERCH01");
+
+        // Credits landed on the stripes only; reads still see the full balance
+        assertThat(accountRepository.findByAccountId("MERCH01").orElseThrow().getBalance())
+                .isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(stripedLedger.stripeBalance("MERCH01")).isEqualByComparingTo(stripedTotal);
+        assertThat(accountService.getAccount("MERCH01").getBalance()).isEqualByComparingTo(stripedTotal);
+        assertThat(accountService.getAccount("PLAIN01").getBalance()).isEqualByComparingTo(plainTotal);
+
+        BigDecimal payerTotal = BigDecimal.ZERO;
+        for (String payer : payers) {
+            payerTotal = payerTotal.add(accountService.getAccount(payer).getBalance());
+        }
+        assertThat(payerTotal.add(stripedTotal).add(plainTotal).add(warmupTotal))
+                .isEqualByComparingTo(PAYER_BALANCE.multiply(BigDecimal.valueOf(PAYERS)));
+
+        // The fold moves the stripes into the account row without changing the total
+        assertThat(stripedLedger.fold("MERCH01")).isEqualByComparingTo(stripedTotal);
+        assertThat(accountRepository.findByAccountId("MERCH01").orElseThrow().getBalance())
+                .isEqualByComparingTo(stripedTotal);
+        assertThat(stripedLedger.stripeBalance("MERCH01")).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(accountService.getAccount("MERCH01").getBalance()).isEqualByComparingTo(stripedTotal);
+    }
+
+    @Test
+    @DisplayName("Debits from a striped account should be covered by its stripes")
+    void debitFromStripedAccountUsesStripes() {
+        createAccount("PAYER01", new BigDecimal("1000.00"));
+        createMerchant("MERCH02", new BigDecimal("100.00"));
+
+        transferService.transferFunds(request("PAYER01", "MERCH02", "400.00"));
+        assertThat(accountService.getAccount("MERCH02").getBalance()).isEqualByComparingTo("500.00");
+
+        // The account row alone (100.00) cannot cover this; the stripes are folded in first
+        transferService.transferFunds(request("MERCH02", "PAYER01", "300.00"));
+
+        assertThat(accountRepository.findByAccountId("MERCH02").orElseThrow().getBalance())
+                .isEqualByComparingTo("200.00");
+        assertThat(stripedLedger.stripeBalance("MERCH02")).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(accountService.getAccount("PAYER01").getBalance()).isEqualByComparingTo("900.00");
+
+        assertThatThrownBy(() -> transferService.transferFunds(request("MERCH02", "PAYER01", "200.01")))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThat(accountService.getAccount("MERCH02").getBalance()).isEqualByComparingTo("200.00");
+    }
+
+    /**
+     * Fire TRANSFERS credits from the payers into one account and return the amount credited
+     */
+    private BigDecimal creditConcurrently(List<String> payers, String toAccountId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<BigDecimal>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < TRANSFERS; i++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(50));
+                transferService.transferFunds(TransferRequest.builder()
+                        .fromAccId(payers.get(random.nextInt(payers.size())))
+                        .toAccId(toAccountId)
+                        .amount(amount)
+                        .build());
+                return amount;
+            }));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        long elapsedNanos = System.nanoTime() - start;
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Future<BigDecimal> future : futures) {
+            total = total.add(future.get());
+        }
+        log.info("Credits into {} (striped={}): {} transfers in {} ms, {} transfers/s",
+                toAccountId, stripedLedger.isStriped(toAccountId), TRANSFERS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                TRANSFERS * 1_000_000_000L / Math.max(elapsedNanos, 1));
+        return total;
+    }
+
+    private List<String> createPayers(String prefix) {
+        List<String> payers = new ArrayList<>();
+        for (int i = 0; i < PAYERS; i++) {
+            String accountId = prefix + String.format("%02d", i);
+            createAccount(accountId, PAYER_BALANCE);
+            payers.add(accountId);
+        }
+        return payers;
+    }
+
+    /**
+     * Merchants are created through AccountService, which provisions the stripes of striped accounts
+     */
+    private void createMerchant(String accountId, BigDecimal balance) {
+        accountService.createAccount(AccountRequest.builder()
+                .accountId(accountId)
+                .accountHolderName("Merchant " + accountId)
+                .initialBalance(balance)
+                .accountType(AccountType.CURRENT)
+                .build());
+    }
+
+    private void createAccount(String accountId, BigDecimal balance) {
+        accountRepository.save(Account.builder()
+                .accountId(accountId)
+                .accountHolderName("Stripe Test " + accountId)
+                .balance(balance)
+                .accountType(AccountType.CURRENT)
+                .status(AccountStatus.ACTIVE)
+                .build());
+    }
+
+    private static TransferRequest request(String from, String to, String amount) {
+        return TransferRequest.builder()
+                .fromAccId(from)
+                .toAccId(to)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
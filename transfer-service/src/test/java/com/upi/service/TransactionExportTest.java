@@ -0,0 +1,166 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.ExportFormat;
+import com.upi.model.Account;
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.repository.AccountRepository;
+
+/**
+ * Tests for the streaming transaction history export.
+ *
+ * Runs against its own in-memory database, dropped with the context afterwards, so the
+ * generated rows neither leak into other tests nor stay on the heap. The row count defaults
+ * to 20k to keep the suite fast; the heap retained while exporting is sampled as it goes and
+ * must not grow with the rows written. To check a full-size history under a small heap, run
+ * it alone with a file-backed H2 database (an in-memory database would itself need more heap
+ * than the export), e.g.
+ * mvn test -Dtest=TransactionExportTest -Dexport.rows=1000000
+ *     -DargLine="-Xmx256m -Dspring.datasource.url=jdbc:h2:file:./target/exportdb"
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:exportdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("h2")
+@DirtiesContext
+class TransactionExportTest {
+
+    private static final String ACCOUNT_ID = "EXPORT01";
+    private static final String COUNTERPARTY_ID = "EXPORT02";
+    private static final int ROWS = Integer.getInteger("export.rows", 20_000);
+    private static final int HEAP_SAMPLES = 10;
+    // An export that keeps every row retains about 350 bytes per row, 7 MB for 20k rows
+    private static final long MAX_RETAINED_GROWTH_BYTES = 2L * 1024 * 1024;
+
+    // Well above anything the transactions_seq pooled optimizer hands out during the test run
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        if (accountRepository.existsByAccountId(ACCOUNT_ID)) {
+            return;
+        }
+        accountRepository.save(account(ACCOUNT_ID, "Export, Merchant \"Big\""));
+        accountRepository.save(account(COUNTERPARTY_ID, "Export Customer"));
+
+        // Generated in one statement; inserting through JPA would dominate the test time
+        jdbcTemplate.update(
+                "INSERT INTO transactions (transaction_id, reference_number, from_account_id, to_account_id, amount, "
+                        + "transaction_type, status, description, transaction_date) "
+                        + "SELECT ? + X, 'EXP' || X, "
+                        + "CASEWHEN(MOD(X, 2) = 0, ?, ?), CASEWHEN(MOD(X, 2) = 0, ?, ?), "
+                        + "1.00, 'FUND_TRANSFER', 'COMPLETED', 'Generated row ' || X, "
+                        + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00') "
+                        + "FROM SYSTEM_RANGE(1, ?)",
+                FIRST_ID, ACCOUNT_ID, COUNTERPARTY_ID, COUNTERPARTY_ID, ACCOUNT_ID, ROWS);
+    }
+
+    @Test
+    @DisplayName("NDJSON export should stream one line per transaction")
+    void exportNdjson() throws Exception {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+
+        long written = transactionService.exportTransactionsByAccount(ACCOUNT_ID, ExportFormat.NDJSON, out);
+
+        assertThat(written).isEqualTo(ROWS);
+        assertThat(out.lines).isEqualTo(ROWS);
+        assertThat(out.firstLine()).startsWith("{").contains("\"referenceNumber\":\"EXP1\"");
+        assertThat(out.retainedGrowth()).as("heap retained by the end of the export")
+                .isLessThan(MAX_RETAINED_GROWTH_BYTES);
+    }
+
+    @Test
+    @DisplayName("CSV export should write a header, one row per transaction and quote special characters")
+    void exportCsv() throws Exception {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+
+        long written = transactionService.exportTransactionsByAccount(ACCOUNT_ID, ExportFormat.CSV, out);
+
+        assertThat(written).isEqualTo(ROWS);
+        assertThat(out.lines).isEqualTo(ROWS + 1);
+        assertThat(out.firstLine()).startsWith("transactionId,referenceNumber,");
+        assertThat(out.secondLine()).contains("\"Export, Merchant \"\"Big\"\"\"");
+        assertThat(out.retainedGrowth()).as("heap retained by the end of the export")
+                .isLessThan(MAX_RETAINED_GROWTH_BYTES);
+    }
+
+    private static Account account(String accountId, String holderName) {
+        return Account.builder()
+                .accountId(accountId)
+                .accountHolderName(holderName)
+                .balance(BigDecimal.ZERO)
+                .accountType(AccountType.CURRENT)
+                .status(AccountStatus.ACTIVE)
+                .build();
+    }
+
+    /**
+     * Counts lines and keeps only the first two, so the export itself is never held in memory.
+     * Every tenth of the expected rows it also samples the heap retained after a full GC.
+     */
+    private static class LineCountingOutputStream extends OutputStream {
+
+        private final ByteArrayOutputStream head = new ByteArrayOutputStream();
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long sampleInterval = Math.max(1, ROWS / HEAP_SAMPLES);
+        private long lines;
+        private long minRetained = Long.MAX_VALUE;
+        private long lastRetained;
+
+        @Override
+        public void write(int b) {
+            if (lines < 2) {
+                head.write(b);
+            }
+            if (b == '\n' && ++lines % sampleInterval == 0) {
+                sampleRetainedHeap();
+            }
+        }
+
+        private void sampleRetainedHeap() {
+            memory.gc();
+            lastRetained = memory.getHeapMemoryUsage().getUsed();
+            minRetained = Math.min(minRetained, lastRetained);
+        }
+
+        /**
+         * Heap retained at the end of the export beyond the lowest sample taken during it
+         */
+        long retainedGrowth() {
+            return lastRetained - minRetained;
+        }
+
+        String firstLine() {
+            return head.toString(StandardCharsets.UTF_8).split("\n")[0];
+        }
+
+        String secondLine() {
+            return head.toString(StandardCharsets.UTF_8).split("\n")[1];
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.TransactionResponse;
+import com.upi.dto.TransactionSliceResponse;
+import com.upi.dto.TransferRequest;
+import com.upi.exception.InvalidCursorException;
+import com.upi.model.Account;
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.repository.AccountRepository;
+
+/**
+ * Tests for keyset pagination of an account's transaction history.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class TransactionHistorySliceTest {
+
+    private static final String[] ACCOUNT_IDS = {"PAGE01", "PAGE02", "PAGE03"};
+    private static final int TRANSFERS = 23;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (accountRepository.existsByAccountId(ACCOUNT_IDS[0])) {
+            return;
+        }
+        for (String accountId : ACCOUNT_IDS) {
+            accountRepository.save(Account.builder()
+                    .accountId(accountId)
+                    .accountHolderName("Page Test " + accountId)
+                    .balance(new BigDecimal("10000.00"))
+                    .accountType(AccountType.SAVINGS)
+                    .status(AccountStatus.ACTIVE)
+                    .build());
+        }
+        // PAGE01 alternates between sending and receiving so both index ranges are merged
+        for (int i = 0; i < TRANSFERS; i++) {
+            String counterparty = ACCOUNT_IDS[1 + i % 2];
+            boolean outgoing = i % 3 != 0;
+            transferService.transferFunds(TransferRequest.builder()
+                    .fromAccId(outgoing ? ACCOUNT_IDS[0] : counterparty)
+                    .toAccId(outgoing ? counterparty : ACCOUNT_IDS[0])
+                    .amount(BigDecimal.ONE)
+                    .build());
+        }
+    }
+
+    @Test
+    @DisplayName("Walking all slices should return every transaction once, newest first")
+    void walkAllSlices() {
+        List<TransactionResponse> expected = transactionService.getTransactionsByAccount(ACCOUNT_IDS[0]);
+
+        List<TransactionResponse> walked = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            TransactionSliceResponse slice = transactionService.getTransactionsByAccountSlice(ACCOUNT_IDS[0], cursor, 5);
+            assertThat(slice.getSize()).isEqualTo(slice.getContent().size()).isLessThanOrEqualTo(5);
+            walked.addAll(slice.getContent());
+            cursor = slice.getNextCursor();
+            assertThat(slice.isHasNext()).isEqualTo(cursor != null);
+            slices++;
+        } while (cursor != null);
+
+        assertThat(slices).isEqualTo((TRANSFERS + 4) / 5);
+        assertThat(walked).extracting(TransactionResponse::getTransactionId)
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(
+                        expected.stream().map(TransactionResponse::getTransactionId).toList());
+        for (int i = 1; i < walked.size(); i++) {
+            TransactionResponse newer = walked.get(i - 1);
+            TransactionResponse older = walked.get(i);
+            assertThat(newer.getTransactionDate()).isAfterOrEqualTo(older.getTransactionDate());
+            if (newer.getTransactionDate().equals(older.getTransactionDate())) {
+                assertThat(newer.getTransactionId()).isGreaterThan(older.getTransactionId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A malformed cursor should be rejected")
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> transactionService.getTransactionsByAccountSlice(ACCOUNT_IDS[0], "not-a-cursor", 5))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+}
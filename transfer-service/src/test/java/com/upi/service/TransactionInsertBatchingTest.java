@@ -0,0 +1,164 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.BatchTransferResponse;
+import com.upi.dto.TransferRequest;
+import com.upi.model.Account;
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.repository.AccountRepository;
+import com.upi.repository.TransactionRepository;
+
+/**
+ * Verifies that transaction IDs come from the pooled sequence and that transaction
+ * INSERTs are grouped into JDBC batches instead of one round trip per row.
+ * Counts JDBC executions through a Hibernate session listener, against its own
+ * in-memory database so no other test moves the sequence.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batchingdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session.events.auto=com.upi.service.TransactionInsertBatchingTest$JdbcCounter"
+})
+@ActiveProfiles("h2")
+class TransactionInsertBatchingTest {
+
+    private static final String[] PAYERS = {"BATCH01", "BATCH02"};
+    private static final String[] PAYEES = {"BATCH03", "BATCH04"};
+    private static final int TRANSFERS = 200;
+    private static final int JDBC_BATCH_SIZE = 50;
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (String accountId : List.of(PAYERS[0], PAYERS[1], PAYEES[0], PAYEES[1])) {
+            if (!accountRepository.existsByAccountId(accountId)) {
+                accountRepository.save(Account.builder()
+                        .accountId(accountId)
+                        .accountHolderName("Batching Test " + accountId)
+                        .balance(new BigDecimal("100000.00"))
+                        .accountType(AccountType.CURRENT)
+                        .status(AccountStatus.ACTIVE)
+                        .build());
+            }
+        }
+        alignToFreshIdBlock();
+    }
+
+    @Test
+    @DisplayName("A batch transfer should cost one lock query, one sequence call per 50 IDs and one batch per 50 rows")
+    void batchTransferInsertsInJdbcBatches() {
+        List<TransferRequest> requests = new ArrayList<>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            requests.add(transfer(i));
+        }
+        long transactions = transactionRepository.count();
+        JdbcCounter.reset();
+
+        BatchTransferResponse response = transferService.transferFundsBatch(requests);
+
+        // Lock query, then four sequence calls: 49 IDs are left in the current block, so 151 more take four blocks
+        assertThat(JdbcCounter.statements.get()).isEqualTo(1 + TRANSFERS / SEQUENCE_ALLOCATION_SIZE);
+        // Four INSERT batches of 50, then one UPDATE batch for the four accounts
+        assertThat(JdbcCounter.batches.get()).isEqualTo(TRANSFERS / JDBC_BATCH_SIZE + 1);
+        assertThat(response.getSuccessCount()).isEqualTo(TRANSFERS);
+        assertThat(transactionRepository.count()).isEqualTo(transactions + TRANSFERS);
+    }
+
+    @Test
+    @DisplayName("Single transfers should fetch a new ID block once per 50 rows, not once per row")
+    void singleTransfersShareSequenceCalls() {
+        JdbcCounter.reset();
+        transferService.transferFunds(transfer(0));
+        long statementsPerTransfer = JdbcCounter.statements.get();
+        long batchesPerTransfer = JdbcCounter.batches.get();
+
+        JdbcCounter.reset();
+        for (int i = 1; i < SEQUENCE_ALLOCATION_SIZE - 1; i++) {
+            transferService.transferFunds(transfer(i));
+        }
+
+        // The 48 transfers after the measured one use up the block; the next one fetches a new block
+        assertThat(JdbcCounter.statements.get()).isEqualTo(statementsPerTransfer * (SEQUENCE_ALLOCATION_SIZE - 2));
+        transferService.transferFunds(transfer(SEQUENCE_ALLOCATION_SIZE - 1));
+        assertThat(JdbcCounter.statements.get())
+                .isEqualTo(statementsPerTransfer * (SEQUENCE_ALLOCATION_SIZE - 1) + 1);
+        assertThat(JdbcCounter.batches.get()).isEqualTo(batchesPerTransfer * (SEQUENCE_ALLOCATION_SIZE - 1));
+    }
+
+    /**
+     * Run single transfers until one fetches a new ID block, so exactly 49 IDs are left in memory.
+     * The first 50 transfers get past any fetch at startup and show what a transfer costs without one.
+     */
+    private void alignToFreshIdBlock() {
+        long statementsPerTransfer = Long.MAX_VALUE;
+        for (int i = 0; i < SEQUENCE_ALLOCATION_SIZE; i++) {
+            statementsPerTransfer = Math.min(statementsPerTransfer, statementsFor(transfer(i)));
+        }
+        for (int i = 0; statementsFor(transfer(i)) == statementsPerTransfer; i++) {
+            assertThat(i).as("transfers before a new ID block").isLessThan(SEQUENCE_ALLOCATION_SIZE);
+        }
+    }
+
+    private long statementsFor(TransferRequest request) {
+        JdbcCounter.reset();
+        transferService.transferFunds(request);
+        return JdbcCounter.statements.get();
+    }
+
+    private static TransferRequest transfer(int i) {
+        return TransferRequest.builder()
+                .fromAccId(PAYERS[i % PAYERS.length])
+                .toAccId(PAYEES[i % PAYEES.length])
+                .amount(BigDecimal.ONE)
+                .build();
+    }
+
+    /**
+     * Counts statements Hibernate executes one at a time and JDBC batches it executes.
+     * Hibernate creates one per session, so the counts are shared.
+     */
+    public static class JdbcCounter implements SessionEventListener {
+
+        static final AtomicLong statements = new AtomicLong();
+        static final AtomicLong batches = new AtomicLong();
+
+        static void reset() {
+            statements.set(0);
+            batches.set(0);
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            statements.incrementAndGet();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batches.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.TransactionResponse;
+import com.upi.dto.TransferRequest;
+import com.upi.model.Account;
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.repository.AccountRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifies that transaction history reads load the accounts with the transactions
+ * instead of issuing one account SELECT per row.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class TransactionQueryCountTest {
+
+    private static final String ACCOUNT_ID = "NPLUS00";
+    private static final int COUNTERPARTIES = 8;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        if (accountRepository.existsByAccountId(ACCOUNT_ID)) {
+            return;
+        }
+        accountRepository.save(account(ACCOUNT_ID));
+        // A distinct counterparty per transfer, so every row would need its own lazy account load
+        for (int i = 1; i <= COUNTERPARTIES; i++) {
+            String counterpartyId = String.format("NPLUS%02d", i);
+            accountRepository.save(account(counterpartyId));
+            transferService.transferFunds(TransferRequest.builder()
+                    .fromAccId(i % 2 == 0 ? ACCOUNT_ID : counterpartyId)
+                    .toAccId(i % 2 == 0 ? counterpartyId : ACCOUNT_ID)
+                    .amount(BigDecimal.ONE)
+                    .build());
+        }
+    }
+
+    @Test
+    @DisplayName("Account history should cost the existence check plus one query")
+    void accountHistoryUsesSingleQuery() {
+        statistics.clear();
+
+        List<TransactionResponse> transactions = transactionService.getTransactionsByAccount(ACCOUNT_ID);
+
+        assertThat(transactions).hasSize(COUNTERPARTIES);
+        assertThat(transactions).extracting(TransactionResponse::getFromAccountName).doesNotContainNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Sent, received and date range reads should each cost the existence check plus one query")
+    void filteredHistoryUsesSingleQuery() {
+        statistics.clear();
+        assertThat(transactionService.getSentTransactions(ACCOUNT_ID)).hasSize(COUNTERPARTIES / 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        assertThat(transactionService.getReceivedTransactions(ACCOUNT_ID)).hasSize(COUNTERPARTIES / 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        assertThat(transactionService.getTransactionsByDateRange(
+                ACCOUNT_ID, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1)))
+                .hasSize(COUNTERPARTIES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Paginated history should cost the existence check, one page query and one count query")
+    void paginatedHistoryUsesSingleQuery() {
+        statistics.clear();
+
+        assertThat(transactionService.getTransactionsByAccountPaginated(ACCOUNT_ID, PageRequest.of(0, 5)))
+                .hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Recent transactions should cost one query")
+    void recentTransactionsUseSingleQuery() {
+        statistics.clear();
+
+        assertThat(transactionService.getRecentTransactions()).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static Account account(String accountId) {
+        return Account.builder()
+                .accountId(accountId)
+                .accountHolderName("N+1 Test " + accountId)
+                .balance(new BigDecimal("1000.00"))
+                .accountType(AccountType.SAVINGS)
+                .status(AccountStatus.ACTIVE)
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.TransactionStatsResponse;
+import com.upi.dto.TransferRequest;
+import com.upi.exception.InsufficientFundsException;
+import com.upi.model.Account;
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.model.TransactionStatus;
+import com.upi.repository.AccountRepository;
+import com.upi.repository.TransactionRepository;
+import com.upi.repository.TransactionRepository.StatsRow;
+
+/**
+ * Verifies that TransactionStats stays equal to a fresh aggregate over the transactions table
+ * after concurrent single and batch transfers, including rejected ones that roll back.
+ * Runs against its own in-memory database so no other test context writes to the table.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:statsdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("h2")
+class TransactionStatsTest {
+
+    private static final String[] ACCOUNT_IDS = {"STAT01", "STAT02", "STAT03", "STAT04"};
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("5000.00");
+    private static final int TRANSFERS = 1000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransactionStats transactionStats;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (String accountId : ACCOUNT_IDS) {
+            accountRepository.save(Account.builder()
+                    .accountId(accountId)
+                    .accountHolderName("Stats Test " + accountId)
+                    .balance(INITIAL_BALANCE)
+                    .accountType(AccountType.CURRENT)
+                    .status(AccountStatus.ACTIVE)
+                    .build());
+        }
+    }
+
+    @Test
+    @DisplayName("Counters should match the transactions table after concurrent transfers")
+    void countersMatchTableAfterConcurrentTransfers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            boolean batch = i % 10 == 0;
+            futures.add(executor.submit(() -> {
+                if (batch) {
+                    transferService.transferFundsBatch(List.of(randomTransfer(), randomTransfer(), randomTransfer()));
+                    return;
+                }
+                try {
+                    transferService.transferFunds(randomTransfer());
+                } catch (InsufficientFundsException e) {
+                    // Rolled back, so it must not be counted
+                }
+            }));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        TransactionStatsResponse stats = transactionStats.snapshot();
+        assertThat(stats.getTotal().getCount()).isGreaterThan(TRANSFERS / 2);
+        assertMatchesTable(stats);
+
+        // A rebuild from the table lands on the same numbers
+        transactionStats.rebuild();
+        assertThat(transactionStats.snapshot()).isEqualTo(stats);
+    }
+
+    private void assertMatchesTable(TransactionStatsResponse stats) {
+        long count = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        Map<TransactionStatus, BigDecimal> amountByStatus = new EnumMap<>(TransactionStatus.class);
+        BigDecimal todayAmount = BigDecimal.ZERO;
+        long todayCount = 0;
+        for (StatsRow row : transactionRepository.summarizeByStatusTypeAndDay()) {
+            count += row.getTransactionCount();
+            amount = amount.add(row.getTotalAmount());
+            amountByStatus.merge(row.getStatus(), row.getTotalAmount(), BigDecimal::add);
+            if (row.getTransactionDay().equals(LocalDate.now())) {
+                todayCount += row.getTransactionCount();
+                todayAmount = todayAmount.add(row.getTotalAmount());
+            }
+        }
+
+        assertThat(stats.getTotal().getCount()).isEqualTo(count).isEqualTo(transactionRepository.count());
+        assertThat(stats.getTotal().getAmount()).isEqualByComparingTo(amount);
+        for (TransactionStatus status : TransactionStatus.values()) {
+            assertThat(stats.getByStatus().get(status).getCount())
+                    .as("count of %s", status)
+                    .isEqualTo(transactionRepository.countByStatus(status));
+            assertThat(stats.getByStatus().get(status).getAmount())
+                    .as("amount of %s", status)
+                    .isEqualByComparingTo(amountByStatus.getOrDefault(status, BigDecimal.ZERO));
+        }
+        assertThat(stats.getByType().values().stream().mapToLong(TransactionStatsResponse.Bucket::getCount).sum())
+                .isEqualTo(count);
+        assertThat(stats.getByDay().get(LocalDate.now()).getCount()).isEqualTo(todayCount);
+        assertThat(stats.getByDay().get(LocalDate.now()).getAmount()).isEqualByComparingTo(todayAmount);
+    }
+
+    private static TransferRequest randomTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ACCOUNT_IDS.length);
+        int to = (from + 1 + random.nextInt(ACCOUNT_IDS.length - 1)) % ACCOUNT_IDS.length;
+        return TransferRequest.builder()
+                .fromAccId(ACCOUNT_IDS[from])
+                .toAccId(ACCOUNT_IDS[to])
+                .amount(BigDecimal.valueOf(1 + random.nextInt(150000), 2))
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.TransferRequest;
+import com.upi.exception.InsufficientFundsException;
+import com.upi.model.Account;
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.repository.AccountRepository;
+
+/**
+ * Concurrency tests for UPITransferService.
+ * Fires many parallel transfers between a small set of accounts and verifies
+ * that no update is lost and no deadlock occurs.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class TransferConcurrencyTest {
+
+    private static final String[] ACCOUNT_IDS = {"LOCK01", "LOCK02", "LOCK03", "LOCK04"};
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("10000.00");
+    private static final int TRANSFERS = 2000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (String accountId : ACCOUNT_IDS) {
+            accountRepository.save(Account.builder()
+                    .accountId(accountId)
+                    .accountHolderName("Lock Test " + accountId)
+                    .balance(INITIAL_BALANCE)
+                    .accountType(AccountType.CURRENT)
+                    .status(AccountStatus.ACTIVE)
+                    .build());
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel transfers should conserve the total balance")
+    void parallelTransfersConserveTotalBalance() throws Exception {
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int from = random.nextInt(ACCOUNT_IDS.length);
+                int to = (from + 1 + random.nextInt(ACCOUNT_IDS.length - 1)) % ACCOUNT_IDS.length;
+
+                TransferRequest request = TransferRequest.builder()
+                        .fromAccId(ACCOUNT_IDS[from])
+                        .toAccId(ACCOUNT_IDS[to])
+                        .amount(BigDecimal.valueOf(1 + random.nextInt(500)))
+                        .build();
+                try {
+                    transferService.transferFunds(request);
+                    completed.incrementAndGet();
+                } catch (InsufficientFundsException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        // Surfaces any unexpected failure (lock timeout, optimistic lock, deadlock)
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (String accountId : ACCOUNT_IDS) {
+            Account account = accountRepository.findByAccountId(accountId).orElseThrow();
+            assertThat(account.getBalance()).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+            total = total.add(account.getBalance());
+        }
+
+        assertThat(completed.get() + rejected.get()).isEqualTo(TRANSFERS);
+        assertThat(completed.get()).isPositive();
+        assertThat(total).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNT_IDS.length)));
+    }
+}
@@ -0,0 +1,146 @@
+package com.upi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.upi.dto.TransferRequest;
+import com.upi.exception.InsufficientFundsException;
+import com.upi.model.Account;
+import com.upi.model.AccountStatus;
+import com.upi.model.AccountType;
+import com.upi.repository.AccountRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+
+/**
+ * Verifies that transfers record per-stage timers, percentiles and outcome counters.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class TransferMetricsTest {
+
+    private static final String FROM_ACCOUNT = "METRIC01";
+    private static final String TO_ACCOUNT = "METRIC02";
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        for (String accountId : List.of(FROM_ACCOUNT, TO_ACCOUNT)) {
+            Account account = accountRepository.findByAccountId(accountId)
+                    .orElseGet(() -> Account.builder()
+                            .accountId(accountId)
+                            .accountHolderName("Metrics Test " + accountId)
+                            .accountType(AccountType.SAVINGS)
+                            .status(AccountStatus.ACTIVE)
+                            .build());
+            account.setBalance(new BigDecimal("100.00"));
+            accountRepository.save(account);
+        }
+    }
+
+    @Test
+    @DisplayName("A successful transfer should be timed in every stage")
+    void successfulTransferRecordsStages() {
+        List<String> stages = List.of("validate", "load_accounts", "validate_accounts", "debit_credit", "save", "commit");
+        double[] before = stages.stream().mapToDouble(this::stageCount).toArray();
+        double successBefore = outcomeCount("SUCCESS", "none");
+
+        transferService.transferFunds(transfer(new BigDecimal("10.00")));
+
+        for (int i = 0; i < stages.size(); i++) {
+            assertThat(stageCount(stages.get(i))).as(stages.get(i)).isEqualTo(before[i] + 1);
+        }
+        assertThat(outcomeCount("SUCCESS", "none")).isEqualTo(successBefore + 1);
+        assertThat(meterRegistry.find("transfer.stage.percentile")
+                .tag("stage", "load_accounts").tag("phi", "0.999").gauge()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("A rejected transfer should be counted with its reason")
+    void rejectedTransferRecordsReason() {
+        double rejectedBefore = outcomeCount("REJECTED", "InsufficientFundsException");
+        double commitsBefore = stageCount("commit");
+
+        assertThatThrownBy(() -> transferService.transferFunds(transfer(new BigDecimal("1000.00"))))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(outcomeCount("REJECTED", "InsufficientFundsException")).isEqualTo(rejectedBefore + 1);
+        assertThat(stageCount("commit")).isEqualTo(commitsBefore);
+    }
+
+    @Test
+    @DisplayName("A transfer that fails at commit should be counted as FAILED, not SUCCESS")
+    void commitFailureIsCountedAsFailed() {
+        double successBefore = outcomeCount("SUCCESS", "none");
+        double failedBefore = outcomeCount("FAILED", "DataIntegrityViolationException");
+        long durationBefore = meterRegistry.get("transfer.duration").timer().count();
+
+        // Too long for the description column, which only the INSERT at commit finds out
+        TransferRequest request = transfer(new BigDecimal("10.00"));
+        request.setDescription("x".repeat(300));
+        assertThatThrownBy(() -> transferService.transferFunds(request))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(outcomeCount("SUCCESS", "none")).isEqualTo(successBefore);
+        assertThat(outcomeCount("FAILED", "DataIntegrityViolationException")).isEqualTo(failedBefore + 1);
+        assertThat(meterRegistry.get("transfer.duration").timer().count()).isEqualTo(durationBefore + 1);
+        assertThat(accountRepository.findByAccountId(FROM_ACCOUNT).orElseThrow().getBalance())
+                .isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    @DisplayName("Batch items should be counted as SUCCESS only once the batch has committed")
+    void batchCommitFailureIsCountedAsFailed() {
+        double successBefore = outcomeCount("SUCCESS", "none");
+        double failedBefore = outcomeCount("FAILED", "DataIntegrityViolationException");
+
+        transferService.transferFundsBatch(List.of(transfer(new BigDecimal("1.00")), transfer(new BigDecimal("2.00"))));
+        assertThat(outcomeCount("SUCCESS", "none")).isEqualTo(successBefore + 2);
+
+        TransferRequest tooLong = transfer(new BigDecimal("2.00"));
+        tooLong.setDescription("x".repeat(300));
+        assertThatThrownBy(() -> transferService.transferFundsBatch(List.of(transfer(new BigDecimal("1.00")), tooLong)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(outcomeCount("SUCCESS", "none")).isEqualTo(successBefore + 2);
+        assertThat(outcomeCount("FAILED", "DataIntegrityViolationException")).isEqualTo(failedBefore + 2);
+    }
+
+    private TransferRequest transfer(BigDecimal amount) {
+        return TransferRequest.builder()
+                .fromAccId(FROM_ACCOUNT)
+                .toAccId(TO_ACCOUNT)
+                .amount(amount)
+                .build();
+    }
+
+    private double stageCount(String stage) {
+        Search search = meterRegistry.find("transfer.stage").tag("stage", stage);
+        return search.timer() == null ? 0 : search.timer().count();
+    }
+
+    private double outcomeCount(String status, String reason) {
+        Search search = meterRegistry.find("transfer.outcomes").tag("status", status).tag("reason", reason);
+        return search.counter() == null ? 0 : search.counter().count();
+    }
+}
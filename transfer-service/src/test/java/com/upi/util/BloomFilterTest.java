@@ -0,0 +1,93 @@
+package com.upi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for BloomFilter.
+ */
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 100_000;
+    private static final double TARGET_FPP = 0.01;
+
+    @Test
+    @DisplayName("Every value put should be reported as a possible match")
+    void noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, TARGET_FPP);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("False-positive rate at capacity should stay close to the target")
+    void falsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, TARGET_FPP);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put(String.format("9%09d", i));
+        }
+
+        int falsePositives = 0;
+        for (int i = INSERTIONS; i < 2 * INSERTIONS; i++) {
+            if (filter.mightContain(String.format("9%09d", i))) {
+                falsePositives++;
+            }
+        }
+
+        double measured = (double) falsePositives / INSERTIONS;
+        assertThat(measured).isLessThan(TARGET_FPP * 1.5);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(TARGET_FPP / 2, TARGET_FPP * 1.5);
+        assertThat(filter.hashCount()).isEqualTo(7);
+        assertThat(filter.memoryBytes()).isBetween(119_000L, 121_000L);
+    }
+
+    @Test
+    @DisplayName("Concurrent puts should not lose bits")
+    void concurrentPutsAreVisible() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        BloomFilter filter = new BloomFilter(threads * perThread, TARGET_FPP);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    filter.put(thread + ":" + i);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                assertThat(filter.mightContain(t + ":" + i)).isTrue();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid sizing should be rejected")
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, TARGET_FPP)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(INSERTIONS, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
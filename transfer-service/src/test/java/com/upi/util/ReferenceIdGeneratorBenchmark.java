@@ -0,0 +1,100 @@
+package com.upi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Throughput of ReferenceIdGenerator against the millis-plus-random reference it replaced
+ * and a UUID-based one, at 1, 8 and 64 threads. Not part of the regular build; run it explicitly:
+ *
+ *   mvn test -Dtest=ReferenceIdGeneratorBenchmark
+ *
+ * Each run is a warm-up followed by a timed second per thread count, so treat the
+ * printed numbers as a rough comparison rather than a JMH measurement. It fails if the
+ * generator is not faster than the UUID-based reference at every thread count.
+ */
+class ReferenceIdGeneratorBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 8, 64};
+    private static final long WARMUP_MILLIS = 1000;
+    private static final long MEASURE_MILLIS = 1000;
+
+    // Keeps the generated references observable so the JIT cannot drop the calls
+    private static final LongAdder characters = new LongAdder();
+
+    @Test
+    @DisplayName("Reference numbers per second, Snowflake-style vs millis + random vs UUID")
+    void compareGenerators() throws Exception {
+        ReferenceIdGenerator generator = new ReferenceIdGenerator(0);
+
+        System.out.println("\n=== Reference number throughput ===");
+        System.out.printf("%-8s %15s %15s %15s%n", "Threads", "Current ids/s", "Random ids/s", "UUID ids/s");
+        for (int threads : THREAD_COUNTS) {
+            double current = measure(threads, generator::nextReferenceNumber);
+            double random = measure(threads, ReferenceIdGeneratorBenchmark::randomReference);
+            double uuid = measure(threads, ReferenceIdGeneratorBenchmark::uuidReference);
+            System.out.printf("%-8d %15.0f %15.0f %15.0f%n", threads, current, random, uuid);
+
+            assertThat(current).as("reference numbers per second at %d threads", threads).isGreaterThan(uuid);
+        }
+        System.out.println("===================================\n");
+    }
+
+    /**
+     * The reference before user-004, which could repeat within a millisecond
+     */
+    private static String randomReference() {
+        return "TXN" + System.currentTimeMillis() + (int) (Math.random() * 1000);
+    }
+
+    /**
+     * The usual collision-free alternative, cut to fit the 20-character column
+     */
+    private static String uuidReference() {
+        return "TXN" + UUID.randomUUID().toString().replace("-", "").substring(0, 17).toUpperCase();
+    }
+
+    private static double measure(int threads, Supplier<String> references) throws Exception {
+        run(threads, references, WARMUP_MILLIS);
+        return run(threads, references, MEASURE_MILLIS) * 1000.0 / MEASURE_MILLIS;
+    }
+
+    private static long run(int threads, Supplier<String> references, long millis) throws Exception {
+        LongAdder count = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                long generated = 0;
+                long length = 0;
+                while (System.nanoTime() < deadline[0]) {
+                    for (int i = 0; i < 256; i++) {
+                        length += references.get().length();
+                    }
+                    generated += 256;
+                }
+                count.add(generated);
+                characters.add(length);
+                return null;
+            });
+        }
+        deadline[0] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return count.sum();
+    }
+}
@@ -0,0 +1,97 @@
+package com.upi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ReferenceIdGenerator.
+ */
+class ReferenceIdGeneratorTest {
+
+    private static final long NOW = ReferenceIdGenerator.EPOCH_MILLIS + 86_400_000L;
+
+    @Test
+    @DisplayName("IDs generated concurrently by many threads should all be unique")
+    void concurrentIdsAreUnique() throws Exception {
+        int threads = 16;
+        int idsPerThread = 50_000;
+        ReferenceIdGenerator generator = new ReferenceIdGenerator(7);
+        Set<String> references = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < idsPerThread; i++) {
+                    references.add(generator.nextReferenceNumber());
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(references).hasSize(threads * idsPerThread);
+    }
+
+    @Test
+    @DisplayName("IDs should keep increasing when the sequence overflows within one millisecond")
+    void sequenceOverflowBorrowsNextMillisecond() {
+        ReferenceIdGenerator generator = new ReferenceIdGenerator(1, () -> NOW);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    @DisplayName("IDs should keep increasing when the clock moves backwards")
+    void clockMovingBackwardsDoesNotRepeatIds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        ReferenceIdGenerator generator = new ReferenceIdGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-5_000);
+        assertThat(generator.nextId()).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("Different nodes should never produce the same ID for the same instant")
+    void nodesProduceDistinctIds() {
+        ReferenceIdGenerator node1 = new ReferenceIdGenerator(1, () -> NOW);
+        ReferenceIdGenerator node2 = new ReferenceIdGenerator(2, () -> NOW);
+
+        assertThat(node1.nextId()).isNotEqualTo(node2.nextId());
+    }
+
+    @Test
+    @DisplayName("Reference numbers should fit the reference_number column")
+    void referenceNumberFormat() {
+        String reference = new ReferenceIdGenerator(0).nextReferenceNumber();
+
+        assertThat(reference).startsWith("TXN").hasSize(16).matches("TXN[0-9A-Z]{13}");
+    }
+
+    @Test
+    @DisplayName("Node IDs outside 0-1023 should be rejected")
+    void invalidNodeIdRejected() {
+        assertThatThrownBy(() -> new ReferenceIdGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.upi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ZipfSampler.
+ */
+class ZipfSamplerTest {
+
+    private static final int ELEMENTS = 1000;
+    private static final int DRAWS = 1_000_000;
+
+    @Test
+    @DisplayName("Rank frequencies should follow 1 / k^exponent")
+    void frequenciesFollowZipfLaw() {
+        long[] counts = draw(new ZipfSampler(ELEMENTS, 1.0));
+
+        double harmonic = 0;
+        for (int k = 1; k <= ELEMENTS; k++) {
+            harmonic += 1.0 / k;
+        }
+        for (int k : new int[] {1, 2, 10, 100}) {
+            double expected = 1.0 / k / harmonic;
+            assertThat((double) counts[k] / DRAWS)
+                    .as("frequency of rank %d", k)
+                    .isCloseTo(expected, within(expected * 0.05 + 0.0005));
+        }
+    }
+
+    @Test
+    @DisplayName("Exponent 0 should draw every rank equally often")
+    void zeroExponentIsUniform() {
+        long[] counts = draw(new ZipfSampler(ELEMENTS, 0.0));
+
+        for (int k = 1; k <= ELEMENTS; k++) {
+            assertThat(counts[k]).as("count of rank %d", k).isBetween(800L, 1200L);
+        }
+    }
+
+    @Test
+    @DisplayName("Every draw should be a valid rank, including for a single element")
+    void drawsStayInRange() {
+        SplittableRandom random = new SplittableRandom(7);
+        ZipfSampler single = new ZipfSampler(1, 1.2);
+        ZipfSampler large = new ZipfSampler(5_000_000, 0.8);
+
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(single.sample(random)).isEqualTo(1);
+            assertThat(large.sample(random)).isBetween(1L, 5_000_000L);
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid parameters should be rejected")
+    void rejectsInvalidParameters() {
+        assertThatThrownBy(() -> new ZipfSampler(0, 1.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ZipfSampler(10, -0.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long[] draw(ZipfSampler sampler) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] counts = new long[ELEMENTS + 1];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[(int) sampler.sample(random)]++;
+        }
+        return counts;
+    }
+}